@@ -15,18 +15,42 @@ import danogl.gui.rendering.Camera;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.assets.AssetPipeline;
+import pepse.assets.SpriteAtlas;
+import pepse.event.WorldEventBus;
+import pepse.event.WorldEventType;
+import pepse.input.InputRecorder;
+import pepse.input.InputSource;
+import pepse.input.InputTrace;
+import pepse.input.LiveInput;
+import pepse.input.ReplayInput;
 import pepse.util.ColorSupplier;
+import pepse.util.FixedTimestep;
+import pepse.util.FrameTimeHistogram;
+import pepse.util.StartupReport;
 import pepse.world.*;
+import pepse.world.agents.AgentPopulation;
+import pepse.world.agents.AgentRenderer;
+import pepse.world.agents.AgentSimulator;
+import pepse.world.agents.HeightField;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
 import pepse.world.trees.Flora;
+import pepse.world.trees.Tree;
 
 
 import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
-import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleSupplier;
 
 import static pepse.constants.TagConstants.AVATAR_TAG;
 
@@ -40,26 +64,48 @@ public class PepseGameManager extends GameManager {
     //       CONSTANTS
     // =======================
 
-    /**
-     * The seed used for random terrain and flora generation.
-     * This ensures consistent world generation across sessions
-     * when the same seed is provided.
-     */
-    public static final int SEED = (int) System.currentTimeMillis(); // Random seed for terrain and
-    // flora generation
-    private static final float INITIAL_LAST_AVATAR_X = 0f;            // Initial X-coordinate for
-    // avatar tracking
+    private static final Path SNAPSHOT_PATH = Paths.get(System.getProperty("user.home"), ".pepse",
+            "session.snap"); // Session saved on exit and resumed on the next launch
+    private static final String SEED_PROPERTY = "pepse.seed";
+    private static final String AGENTS_PROPERTY = "pepse.agents";
+    private static final String ANALYTIC_TERRAIN_PROPERTY = "pepse.analyticTerrain";
+    private static final String CHUNK_CACHE_PROPERTY = "pepse.chunkCacheBytes";
+    private static final long CHUNK_CACHE_BYTES = Long.getLong(CHUNK_CACHE_PROPERTY,
+            4L << 20); // Unloaded columns and trees kept, split evenly between the two
+    private static final String COLUMN_CACHE_NAME = "column";
+    private static final int DEFAULT_AGENT_COUNT = 1000; // Foragers roaming the world
+    private static final float AGENT_HABITAT_HALF_WIDTH = 15000f; // Habitat extent around the start
+    private static final int MAX_AGENT_PROXIES = 256; // Agents drawn at once
+    private static final double SESSION_CAPTURE_INTERVAL = 1; // World seconds between captures
+    private static final long STREAMING_BUDGET_NANOS = 1_500_000; // Streaming time per frame
+    private static final float MIN_TRAILING_PADDING = Block.SIZE * 4; // Padding kept behind the avatar
+    private static final float MAX_LOOK_AHEAD = 2400f; // Largest padding streamed ahead of the avatar
+    private static final float FULL_SPEED = 300f; // Running speed, at which the trailing padding is smallest
+    private static final int AGENT_LAYER = Layer.STATIC_OBJECTS - 1; // Drawn behind terrain, no collisions
+    private static final String RECORD_ARG = "--record";
+    private static final String REPLAY_ARG = "--replay";
+    private static final String NEW_SESSION_ARG = "--new";
+    private static final float FAST_FORWARD_STEP = 0.1f; // Step used to wind the sky forward (in seconds)
+    private static final String PHASE_WINDOW_OPENED = "window-opened";
+    private static final String PHASE_SNAPSHOT_READ = "snapshot-read";
+    private static final String PHASE_INITIALIZED = "initialized";
+    private static final String PHASE_FIRST_FRAME = "first-frame";
+    private static final String PHASE_AVATAR_ANIMATIONS = "avatar-animations";
+    private static final String PHASE_WORLD_STREAMED = "world-streamed";
+    private static final String PHASE_FULLY_LOADED = "fully-loaded";
+    private static final String ERROR_SEED_MISMATCH =
+            "Trace was recorded with seed %d; run with -D" + SEED_PROPERTY + "=%d";
+    private static final String ERROR_TICK_RATE_MISMATCH =
+            "Trace was recorded at %.1f ticks per second, but the game runs at %.1f";
     private static final float MAX_ENERGY = 100f;
+    private static final float DEFAULT_TICK_RATE = 60f; // Simulation ticks per second
+    private static final int DEFAULT_MAX_CATCH_UP_TICKS = 5; // Max ticks simulated per frame
     final float WINDOW_PADDING = 300f; // Extra space around the window for terrain generation
     final float CAMERA_CENTER_OFFSET = 0.5f; // Centering factor for the camera
-    final int COLLISION_LAYER_FRUIT = -98; // Layer for terrain collisions
-    final int COLLISION_LAYER_DEFAULT = 0;   // Default collision layer
-    final float BLOCK_UPDATE_THRESHOLD = Block.SIZE * 3; // Threshold for updating terrain
     final float DAY_NIGHT_CYCLE_LENGTH = 30f; // Duration of the day-night cycle in seconds
     final float NIGHT_CYCLE_LENGTH = 15f; // Duration of the night cycle in seconds
     final float AVATAR_VERTICAL_OFFSET = 50f; // Offset to place the avatar above the ground
     final Vector2 ENERGY_METER_POSITION = new Vector2(10, 10); // Top-left corner of the energy meter
-    final int FLORA_RANGE_PADDING = 300;    // Padding for flora creation range
     final float FRUIT_ENERGY_REWARD = 10f; // Energy added when a fruit is collected
     final Color WHITE_COLOR = new Color(255, 255, 255); // Base color for the cloud
     final Vector2 CLOUD_DIMENSIONS = new Vector2(140, 100); // Dimensions of the cloud
@@ -70,123 +116,443 @@ public class PepseGameManager extends GameManager {
     //    INSTANCE FIELDS
     // =======================
     private WindowController windowController;
-    private final HashMap<Vector2, Block> activeBlocks = new HashMap<>();
     private Avatar avatar;
     private Terrain terrain;
     private Flora flora;
-    private float lastAvatarX = INITIAL_LAST_AVATAR_X;
-    private boolean isInitialized = false;
-    private float minLimit;
-    private float maxLimit;
+    private final ChunkCache<List<Block>> columnCache = new ChunkCache<>(COLUMN_CACHE_NAME,
+            CHUNK_CACHE_BYTES / 2); // Unloaded columns' blocks, by column index
+    private final ChunkCache<Tree> treeCache = new ChunkCache<>(Flora.CACHE_NAME,
+            CHUNK_CACHE_BYTES / 2); // Unloaded trees, by tree slot
+    private ChunkPrefetcher prefetcher;
+    private WorldStreamer streamer; // Streams columns and trees around the avatar
+    private static boolean isNewWorld; // Whether the seed ignores the saved session
+    private Random weatherRandom; // Seeded, so replays rain alike
+    private final float tickRate;
+    private final FixedTimestep timestep;
+    private final FrameTimeHistogram frameTimes = new FrameTimeHistogram();
+    private final CompletableFuture<SpriteAtlas> avatarStill; // Decoded while the window opens
+    private final CompletableFuture<SpriteAtlas> avatarSprites; // Animations, may arrive later
+    private final StartupReport startup = new StartupReport(); // Timed from construction
+    private final Deque<Runnable> startupTasks = new ArrayDeque<>(); // Run one per frame after the first
+    private boolean isFullyLoaded;
+    private Cloud cloud; // Created after the first frame
+    private Path recordPath;
+    private Path replayPath;
+    private InputSource input;
+    private InputRecorder recorder;
+    private ReplayInput replay;
+    private final RenderInterpolator interpolator = new RenderInterpolator();
+    private final WorldEventBus eventBus = new WorldEventBus();
+    private MutationQueue mutations; // World adds and removes, applied once per frame
+    private CullingManager culling; // Suspends terrain and trees away from the camera
+    private InteractionGrid interactions; // Resolves the avatar's contact with trunks and fruit
+    private TerrainCollider terrainCollider; // Analytic terrain contact, or null for the engine
+    private AgentSimulator agentSimulator;
+    private AgentRenderer agentRenderer;
+    private boolean resumeSession = true; // Whether to restore the session snapshot
+    private double worldTime; // Simulated seconds since the world was created
+    private boolean isSavingSession; // Whether the session is captured and written on exit
+    private double lastCaptureTime; // World time of the last session capture
+    private volatile ByteBuffer capturedSession; // Encoded on the game thread, written on exit
+
+    // =======================
+    //     CONSTRUCTORS
+    // =======================
+
+    /**
+     * Constructs a game manager simulating at the default tick rate.
+     */
+    public PepseGameManager() {
+        this(DEFAULT_TICK_RATE, DEFAULT_MAX_CATCH_UP_TICKS);
+    }
+
+    /**
+     * Constructs a game manager with a custom fixed timestep.
+     *
+     * @param tickRate          The number of simulation ticks per second.
+     * @param maxCatchUpTicks   The maximum number of ticks simulated for a single frame.
+     */
+    public PepseGameManager(float tickRate, int maxCatchUpTicks) {
+        this.tickRate = tickRate;
+        this.timestep = new FixedTimestep(tickRate, maxCatchUpTicks);
+        this.avatarStill = AssetPipeline.preload(true, Avatar.getStillAssetPaths());
+        this.avatarSprites = AssetPipeline.preload(false, Avatar.getAssetPaths());
+    }
+
+    // =======================
+    //    PUBLIC METHODS
+    // =======================
+
+    /**
+     * Records the per-tick input of this session to a trace file, written when the game exits.
+     * Must be called before the game starts.
+     *
+     * @param path The trace file to write.
+     */
+    public void recordInputTo(Path path) {
+        this.recordPath = path;
+    }
+
+    /**
+     * Replays the input of a recorded trace instead of reading the keyboard. The game closes
+     * and prints its frame-time histogram once the trace is exhausted. Must be called before
+     * the game starts.
+     *
+     * @param path The trace file to replay.
+     */
+    public void replayInputFrom(Path path) {
+        this.replayPath = path;
+    }
+
+    /**
+     * Starts a new world instead of resuming the saved session: the seed is not taken from the
+     * saved session, unless set with the {@value SEED_PROPERTY} system property. The new session
+     * still replaces the saved one when the game exits. Must be called before the game starts
+     * and before the seed is first read, see {@link #getSeed()}.
+     */
+    public void startNewSession() {
+        this.resumeSession = false;
+        isNewWorld = true;
+    }
+
+    /**
+     * Returns the seed used for random terrain and flora generation.
+     * This ensures consistent world generation across sessions
+     * when the same seed is provided. Set the {@value SEED_PROPERTY} system property
+     * to fix it; otherwise it is taken from the saved session, or from the clock. The seed is
+     * chosen when first read, after the command-line arguments are parsed.
+     *
+     * @return The world seed.
+     */
+    public static int getSeed() {
+        return Seed.VALUE;
+    }
+
+    /**
+     * Saves the session as it is now, to be resumed on the next launch. Must be called on the
+     * game thread, e.g. once {@link #run()} returns; exiting any other way saves the session as
+     * last captured, at most {@value SESSION_CAPTURE_INTERVAL} simulated seconds old.
+     */
+    public void saveSession() {
+        if (isSavingSession) {
+            captureSession();
+            writeCapturedSession();
+        }
+    }
 
 
     @Override
     public void initializeGame(ImageReader imageReader, SoundReader soundReader,
                                UserInputListener inputListener, WindowController windowController) {
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
+        startup.mark(PHASE_WINDOW_OPENED);
         this.windowController = windowController;
+        this.weatherRandom = new Random(getSeed());
+        this.input = createInput(inputListener);
+        this.mutations = new MutationQueue(GameObjectSink.of(gameObjects()));
+        this.culling = new CullingManager(mutations);
+        this.interactions = new InteractionGrid(culling);
         float windowWidth = windowController.getWindowDimensions().x();
-        minLimit = -WINDOW_PADDING;
-        maxLimit = windowWidth + WINDOW_PADDING;
+        this.prefetcher = new ChunkPrefetcher(WINDOW_PADDING, MIN_TRAILING_PADDING, MAX_LOOK_AHEAD,
+                FULL_SPEED, STREAMING_BUDGET_NANOS, tickRate); // Frame rate measured from then on
+        WorldSnapshot snapshot = readSnapshot();
+        if (snapshot != null) {
+            startup.mark(PHASE_SNAPSHOT_READ);
+        }
+        worldTime = snapshot != null ? snapshot.getWorldTime() : 0;
         createSky();
-        Terrain terrain = new Terrain(windowController.getWindowDimensions(), SEED);
+        Terrain terrain = new Terrain(windowController.getWindowDimensions(), getSeed());
         this.terrain = terrain;
-        // Create blocks for the terrain in the defined range
-        addNewBlocksInRange((int)minLimit, (int)maxLimit);
+        if (snapshot != null) {
+            snapshot.restoreEdits(terrain.getEdits());
+        }
+        // Its trees are streamed in after the first frame
+        this.flora = new Flora(terrain, interactions, eventBus, treeCache);
+        this.streamer = new WorldStreamer(terrain, flora, culling, eventBus, prefetcher,
+                columnCache, STREAMING_BUDGET_NANOS, this::camera);
+        streamer.start(snapshot != null ? snapshot.getViewMinX() : 0,
+                snapshot != null ? snapshot.getViewMaxX() : windowWidth, snapshot);
+        // The first frame needs only the columns on screen; the padding is streamed in after it
+        float viewMinX = snapshot != null ? snapshot.getAvatarX() - windowWidth / 2f : 0;
+        int firstVisibleColumn = Math.floorDiv((int) Math.floor(viewMinX), Block.SIZE);
+        int lastVisibleColumn = Math.floorDiv((int) Math.ceil(viewMinX + windowWidth), Block.SIZE);
+        streamer.loadColumns(firstVisibleColumn, lastVisibleColumn);
         GameObject night = createNight();
         GameObject sun = createSun();
         GameObject sunHalo = createSunHalo(sun);
-        Avatar avatar = createAvatar(imageReader, inputListener, terrain);
+        // Transitions cannot seek, so wind the sky forward to the saved time of day
+        fastForward(night, worldTime % DAY_NIGHT_CYCLE_LENGTH);
+        fastForward(sun, worldTime % DAY_NIGHT_CYCLE_LENGTH);
+        Avatar avatar = createAvatar(avatarStill.join(), input, terrain);
+        Vector2 startPosition = avatar.getTopLeftCorner();
+        if (snapshot != null) {
+            avatar.setTopLeftCorner(new Vector2(snapshot.getAvatarX(), snapshot.getAvatarY()));
+            avatar.setEnergy(snapshot.getEnergy());
+        }
         this.avatar = avatar;
-        this.lastAvatarX = avatar.getTopLeftCorner().x();
+        if (Boolean.getBoolean(ANALYTIC_TERRAIN_PROPERTY)) {
+            // Terrain blocks become purely visual
+            terrainCollider = new TerrainCollider(terrain);
+            avatar.setTerrainCollider(terrainCollider);
+            gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Layer.STATIC_OBJECTS, false);
+        }
+        interpolator.track(avatar);
         createEnergyMeter(avatar);
-        gameObjects().layers().shouldLayersCollide(COLLISION_LAYER_FRUIT, COLLISION_LAYER_DEFAULT,
-                true);
-        createFlora(terrain, avatar);
-        Cloud cloud = createCloud();
-        // Store the listener in a variable to ensure reference consistency
-        Runnable cloudRainListener = cloud::createRain;
-        // Add the listener to the Avatar
-        avatar.addAvatarEventListener(cloudRainListener);
-        
-        // set camera
+        // Add energy whenever a fruit is collected
+        eventBus.subscribe(WorldEventBus.maskOf(WorldEventType.FRUIT_COLLECTED),
+                event -> avatar.addEnergy(FRUIT_ENERGY_REWARD));
+        // Jumping brings rain as often as the biome under the avatar allows. The roll is made
+        // even before the cloud exists, so replays draw the same weather
+        eventBus.subscribe(WorldEventBus.maskOf(WorldEventType.JUMP), event -> {
+            if (weatherRandom.nextFloat() < terrain.biomeAt(event.getX()).getRainChance() &&
+                    cloud != null) {
+                cloud.createRain();
+            }
+        });
+        eventBus.subscribe(WorldEventBus.maskOf(WorldEventType.DIG, WorldEventType.PLACE),
+                event -> editTerrain(event.getX(), event.getY(),
+                        event.getType() == WorldEventType.PLACE));
+
+        // set camera, offset from the start position so a resumed view matches the saved one
         setCamera(new Camera(avatar,
                 windowController.getWindowDimensions().mult(CAMERA_CENTER_OFFSET).
-                        subtract(avatar.getTopLeftCorner()),
+                        subtract(startPosition),
                 windowController.getWindowDimensions(),
                 windowController.getWindowDimensions()));
-        isInitialized = true;
+        if (recordPath == null && replayPath == null) {
+            // The hook only writes what the game thread captured; it never reads the live world
+            isSavingSession = true;
+            captureSession();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::writeCapturedSession));
+        }
+
+        // Everything else arrives over the following frames
+        streamer.enqueueStartup(firstVisibleColumn, lastVisibleColumn,
+                avatar.getTopLeftCorner().x());
+        startupTasks.add(() -> createAgents(terrain, avatar));
+        startupTasks.add(() -> cloud = createCloud());
+        mutations.flush();
+        startup.mark(PHASE_INITIALIZED);
     }
 
+    /**
+     * Advances the world by a whole number of fixed ticks and displays moving objects
+     * interpolated between the last two ticks.
+     *
+     * @param deltaTime Time elapsed since the last frame (in seconds).
+     */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
-
+        frameTimes.record(deltaTime);
+        prefetcher.recordFrame(deltaTime);
+        interpolator.restore();
+        int ticks = timestep.advance(deltaTime);
+        for (int i = 0; i < ticks; i++) {
+            interpolator.beginTick();
+            tick(timestep.getTickDuration());
+        }
+        streamer.drain();
+        if (!startup.hasMarked(PHASE_FIRST_FRAME)) {
+            startup.mark(PHASE_FIRST_FRAME); // Deferred startup work waits for the next frame
+        } else if (!isFullyLoaded) {
+            continueStartup();
+        }
+        mutations.flush(); // The frame's world changes, in one pass
+        interpolator.endTicks();
+        interpolator.apply(timestep.getAlpha());
+        // Keep the camera on the displayed avatar, not on the simulated one
+        if (camera() != null) {
+            camera().update(0f);
+        }
+    }
 
-        float avatarX = avatar.getTopLeftCorner().x();
+    /**
+     * Simulates a single fixed tick of the world.
+     *
+     * @param tickDuration The length of the tick (in seconds).
+     */
+    private void tick(float tickDuration) {
+        worldTime += tickDuration;
+        input.nextTick();
+        super.update(tickDuration);
+        interactions.resolve(avatar);
+        if (agentSimulator != null) {
+            agentSimulator.tick(tickDuration);
+            agentRenderer.update(camera());
+        }
+        streamer.update(avatar.getTopLeftCorner().x(), avatar.transform().getVelocity().x(),
+                tickDuration);
+        culling.update(camera());
+        eventBus.dispatch();
+        if (isSavingSession && worldTime - lastCaptureTime >= SESSION_CAPTURE_INTERVAL) {
+            captureSession();
+        }
+        if (replay != null && replay.isFinished()) {
+            finishReplay();
+        }
+    }
 
-        if ((Math.abs(avatarX - lastAvatarX) >= BLOCK_UPDATE_THRESHOLD) && this.isInitialized) {
-            float moveChange = avatarX - lastAvatarX;
+    /**
+     * Advances startup by a frame: runs one deferred startup task, animates the avatar once its
+     * sprites are decoded, and prints the startup report when nothing is left to load.
+     */
+    private void continueStartup() {
+        if (!startupTasks.isEmpty()) {
+            startupTasks.poll().run();
+        }
+        if (!startup.hasMarked(PHASE_AVATAR_ANIMATIONS) && avatarSprites.isDone()) {
+            avatar.initializeAnimations(avatarSprites.join());
+            startup.mark(PHASE_AVATAR_ANIMATIONS);
+        }
+        if (!startup.hasMarked(PHASE_WORLD_STREAMED) && streamer.getQueueDepth() == 0) {
+            startup.mark(PHASE_WORLD_STREAMED);
+            streamer.finishStartup(); // Later columns and trees come from the terrain and flora
+        }
+        if (startupTasks.isEmpty() && startup.hasMarked(PHASE_AVATAR_ANIMATIONS) &&
+                startup.hasMarked(PHASE_WORLD_STREAMED)) {
+            isFullyLoaded = true;
+            startup.mark(PHASE_FULLY_LOADED);
+            startup.print(System.out);
+        }
+    }
 
-            if(moveChange<0){ //moved left
-                addNewBlocksInRange((int)(minLimit + moveChange), (int)minLimit);
-                removeBlocksOutsideRange((int)(maxLimit+moveChange), (int)maxLimit);
-                flora.createInRange((int)(minLimit + moveChange),  (int)minLimit);
-                flora.removeTreesOutsideRange((int)(maxLimit+moveChange), (int)minLimit);
+    /**
+     * Digs out or fills in the cell at a position, rebuilding the blocks around it.
+     */
+    private void editTerrain(float x, float y, boolean solid) {
+        int column = Math.floorDiv((int) Math.floor(x), Block.SIZE);
+        int row = Math.floorDiv((int) Math.floor(y), Block.SIZE);
+        if (streamer.editCell(column, row, solid) && terrainCollider != null) {
+            terrainCollider.invalidate(column);
+        }
+    }
 
+    private InputSource createInput(UserInputListener inputListener) {
+        if (replayPath != null) {
+            InputTrace trace = readTrace(replayPath);
+            if (trace.getSeed() != getSeed()) {
+                throw new IllegalStateException(
+                        String.format(ERROR_SEED_MISMATCH, trace.getSeed(), trace.getSeed()));
             }
-            else{ //moved right
-                addNewBlocksInRange((int)maxLimit+Block.SIZE, (int)(maxLimit +Block.SIZE + moveChange));
-                removeBlocksOutsideRange((int)minLimit, (int)(minLimit+moveChange));
-                flora.createInRange((int)maxLimit+Block.SIZE,  (int)(maxLimit+Block.SIZE + moveChange));
-                flora.removeTreesOutsideRange((int)minLimit, (int)(minLimit + moveChange));
+            if (trace.getTickRate() != tickRate) {
+                throw new IllegalStateException(
+                        String.format(ERROR_TICK_RATE_MISMATCH, trace.getTickRate(), tickRate));
             }
+            replay = new ReplayInput(trace);
+            return replay;
+        }
+        LiveInput live = new LiveInput(inputListener);
+        if (recordPath != null) {
+            recorder = new InputRecorder(live, new InputTrace(getSeed(), tickRate));
+            Runtime.getRuntime().addShutdownHook(new Thread(this::saveRecording));
+            return recorder;
+        }
+        return live;
+    }
 
-            lastAvatarX = avatarX;
-            minLimit = minLimit + moveChange;
-            maxLimit = maxLimit +moveChange;
+    private static InputTrace readTrace(Path path) {
+        try {
+            return InputTrace.read(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    private void saveRecording() {
+        try {
+            recorder.getTrace().write(recordPath);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        frameTimes.print(System.out);
+        streamer.print(System.out);
+        treeCache.print(System.out);
+    }
 
+    /**
+     * Reads the saved session, if it should be resumed: not when starting anew, recording or
+     * replaying, and not if it was saved with another seed.
+     */
+    private WorldSnapshot readSnapshot() {
+        if (!resumeSession || recordPath != null || replayPath != null ||
+                WorldSnapshot.readSeed(SNAPSHOT_PATH, ~getSeed()) != getSeed()) {
+            return null;
+        }
+        try {
+            return WorldSnapshot.read(SNAPSHOT_PATH);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null; // A broken snapshot only costs the saved session
         }
     }
 
-    private void addNewBlocksInRange(int minX, int maxX) {
-        List<Block> newBlocks = terrain.createInRange(minX, maxX);
-        for (Block block : newBlocks) {
-            Vector2 blockPosition  = block.getTopLeftCorner();
-            if (!activeBlocks.containsKey(blockPosition)) {
-                gameObjects().addGameObject(block, Layer.STATIC_OBJECTS);
-                activeBlocks.put(blockPosition, block);
-            }
+    /**
+     * Captures the session on the game thread, between ticks: the loaded columns with one
+     * neighbour on each side, the terrain edits and the standing trees.
+     */
+    private void captureSession() {
+        lastCaptureTime = worldTime;
+        int firstColumn = streamer.getMinColumn() - 1;
+        int columnCount = streamer.getMaxColumn() - streamer.getMinColumn() + 3;
+        int[] surfaceRows = new int[columnCount];
+        long[] cells = new long[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            surfaceRows[i] = terrain.surfaceRow(firstColumn + i);
+            cells[i] = terrain.cellsAt(firstColumn + i);
+        }
+        ByteBuffer edits = ByteBuffer.allocate(terrain.getEdits().getSerializedSize());
+        terrain.getEdits().writeTo(edits);
+        edits.flip();
+
+        List<Tree> trees = new ArrayList<>();
+        flora.forEachTree(trees::add);
+        int[] treeX = new int[trees.size()];
+        float[] treeGroundY = new float[trees.size()];
+        long[] eatenFruit = new long[trees.size()];
+        for (int i = 0; i < trees.size(); i++) {
+            treeX[i] = (int) trees.get(i).getDescriptor().getX();
+            treeGroundY[i] = trees.get(i).getDescriptor().getGroundY();
+            eatenFruit[i] = trees.get(i).getEatenFruit();
+        }
 
+        Vector2 avatarPosition = avatar.getTopLeftCorner();
+        capturedSession = new WorldSnapshot(getSeed(), worldTime, avatarPosition.x(),
+                avatarPosition.y(), avatar.getEnergy(), streamer.getViewMinX(), streamer.getViewMaxX(), firstColumn,
+                surfaceRows, cells, edits, treeX, treeGroundY, eatenFruit).encode();
+    }
 
+    /**
+     * Writes the last captured session, once: whichever of the shutdown hook and
+     * {@link #saveSession()} comes second finds nothing left to write.
+     */
+    private synchronized void writeCapturedSession() {
+        ByteBuffer session = capturedSession;
+        capturedSession = null;
+        if (session == null) {
+            return;
+        }
+        try {
+            WorldSnapshot.writeEncoded(session, SNAPSHOT_PATH);
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
 
     /**
-     * Removes blocks outside the specified range from the active blocks map
-     * and the game world.
-     *
-     * @param minX The minimum X-coordinate of the range.
-     * @param maxX The maximum X-coordinate of the range.
+     * Advances a game object's transitions by a span of time in small steps.
      */
-    private void removeBlocksOutsideRange(int minX, int maxX) {
-        List<Block> blocksToRemove = new ArrayList<>();
-
-        // Iterate over the keys in activeBlocks to find blocks outside the range
-        for (Vector2 position : activeBlocks.keySet()) {
-            if (position.x() > minX && position.x() < maxX) {
-                Block block = activeBlocks.get(position);
-                blocksToRemove.add(block);
-            }
+    private static void fastForward(GameObject gameObject, double seconds) {
+        for (double remaining = seconds; remaining > 0; remaining -= FAST_FORWARD_STEP) {
+            gameObject.update((float) Math.min(FAST_FORWARD_STEP, remaining));
         }
+    }
 
-        // Remove blocks that are outside the range
-        for (GameObject block : blocksToRemove) {
-            Vector2 blockPosition = block.getTopLeftCorner();
-            activeBlocks.remove(blockPosition);
-            gameObjects().removeGameObject(block, Layer.STATIC_OBJECTS);
-        }
+    private void finishReplay() {
+        replay = null;
+        frameTimes.print(System.out);
+        streamer.print(System.out);
+        treeCache.print(System.out);
+        windowController.closeWindow();
     }
 
     private void createSky() {
@@ -194,7 +560,8 @@ public class PepseGameManager extends GameManager {
         gameObjects().addGameObject(sky, Layer.BACKGROUND);
     }
     private GameObject createNight(){
-        GameObject night = Night.create(this.windowController.getWindowDimensions(),NIGHT_CYCLE_LENGTH);
+        GameObject night = Night.create(this.windowController.getWindowDimensions(),NIGHT_CYCLE_LENGTH,
+                eventBus);
         gameObjects().addGameObject(night, Layer.BACKGROUND);
         return night;
     }
@@ -214,18 +581,18 @@ public class PepseGameManager extends GameManager {
         return sun;
     }
 
-    private Avatar createAvatar(ImageReader imageReader, UserInputListener inputListener, Terrain terrain) {
+    private Avatar createAvatar(SpriteAtlas sprites, InputSource input, Terrain terrain) {
         float windowWidth = windowController.getWindowDimensions().x();
         Vector2 avatarStartPosition = new Vector2(windowWidth / 2f,
                 terrain.groundHeightAt(windowWidth / 2f) - AVATAR_VERTICAL_OFFSET);
-        Avatar avatar = new Avatar(avatarStartPosition, inputListener, imageReader);
+        Avatar avatar = new Avatar(avatarStartPosition, input, sprites, eventBus);
         gameObjects().addGameObject(avatar, Layer.DEFAULT);
         avatar.setTag(AVATAR_TAG);
         return avatar;
     }
 
     private void createEnergyMeter(GameObject avatar) {
-        Supplier<Float> energySupplier = () -> ((Avatar) avatar).getEnergy();
+        DoubleSupplier energySupplier = () -> ((Avatar) avatar).getEnergy();
         EnergyMeter energyMeter = new EnergyMeter(
                 ENERGY_METER_POSITION, // Position of the energy meter
                 energySupplier,
@@ -237,27 +604,27 @@ public class PepseGameManager extends GameManager {
         energyMeter.getEnergyTextObject().setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
     }
 
-    private void createFlora(Terrain terrain, Avatar avatar) {
-        // Define the range for creating trees
-        int minX = -FLORA_RANGE_PADDING;
-        int maxX = (int) (windowController.getWindowDimensions().x() + FLORA_RANGE_PADDING);
-
-        // Callback for adding energy when a fruit is collected
-        Runnable fruitCallback = () -> avatar.addEnergy(FRUIT_ENERGY_REWARD);
-
-        // Create Flora instance
-        Flora flora = new Flora(terrain, gameObjects(), fruitCallback);
-
-        // Create trees in the defined range
-        flora.createInRange(minX, maxX);
-        this.flora = flora;
-
+    private void createAgents(Terrain terrain, Avatar avatar) {
+        int agentCount = Integer.getInteger(AGENTS_PROPERTY, DEFAULT_AGENT_COUNT);
+        float startX = avatar.getTopLeftCorner().x();
+        HeightField heights = new HeightField(terrain, startX - AGENT_HABITAT_HALF_WIDTH,
+                startX + AGENT_HABITAT_HALF_WIDTH);
+        AgentPopulation population = new AgentPopulation(agentCount);
+        float habitatWidth = heights.getMaxX() - heights.getMinX() - AgentSimulator.AGENT_SIZE;
+        for (int i = 0; i < agentCount; i++) {
+            float x = heights.getMinX() + habitatWidth * i / agentCount;
+            population.spawn(x, heights.groundHeightAt(x) - AgentSimulator.AGENT_SIZE);
+        }
+        agentSimulator = new AgentSimulator(population, heights, terrain, flora, getSeed(),
+                ForkJoinPool.commonPool());
+        agentRenderer = new AgentRenderer(population, mutations, AGENT_LAYER, MAX_AGENT_PROXIES);
     }
+
     private Cloud createCloud(){
         Renderable cloudBlockRenderable = new RectangleRenderable(ColorSupplier.approximateMonoColor(
                 WHITE_COLOR));
         Cloud cloud = new Cloud(Vector2.ZERO, CLOUD_DIMENSIONS,cloudBlockRenderable,
-                gameObjects(), windowController.getWindowDimensions());
+                mutations, windowController.getWindowDimensions());
         gameObjects().addGameObject(cloud, Layer.BACKGROUND);
         cloud.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         return cloud;
@@ -269,9 +636,37 @@ public class PepseGameManager extends GameManager {
      * The entry point for the Pepse game application.
      * Starts the game manager.
      *
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments: {@value RECORD_ARG} followed by a path records the
+     *             session's input, {@value REPLAY_ARG} followed by a path replays a recording,
+     *             {@value NEW_SESSION_ARG} starts a new world instead of resuming the last one.
      */
     public static void main(String[] args) {
-        new PepseGameManager().run();
+        PepseGameManager game = new PepseGameManager();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(NEW_SESSION_ARG)) {
+                game.startNewSession();
+            } else if (i + 1 == args.length) {
+                break;
+            } else if (args[i].equals(RECORD_ARG)) {
+                game.recordInputTo(Paths.get(args[++i]));
+            } else if (args[i].equals(REPLAY_ARG)) {
+                game.replayInputFrom(Paths.get(args[++i]));
+            }
+        }
+        game.run();
+        game.saveSession();
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    /**
+     * Holds the seed, so it is chosen when first read rather than when the game class loads,
+     * which happens before {@link #main(String[])} parses {@value NEW_SESSION_ARG}.
+     */
+    private static final class Seed {
+        private static final int VALUE = Integer.getInteger(SEED_PROPERTY, isNewWorld ?
+                (int) System.currentTimeMillis() :
+                WorldSnapshot.readSeed(SNAPSHOT_PATH, (int) System.currentTimeMillis()));
     }
 }
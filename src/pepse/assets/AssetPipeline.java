@@ -0,0 +1,274 @@
+package pepse.assets;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads sprites into a {@link SpriteAtlas}. Source images are decoded in parallel, packed into
+ * one atlas image and cached on disk, so later runs decode a single cached image instead of
+ * every source file.
+ */
+public final class AssetPipeline {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final Path DEFAULT_CACHE_DIR =
+            Paths.get(System.getProperty("user.home"), ".pepse", "atlas-cache");
+    private static final String ATLAS_IMAGE_FORMAT = "png";
+    private static final String ATLAS_IMAGE_SUFFIX = ".png";
+    private static final String ATLAS_INDEX_SUFFIX = ".idx";
+    private static final String ATLAS_FILE_PREFIX = "atlas-";
+    private static final int INDEX_VERSION = 1;
+    private static final int PIPELINE_VERSION = 2; // Bump when decoding or packing changes
+    private static final String CACHE_KEY_DIGEST = "SHA-256";
+    private static final String CACHE_KEY_FORMAT = "%064x"; // Digest as 64 hex digits
+    private static final int SPRITE_PADDING = 1; // Empty pixels between sprites to avoid bleeding
+    private static final int TRANSPARENT = 0;
+    private static final String ERROR_MISSING_ASSET = "Asset not found: ";
+    private static final String ERROR_UNREADABLE_ASSET = "Asset is not a readable image: ";
+
+    // Prevent instantiation
+    private AssetPipeline() {}
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Starts building an atlas in the background, so decoding overlaps with the rest of startup.
+     *
+     * @param useTopLeftTransparency Whether each sprite's top-left pixel colour is transparent.
+     * @param paths                  The asset paths of the sprites to pack.
+     * @return A future completing with the atlas.
+     */
+    public static CompletableFuture<SpriteAtlas> preload(boolean useTopLeftTransparency,
+                                                         String... paths) {
+        return CompletableFuture.supplyAsync(() -> load(useTopLeftTransparency, paths));
+    }
+
+    /**
+     * Builds an atlas, using the on-disk cache when the sources have not changed.
+     * Like the engine's image reader, the colour of each sprite's top-left pixel can be treated
+     * as transparent.
+     *
+     * @param useTopLeftTransparency Whether each sprite's top-left pixel colour is transparent.
+     * @param paths                  The asset paths of the sprites to pack.
+     * @return The atlas containing every requested sprite.
+     */
+    public static SpriteAtlas load(boolean useTopLeftTransparency, String... paths) {
+        return load(DEFAULT_CACHE_DIR, useTopLeftTransparency, paths);
+    }
+
+    /**
+     * Builds an atlas, using the given cache directory.
+     *
+     * @param cacheDir               The directory holding cached atlases.
+     * @param useTopLeftTransparency Whether each sprite's top-left pixel colour is transparent.
+     * @param paths                  The asset paths of the sprites to pack.
+     * @return The atlas containing every requested sprite.
+     */
+    public static SpriteAtlas load(Path cacheDir, boolean useTopLeftTransparency,
+                                   String... paths) {
+        String key = cacheKey(useTopLeftTransparency, paths);
+        Path cachedImage = cacheDir.resolve(ATLAS_FILE_PREFIX + key + ATLAS_IMAGE_SUFFIX);
+        Path cachedIndex = cacheDir.resolve(ATLAS_FILE_PREFIX + key + ATLAS_INDEX_SUFFIX);
+        SpriteAtlas cached = readCached(cachedImage, cachedIndex);
+        if (cached != null) {
+            return cached;
+        }
+        SpriteAtlas atlas = pack(paths, decodeAll(paths, useTopLeftTransparency));
+        writeCached(atlas, cachedImage, cachedIndex);
+        return atlas;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    /**
+     * Decodes every source image on the common fork-join pool.
+     */
+    private static BufferedImage[] decodeAll(String[] paths, boolean useTopLeftTransparency) {
+        return Arrays.stream(paths)
+                .parallel()
+                .map(path -> decode(path, useTopLeftTransparency))
+                .toArray(BufferedImage[]::new);
+    }
+
+    private static BufferedImage decode(String path, boolean useTopLeftTransparency) {
+        try (InputStream in = open(path)) {
+            BufferedImage source = ImageIO.read(in);
+            if (source == null) {
+                throw new IOException(ERROR_UNREADABLE_ASSET + path);
+            }
+            return useTopLeftTransparency ? withTopLeftTransparency(source) : source;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens an asset from the working directory, falling back to the classpath.
+     */
+    private static InputStream open(String path) throws IOException {
+        Path file = Paths.get(path);
+        if (Files.isRegularFile(file)) {
+            return new BufferedInputStream(Files.newInputStream(file));
+        }
+        InputStream resource = AssetPipeline.class.getClassLoader().getResourceAsStream(path);
+        if (resource == null) {
+            throw new IOException(ERROR_MISSING_ASSET + path);
+        }
+        return new BufferedInputStream(resource);
+    }
+
+    private static BufferedImage withTopLeftTransparency(BufferedImage source) {
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        int transparentColor = source.getRGB(0, 0);
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                int argb = source.getRGB(x, y);
+                image.setRGB(x, y, argb == transparentColor ? TRANSPARENT : argb);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Packs the sprites into rows ("shelves"), tallest first, in an atlas about as wide as it is tall.
+     */
+    private static SpriteAtlas pack(String[] paths, BufferedImage[] images) {
+        Integer[] order = new Integer[paths.length];
+        long area = 0;
+        int widest = 0;
+        for (int i = 0; i < paths.length; i++) {
+            order[i] = i;
+            area += (long) (images[i].getWidth() + SPRITE_PADDING) *
+                    (images[i].getHeight() + SPRITE_PADDING);
+            widest = Math.max(widest, images[i].getWidth() + SPRITE_PADDING);
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> images[i].getHeight()).reversed());
+        int atlasWidth = Math.max(widest, (int) Math.ceil(Math.sqrt(area)));
+
+        Map<String, Rectangle> regions = new LinkedHashMap<>();
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        for (int i : order) {
+            BufferedImage sprite = images[i];
+            if (x + sprite.getWidth() > atlasWidth) {
+                x = 0;
+                y += shelfHeight + SPRITE_PADDING;
+                shelfHeight = 0;
+            }
+            regions.put(paths[i], new Rectangle(x, y, sprite.getWidth(), sprite.getHeight()));
+            x += sprite.getWidth() + SPRITE_PADDING;
+            shelfHeight = Math.max(shelfHeight, sprite.getHeight());
+        }
+
+        BufferedImage atlas = new BufferedImage(atlasWidth, Math.max(1, y + shelfHeight),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = atlas.createGraphics();
+        for (int i = 0; i < paths.length; i++) {
+            Rectangle region = regions.get(paths[i]);
+            graphics.drawImage(images[i], region.x, region.y, null);
+        }
+        graphics.dispose();
+        return new SpriteAtlas(atlas, regions);
+    }
+
+    /**
+     * Derives a cache key by hashing the pipeline version, the transparency setting, the
+     * requested paths and the size and modification time of every source file, so editing an
+     * asset or changing how atlases are built invalidates the cached atlas.
+     */
+    private static String cacheKey(boolean useTopLeftTransparency, String[] paths) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(CACHE_KEY_DIGEST);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JDK provides SHA-256
+        }
+        StringBuilder parts = new StringBuilder();
+        parts.append(PIPELINE_VERSION).append('\n').append(useTopLeftTransparency).append('\n');
+        for (String path : paths) {
+            parts.append(path).append('\n');
+            Path file = Paths.get(path);
+            try {
+                if (Files.isRegularFile(file)) {
+                    parts.append(Files.size(file)).append('\n')
+                            .append(Files.getLastModifiedTime(file).toMillis()).append('\n');
+                }
+            } catch (IOException e) {
+                // Unreadable metadata just means the key ignores it
+            }
+        }
+        byte[] hash = digest.digest(parts.toString().getBytes(StandardCharsets.UTF_8));
+        return String.format(CACHE_KEY_FORMAT, new BigInteger(1, hash));
+    }
+
+    private static SpriteAtlas readCached(Path imageFile, Path indexFile) {
+        if (!Files.isRegularFile(imageFile) || !Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        try (DataInputStream index = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (index.readInt() != INDEX_VERSION) {
+                return null;
+            }
+            int count = index.readInt();
+            Map<String, Rectangle> regions = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                regions.put(index.readUTF(), new Rectangle(index.readInt(), index.readInt(),
+                        index.readInt(), index.readInt()));
+            }
+            BufferedImage image = ImageIO.read(imageFile.toFile());
+            return image == null ? null : new SpriteAtlas(image, regions);
+        } catch (IOException e) {
+            // A damaged cache is rebuilt from the sources
+            return null;
+        }
+    }
+
+    private static void writeCached(SpriteAtlas atlas, Path imageFile, Path indexFile) {
+        try {
+            Files.createDirectories(imageFile.getParent());
+            ImageIO.write(atlas.getImage(), ATLAS_IMAGE_FORMAT, imageFile.toFile());
+            try (DataOutputStream index = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+                index.writeInt(INDEX_VERSION);
+                index.writeInt(atlas.getRegions().size());
+                for (Map.Entry<String, Rectangle> entry : atlas.getRegions().entrySet()) {
+                    Rectangle region = entry.getValue();
+                    index.writeUTF(entry.getKey());
+                    index.writeInt(region.x);
+                    index.writeInt(region.y);
+                    index.writeInt(region.width);
+                    index.writeInt(region.height);
+                }
+            }
+        } catch (IOException e) {
+            // Caching is an optimisation only; the atlas is still usable
+        }
+    }
+}
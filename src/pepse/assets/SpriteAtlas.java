@@ -0,0 +1,108 @@
+package pepse.assets;
+
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A single image holding many sprites. Each sprite is a sub-region of the shared atlas image, so
+ * all frames of all animations packed into the atlas are backed by one texture.
+ */
+public class SpriteAtlas {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final String ERROR_UNKNOWN_SPRITE = "Sprite is not packed in the atlas: ";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final BufferedImage image; // The packed atlas image
+    private final Map<String, Rectangle> regions; // Sprite path to its region in the atlas
+    private final Map<String, ImageRenderable> renderables = new HashMap<>(); // Created on demand
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs an atlas from a packed image and its sprite regions.
+     *
+     * @param image   The packed atlas image.
+     * @param regions The region of each sprite, keyed by the sprite's asset path.
+     */
+    public SpriteAtlas(BufferedImage image, Map<String, Rectangle> regions) {
+        this.image = image;
+        this.regions = regions;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the renderable for a single sprite. Repeated calls return the same instance.
+     *
+     * @param path The asset path the sprite was loaded from.
+     * @return A renderable backed by the sprite's region of the atlas.
+     */
+    public ImageRenderable frame(String path) {
+        ImageRenderable renderable = renderables.get(path);
+        if (renderable == null) {
+            Rectangle region = regions.get(path);
+            if (region == null) {
+                throw new IllegalArgumentException(ERROR_UNKNOWN_SPRITE + path);
+            }
+            // Sub-images share the atlas raster rather than copying pixels
+            renderable = new ImageRenderable(
+                    image.getSubimage(region.x, region.y, region.width, region.height));
+            renderables.put(path, renderable);
+        }
+        return renderable;
+    }
+
+    /**
+     * Returns the renderables for a sequence of sprites, e.g. the frames of an animation.
+     *
+     * @param paths The asset paths of the sprites, in order.
+     * @return The sprite renderables, in the same order.
+     */
+    public Renderable[] frames(String... paths) {
+        Renderable[] frames = new Renderable[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            frames[i] = frame(paths[i]);
+        }
+        return frames;
+    }
+
+    /**
+     * Checks whether a sprite is packed in this atlas.
+     *
+     * @param path The asset path of the sprite.
+     * @return True if the atlas contains the sprite.
+     */
+    public boolean contains(String path) {
+        return regions.containsKey(path);
+    }
+
+    /**
+     * Returns the packed atlas image.
+     *
+     * @return The atlas image.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Returns the sprite regions of the atlas.
+     *
+     * @return The region of each sprite, keyed by asset path.
+     */
+    public Map<String, Rectangle> getRegions() {
+        return regions;
+    }
+}
@@ -0,0 +1,68 @@
+package pepse.event;
+
+/**
+ * A single event on the {@link WorldEventBus}. Event objects are pooled and reused by the bus,
+ * so listeners must copy out any value they need after {@link WorldEventListener#onEvent} returns.
+ */
+public final class WorldEvent {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private WorldEventType type;
+    private float x;
+    private float y;
+    private float value;
+
+    // Only the bus creates events
+    WorldEvent() {}
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the kind of the event.
+     *
+     * @return The event type.
+     */
+    public WorldEventType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the event's x value, usually an x-coordinate.
+     *
+     * @return The x value.
+     */
+    public float getX() {
+        return x;
+    }
+
+    /**
+     * Returns the event's y value, usually a y-coordinate.
+     *
+     * @return The y value.
+     */
+    public float getY() {
+        return y;
+    }
+
+    /**
+     * Returns the event's payload value, e.g. a block count.
+     *
+     * @return The payload value.
+     */
+    public float getValue() {
+        return value;
+    }
+
+    // =======================
+    //   PACKAGE METHODS
+    // =======================
+    void set(WorldEventType type, float x, float y, float value) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.value = value;
+    }
+}
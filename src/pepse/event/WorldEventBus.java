@@ -0,0 +1,159 @@
+package pepse.event;
+
+import java.util.Arrays;
+
+/**
+ * A typed event bus for world events. Published events are queued into preallocated event
+ * objects and delivered to subscribers in one batch per tick by {@link #dispatch()}. Each
+ * subscriber declares a mask of the event types it wants, and only matching events reach it.
+ */
+public class WorldEventBus {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_CAPACITY = 64; // Events per tick before the queue grows
+    private static final int INITIAL_SUBSCRIBERS = 8;
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private WorldEvent[] pending; // Events published since the last dispatch
+    private WorldEvent[] delivering; // Events being delivered by the current dispatch
+    private int pendingCount;
+    private WorldEventListener[] listeners = new WorldEventListener[INITIAL_SUBSCRIBERS];
+    private int[] listenerMasks = new int[INITIAL_SUBSCRIBERS];
+    private int listenerCount;
+    private int subscribedMask; // Union of all subscriber masks, to drop unwanted events early
+
+    // =======================
+    //   CONSTRUCTORS
+    // =======================
+    /**
+     * Constructs a bus with the default queue capacity.
+     */
+    public WorldEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a bus.
+     *
+     * @param capacity The number of events preallocated per tick. The queue grows if a tick
+     *                 publishes more.
+     */
+    public WorldEventBus(int capacity) {
+        pending = allocate(new WorldEvent[0], capacity);
+        delivering = allocate(new WorldEvent[0], capacity);
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Builds a subscription mask from event types.
+     *
+     * @param types The event types to subscribe to.
+     * @return The combined mask.
+     */
+    public static int maskOf(WorldEventType... types) {
+        int mask = 0;
+        for (WorldEventType type : types) {
+            mask |= type.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Subscribes a listener to the event types in a mask.
+     *
+     * @param typeMask The event types to receive, see {@link #maskOf}.
+     * @param listener The listener.
+     */
+    public void subscribe(int typeMask, WorldEventListener listener) {
+        if (listenerCount == listeners.length) {
+            listeners = Arrays.copyOf(listeners, listenerCount * 2);
+            listenerMasks = Arrays.copyOf(listenerMasks, listenerCount * 2);
+        }
+        listeners[listenerCount] = listener;
+        listenerMasks[listenerCount] = typeMask;
+        listenerCount++;
+        subscribedMask |= typeMask;
+    }
+
+    /**
+     * Removes every subscription of a listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void unsubscribe(WorldEventListener listener) {
+        int kept = 0;
+        subscribedMask = 0;
+        for (int i = 0; i < listenerCount; i++) {
+            if (listeners[i] != listener) {
+                listeners[kept] = listeners[i];
+                listenerMasks[kept] = listenerMasks[i];
+                subscribedMask |= listenerMasks[kept];
+                kept++;
+            }
+        }
+        Arrays.fill(listeners, kept, listenerCount, null);
+        listenerCount = kept;
+    }
+
+    /**
+     * Queues an event for the next dispatch. Events nobody subscribed to are dropped immediately.
+     *
+     * @param type  The event type.
+     * @param x     The event's x value.
+     * @param y     The event's y value.
+     * @param value The event's payload value.
+     */
+    public void publish(WorldEventType type, float x, float y, float value) {
+        if ((subscribedMask & type.mask()) == 0) {
+            return;
+        }
+        if (pendingCount == pending.length) {
+            pending = allocate(pending, pending.length * 2);
+        }
+        pending[pendingCount++].set(type, x, y, value);
+    }
+
+    /**
+     * Delivers every queued event to its subscribers, in publication order. Events published
+     * by listeners during delivery are queued for the next dispatch.
+     */
+    public void dispatch() {
+        int count = pendingCount;
+        if (count == 0) {
+            return;
+        }
+        WorldEvent[] batch = pending;
+        pending = delivering;
+        delivering = batch;
+        pendingCount = 0;
+        if (pending.length < delivering.length) {
+            pending = allocate(pending, delivering.length);
+        }
+        for (int i = 0; i < count; i++) {
+            WorldEvent event = batch[i];
+            int typeMask = event.getType().mask();
+            for (int j = 0; j < listenerCount; j++) {
+                if ((listenerMasks[j] & typeMask) != 0) {
+                    listeners[j].onEvent(event);
+                }
+            }
+        }
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static WorldEvent[] allocate(WorldEvent[] events, int capacity) {
+        WorldEvent[] grown = Arrays.copyOf(events, capacity);
+        for (int i = events.length; i < capacity; i++) {
+            grown[i] = new WorldEvent();
+        }
+        return grown;
+    }
+}
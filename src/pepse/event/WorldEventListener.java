@@ -0,0 +1,15 @@
+package pepse.event;
+
+/**
+ * Receives events from the {@link WorldEventBus}.
+ */
+@FunctionalInterface
+public interface WorldEventListener {
+
+    /**
+     * Handles an event. The event object is reused once this method returns.
+     *
+     * @param event The event.
+     */
+    void onEvent(WorldEvent event);
+}
@@ -0,0 +1,34 @@
+package pepse.event;
+
+/**
+ * The kinds of events published on the {@link WorldEventBus}.
+ */
+public enum WorldEventType {
+    /** The avatar jumped. Position is the avatar's top-left corner. */
+    JUMP,
+    /** The avatar landed after being airborne. Position is the avatar's top-left corner. */
+    LAND,
+    /** A fruit was eaten. Position is the fruit's top-left corner. */
+    FRUIT_COLLECTED,
+    /** Terrain was generated. x and y hold the range, value the number of blocks. */
+    CHUNK_LOADED,
+    /** Terrain was removed. x and y hold the range, value the number of blocks. */
+    CHUNK_UNLOADED,
+    /** The night overlay faded below half of its full opacity. */
+    DAY_STARTED,
+    /** The night overlay faded above half of its full opacity. */
+    NIGHT_STARTED,
+    /** The avatar dug. Position is the centre of the cell in front of its feet. */
+    DIG,
+    /** The avatar placed ground. Position is the centre of the cell in front of its feet. */
+    PLACE;
+
+    /**
+     * Returns the bit representing this type in a subscription mask.
+     *
+     * @return The type's mask bit.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+}
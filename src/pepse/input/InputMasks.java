@@ -0,0 +1,37 @@
+package pepse.input;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Maps key codes to the bits of a tick input mask.
+ */
+public final class InputMasks {
+
+    // Prevent instantiation
+    private InputMasks() {}
+
+    /**
+     * Checks whether a key is set in a tick mask.
+     *
+     * @param mask    The tick input bitmask.
+     * @param keyCode The key code, as defined in {@link KeyEvent}.
+     * @return True if the key is held according to the mask. Keys that are not recorded are
+     * never held.
+     */
+    public static boolean isKeyPressed(byte mask, int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_LEFT:
+                return (mask & InputTrace.KEY_LEFT) != 0;
+            case KeyEvent.VK_RIGHT:
+                return (mask & InputTrace.KEY_RIGHT) != 0;
+            case KeyEvent.VK_SPACE:
+                return (mask & InputTrace.KEY_SPACE) != 0;
+            case KeyEvent.VK_DOWN:
+                return (mask & InputTrace.KEY_DOWN) != 0;
+            case KeyEvent.VK_UP:
+                return (mask & InputTrace.KEY_UP) != 0;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package pepse.input;
+
+/**
+ * Passes live input through unchanged while appending each tick's mask to a trace.
+ */
+public class InputRecorder implements InputSource {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final LiveInput live; // The input being recorded
+    private final InputTrace trace; // The trace being written
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a recorder.
+     *
+     * @param live  The live input to record.
+     * @param trace The trace the input is appended to.
+     */
+    public InputRecorder(LiveInput live, InputTrace trace) {
+        this.live = live;
+        this.trace = trace;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    @Override
+    public void nextTick() {
+        live.nextTick();
+        trace.append(live.getMask());
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return live.isKeyPressed(keyCode);
+    }
+
+    /**
+     * Returns the trace recorded so far.
+     *
+     * @return The trace.
+     */
+    public InputTrace getTrace() {
+        return trace;
+    }
+}
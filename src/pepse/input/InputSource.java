@@ -0,0 +1,22 @@
+package pepse.input;
+
+/**
+ * A source of player input that is sampled once per simulation tick. Everything that reacts to
+ * keys reads them through this interface, so live, recorded and replayed input are
+ * interchangeable.
+ */
+public interface InputSource {
+
+    /**
+     * Samples the input for the next simulation tick. Called once before each tick.
+     */
+    void nextTick();
+
+    /**
+     * Checks whether a key was held during the current tick.
+     *
+     * @param keyCode The key code, as defined in {@link java.awt.event.KeyEvent}.
+     * @return True if the key is pressed in the current tick.
+     */
+    boolean isKeyPressed(int keyCode);
+}
@@ -0,0 +1,203 @@
+package pepse.input;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A recorded sequence of per-tick input bitmasks, together with the seed and tick rate it was
+ * recorded under. On disk the masks are run-length encoded: a held key costs a few bytes no
+ * matter how long it is held.
+ */
+public class InputTrace {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    /**
+     * Bit set in a tick mask while the left arrow is held.
+     */
+    public static final byte KEY_LEFT = 1;
+    /**
+     * Bit set in a tick mask while the right arrow is held.
+     */
+    public static final byte KEY_RIGHT = 1 << 1;
+    /**
+     * Bit set in a tick mask while space is held.
+     */
+    public static final byte KEY_SPACE = 1 << 2;
+    /**
+     * Bit set in a tick mask while the down arrow (dig) is held.
+     */
+    public static final byte KEY_DOWN = 1 << 3;
+    /**
+     * Bit set in a tick mask while the up arrow (place) is held.
+     */
+    public static final byte KEY_UP = 1 << 4;
+
+    private static final int MAGIC = 0x50545243; // "PTRC"
+    private static final byte VERSION = 1;
+    private static final int MAX_RUN_LENGTH = 0xFFFF; // Runs are stored as unsigned shorts
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final String ERROR_BAD_MAGIC = "Not an input trace: ";
+    private static final String ERROR_BAD_VERSION = "Unsupported input trace version: ";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final int seed; // World seed the trace was recorded with
+    private final float tickRate; // Ticks per second the trace was recorded at
+    private byte[] masks; // One input bitmask per tick
+    private int tickCount; // Number of recorded ticks
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs an empty trace.
+     *
+     * @param seed     The world seed the input is recorded against.
+     * @param tickRate The simulation tick rate the input is recorded at.
+     */
+    public InputTrace(int seed, float tickRate) {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.masks = new byte[INITIAL_CAPACITY];
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Appends the input of one tick.
+     *
+     * @param mask The bitmask of keys held during the tick.
+     */
+    public void append(byte mask) {
+        if (tickCount == masks.length) {
+            masks = Arrays.copyOf(masks, masks.length * 2);
+        }
+        masks[tickCount++] = mask;
+    }
+
+    /**
+     * Returns the input of a recorded tick.
+     *
+     * @param tick The tick index.
+     * @return The bitmask of keys held during that tick.
+     */
+    public byte maskAt(int tick) {
+        return masks[tick];
+    }
+
+    /**
+     * Returns the number of recorded ticks.
+     *
+     * @return The tick count.
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the world seed the trace was recorded with.
+     *
+     * @return The seed.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the tick rate the trace was recorded at.
+     *
+     * @return Ticks per second.
+     */
+    public float getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Writes the trace to a file.
+     *
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            out.write(encode());
+        }
+    }
+
+    /**
+     * Reads a trace from a file.
+     *
+     * @param path The file to read.
+     * @return The decoded trace.
+     * @throws IOException If the file cannot be read or is not a trace.
+     */
+    public static InputTrace read(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            DataInputStream data = new DataInputStream(in);
+            int magic = data.readInt();
+            if (magic != MAGIC) {
+                throw new IOException(ERROR_BAD_MAGIC + path);
+            }
+            byte version = data.readByte();
+            if (version != VERSION) {
+                throw new IOException(ERROR_BAD_VERSION + version);
+            }
+            InputTrace trace = new InputTrace(data.readInt(), data.readFloat());
+            int remaining = data.readInt();
+            while (remaining > 0) {
+                byte mask = data.readByte();
+                int run = data.readUnsignedShort();
+                for (int i = 0; i < run; i++) {
+                    trace.append(mask);
+                }
+                remaining -= run;
+            }
+            return trace;
+        }
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    /**
+     * Encodes the header and the run-length encoded masks.
+     *
+     * @return The encoded trace.
+     * @throws IOException Never thrown for in-memory streams.
+     */
+    private byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(seed);
+        data.writeFloat(tickRate);
+        data.writeInt(tickCount);
+        int tick = 0;
+        while (tick < tickCount) {
+            byte mask = masks[tick];
+            int run = 1;
+            while (tick + run < tickCount && masks[tick + run] == mask && run < MAX_RUN_LENGTH) {
+                run++;
+            }
+            data.writeByte(mask);
+            data.writeShort(run);
+            tick += run;
+        }
+        data.flush();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package pepse.input;
+
+import danogl.gui.UserInputListener;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Input read from the keyboard. The keys are latched into a bitmask at the start of each tick,
+ * so every reader sees the same state for the whole tick.
+ */
+public class LiveInput implements InputSource {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final UserInputListener inputListener; // The engine's keyboard state
+    private byte mask; // Keys held in the current tick
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs live input over the engine's input listener.
+     *
+     * @param inputListener The listener providing the keyboard state.
+     */
+    public LiveInput(UserInputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    @Override
+    public void nextTick() {
+        byte sampled = 0;
+        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+            sampled |= InputTrace.KEY_LEFT;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
+            sampled |= InputTrace.KEY_RIGHT;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_SPACE)) {
+            sampled |= InputTrace.KEY_SPACE;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_DOWN)) {
+            sampled |= InputTrace.KEY_DOWN;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_UP)) {
+            sampled |= InputTrace.KEY_UP;
+        }
+        mask = sampled;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return InputMasks.isKeyPressed(mask, keyCode);
+    }
+
+    /**
+     * Returns the keys held in the current tick.
+     *
+     * @return The bitmask of held keys.
+     */
+    public byte getMask() {
+        return mask;
+    }
+}
@@ -0,0 +1,49 @@
+package pepse.input;
+
+/**
+ * Plays a recorded trace back one tick at a time. Once the trace is exhausted no key is held.
+ */
+public class ReplayInput implements InputSource {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final InputTrace trace; // The trace being replayed
+    private int tick = -1; // Index of the current tick in the trace
+    private byte mask; // Keys held in the current tick
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a replay of the given trace.
+     *
+     * @param trace The trace to play back.
+     */
+    public ReplayInput(InputTrace trace) {
+        this.trace = trace;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    @Override
+    public void nextTick() {
+        tick++;
+        mask = isFinished() ? 0 : trace.maskAt(tick);
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return InputMasks.isKeyPressed(mask, keyCode);
+    }
+
+    /**
+     * Checks whether every recorded tick has been played.
+     *
+     * @return True once the trace is exhausted.
+     */
+    public boolean isFinished() {
+        return tick >= trace.getTickCount();
+    }
+}
@@ -0,0 +1,72 @@
+package pepse.input;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Writes a scripted input trace for repeatable performance runs: the avatar runs to the right
+ * for the given duration and jumps at a fixed interval.
+ */
+public final class ScriptedTrace {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final float DEFAULT_DURATION_SECONDS = 600f; // Ten minutes
+    private static final float DEFAULT_JUMP_INTERVAL_SECONDS = 2f;
+    private static final float DEFAULT_TICK_RATE = 60f;
+    private static final int JUMP_HOLD_TICKS = 3; // Ticks space is held for each jump
+    private static final String USAGE =
+            "Usage: ScriptedTrace <output> <seed> [durationSeconds] [jumpIntervalSeconds] [tickRate]";
+
+    // Prevent instantiation
+    private ScriptedTrace() {}
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Builds a trace that holds the right arrow throughout and taps space at a fixed interval.
+     *
+     * @param seed                The world seed the trace is meant for.
+     * @param tickRate            Ticks per second.
+     * @param durationSeconds     The length of the run (in seconds).
+     * @param jumpIntervalSeconds The time between jumps (in seconds).
+     * @return The scripted trace.
+     */
+    public static InputTrace runRightAndJump(int seed, float tickRate, float durationSeconds,
+                                             float jumpIntervalSeconds) {
+        InputTrace trace = new InputTrace(seed, tickRate);
+        int ticks = (int) (durationSeconds * tickRate);
+        int jumpInterval = Math.max(1, (int) (jumpIntervalSeconds * tickRate));
+        for (int tick = 0; tick < ticks; tick++) {
+            byte mask = InputTrace.KEY_RIGHT;
+            if (tick % jumpInterval < JUMP_HOLD_TICKS) {
+                mask |= InputTrace.KEY_SPACE;
+            }
+            trace.append(mask);
+        }
+        return trace;
+    }
+
+    /**
+     * Writes a scripted trace to disk.
+     *
+     * @param args The output path, the seed, and optionally the duration, jump interval and
+     *             tick rate.
+     * @throws IOException If the trace cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            return;
+        }
+        Path output = Paths.get(args[0]);
+        int seed = Integer.parseInt(args[1]);
+        float duration = args.length > 2 ? Float.parseFloat(args[2]) : DEFAULT_DURATION_SECONDS;
+        float interval = args.length > 3 ? Float.parseFloat(args[3]) : DEFAULT_JUMP_INTERVAL_SECONDS;
+        float tickRate = args.length > 4 ? Float.parseFloat(args[4]) : DEFAULT_TICK_RATE;
+        runRightAndJump(seed, tickRate, duration, interval).write(output);
+    }
+}
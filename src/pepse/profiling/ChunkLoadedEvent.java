@@ -0,0 +1,44 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a terrain column entering the world, timed over building its blocks
+ * and handing them to the world. Disabled unless enabled by a recording setting, see
+ * {@link StreamingStepEvent}.
+ */
+@Name(ChunkLoadedEvent.NAME)
+@Label("Chunk Loaded")
+@Category({"Pepse", "World"})
+@Description("A terrain column was built and added to the world")
+@Enabled(false)
+public class ChunkLoadedEvent extends Event {
+
+    /**
+     * The event name used in recording settings.
+     */
+    public static final String NAME = "pepse.ChunkLoaded";
+
+    /**
+     * The left edge of the loaded range.
+     */
+    @Label("Start X")
+    public float startX;
+
+    /**
+     * The right edge of the loaded range.
+     */
+    @Label("End X")
+    public float endX;
+
+    /**
+     * The number of blocks added to the world.
+     */
+    @Label("Block Count")
+    public int blockCount;
+}
@@ -0,0 +1,43 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a terrain column leaving the world, timed over removing its blocks.
+ * Disabled unless enabled by a recording setting, see {@link StreamingStepEvent}.
+ */
+@Name(ChunkUnloadedEvent.NAME)
+@Label("Chunk Unloaded")
+@Category({"Pepse", "World"})
+@Description("A terrain column was removed from the world")
+@Enabled(false)
+public class ChunkUnloadedEvent extends Event {
+
+    /**
+     * The event name used in recording settings.
+     */
+    public static final String NAME = "pepse.ChunkUnloaded";
+
+    /**
+     * The left edge of the unloaded range.
+     */
+    @Label("Start X")
+    public float startX;
+
+    /**
+     * The right edge of the unloaded range.
+     */
+    @Label("End X")
+    public float endX;
+
+    /**
+     * The number of blocks removed from the world.
+     */
+    @Label("Block Count")
+    public int blockCount;
+}
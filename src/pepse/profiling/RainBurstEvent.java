@@ -0,0 +1,31 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a burst of rain, timed over creating its drops. Disabled unless
+ * enabled by a recording setting, see {@link StreamingStepEvent}.
+ */
+@Name(RainBurstEvent.NAME)
+@Label("Rain Burst")
+@Category({"Pepse", "Weather"})
+@Description("A cloud released a burst of raindrops")
+@Enabled(false)
+public class RainBurstEvent extends Event {
+
+    /**
+     * The event name used in recording settings.
+     */
+    public static final String NAME = "pepse.RainBurst";
+
+    /**
+     * The number of raindrops created.
+     */
+    @Label("Drop Count")
+    public int dropCount;
+}
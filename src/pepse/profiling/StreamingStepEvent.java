@@ -0,0 +1,42 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one step of world streaming: a frame's drain of the streaming queue,
+ * or a range of columns loaded at once. The chunk, tree and rain events of the step nest inside
+ * it on the same thread, so JMC lines its cost up with GC and JIT activity.
+ * <p>
+ * Every Pepse event is disabled by default. Enable them with the settings file next to this
+ * class, alongside the JDK's own settings:
+ * {@code -XX:StartFlightRecording:settings=default,settings=pepse.jfc,filename=pepse.jfr}.
+ */
+@Name(StreamingStepEvent.NAME)
+@Label("Streaming Step")
+@Category({"Pepse", "World"})
+@Description("Terrain columns and trees were streamed in or out of the world")
+@Enabled(false)
+public class StreamingStepEvent extends Event {
+
+    /**
+     * The event name used in recording settings.
+     */
+    public static final String NAME = "pepse.StreamingStep";
+
+    /**
+     * The number of streaming jobs performed in the step.
+     */
+    @Label("Jobs Performed")
+    public int jobsPerformed;
+
+    /**
+     * The number of jobs still queued after the step.
+     */
+    @Label("Queue Depth")
+    public int queueDepth;
+}
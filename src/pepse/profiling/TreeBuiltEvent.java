@@ -0,0 +1,49 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a tree being planted, timed over building its trunk, leaves and
+ * fruit. Disabled unless enabled by a recording setting, see {@link StreamingStepEvent}.
+ */
+@Name(TreeBuiltEvent.NAME)
+@Label("Tree Built")
+@Category({"Pepse", "World"})
+@Description("A tree was built from its descriptor and added to the world")
+@Enabled(false)
+public class TreeBuiltEvent extends Event {
+
+    /**
+     * The event name used in recording settings.
+     */
+    public static final String NAME = "pepse.TreeBuilt";
+
+    /**
+     * The x-coordinate of the tree.
+     */
+    @Label("X")
+    public float x;
+
+    /**
+     * The crown shape of the tree.
+     */
+    @Label("Shape")
+    public String shape;
+
+    /**
+     * The number of leaves in the crown.
+     */
+    @Label("Leaf Count")
+    public int leafCount;
+
+    /**
+     * The number of leaves carrying fruit.
+     */
+    @Label("Fruit Count")
+    public int fruitCount;
+}
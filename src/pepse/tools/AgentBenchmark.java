@@ -0,0 +1,66 @@
+package pepse.tools;
+
+import danogl.util.Vector2;
+import pepse.world.Terrain;
+import pepse.world.agents.AgentPopulation;
+import pepse.world.agents.AgentSimulator;
+import pepse.world.agents.HeightField;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures the agent tick rate for a large herd at increasing levels of parallelism.
+ * Usage: AgentBenchmark [agents] [ticks].
+ */
+public final class AgentBenchmark {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_AGENTS = 100_000;
+    private static final int DEFAULT_TICKS = 600;
+    private static final int WARMUP_TICKS = 120;
+    private static final float TICK_DURATION = 1f / 60;
+    private static final int SEED = 1234;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1600, 900);
+    private static final float HABITAT_WIDTH = 200_000f;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String RESULT_FORMAT = "threads=%d agents=%d ms/tick=%.3f ticks/s=%.1f%n";
+
+    // Prevent instantiation
+    private AgentBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional agent count and tick count.
+     */
+    public static void main(String[] args) {
+        int agents = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_AGENTS;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+        Terrain terrain = new Terrain(WINDOW_DIMENSIONS, SEED);
+        HeightField heights = new HeightField(terrain, 0, HABITAT_WIDTH);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            AgentPopulation population = new AgentPopulation(agents);
+            for (int i = 0; i < agents; i++) {
+                float x = (float) i / agents * HABITAT_WIDTH;
+                population.spawn(x, heights.groundHeightAt(x) - AgentSimulator.AGENT_SIZE);
+            }
+            AgentSimulator simulator = new AgentSimulator(population, heights, terrain, null, SEED,
+                    pool);
+            for (int i = 0; i < WARMUP_TICKS; i++) {
+                simulator.tick(TICK_DURATION);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                simulator.tick(TICK_DURATION);
+            }
+            double millisPerTick = (System.nanoTime() - start) / NANOS_PER_MILLI / ticks;
+            System.out.printf(RESULT_FORMAT, threads, agents, millisPerTick, 1000 / millisPerTick);
+            pool.shutdown();
+        }
+    }
+}
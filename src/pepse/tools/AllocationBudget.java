@@ -0,0 +1,304 @@
+package pepse.tools;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.Camera;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.util.Vector2;
+import pepse.event.WorldEventBus;
+import pepse.event.WorldEventType;
+import pepse.world.ChunkPrefetcher;
+import pepse.world.Cloud;
+import pepse.world.EnergyMeter;
+import pepse.world.GameObjectSink;
+import pepse.world.RenderInterpolator;
+import pepse.world.StreamingQueue;
+import pepse.world.Terrain;
+import pepse.world.agents.AgentPopulation;
+import pepse.world.agents.AgentRenderer;
+import pepse.world.agents.AgentSimulator;
+import pepse.world.agents.HeightField;
+import pepse.world.daynight.Night;
+import pepse.world.daynight.Sun;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.TreeDescriptor;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless per-tick allocation check. Runs each subsystem of the world on its own for a number
+ * of fixed ticks, measures the bytes allocated per tick on the game thread once it has reached
+ * steady state, and fails when a subsystem allocates more than its declared budget.
+ * Work a subsystem hands to other threads, like the agents' per-agent work, is not counted.
+ * Usage: AllocationBudget [ticks]. Exits with status 1 if any budget is exceeded.
+ */
+public final class AllocationBudget {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_TICKS = 3000;
+    private static final int WARM_UP_TICKS = 600; // Past the leaves' start delay, and long enough to JIT
+    private static final float TICK = 1f / 60; // Duration of one tick (in seconds)
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1600, 900);
+    private static final int SEED = 1;
+    private static final float MAX_ENERGY = 100f;
+    private static final float ENERGY_STEP = 0.5f; // Energy drained or regained per tick
+    private static final float DAY_NIGHT_CYCLE_LENGTH = 30f;
+    private static final float NIGHT_CYCLE_LENGTH = 15f;
+    private static final int LEAF_COUNT = 16; // One crown's worth
+    private static final Vector2 CLOUD_DIMENSIONS = new Vector2(140, 100); // As in the game
+    private static final int AGENT_COUNT = 1000;
+    private static final float AGENT_HABITAT_WIDTH = 30000f;
+    private static final int MAX_AGENT_PROXIES = 256; // As in the game
+    private static final int EVENTS_PER_TICK = 4;
+    private static final float PADDING = 300f;
+    private static final long STREAMING_BUDGET_NANOS = 1_500_000;
+    private static final float RUN_SPEED = 300f;
+    private static final String RESULT_FORMAT = "%-14s %8.1f B/tick  budget %5d  %s%n";
+    private static final String SUMMARY_FORMAT = "%d of %d subsystems over budget%n";
+    private static final String PASS = "ok";
+    private static final String FAIL = "OVER BUDGET";
+
+    // Prevent instantiation
+    private AllocationBudget() {}
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Runs every subsystem and reports its steady-state allocation per tick.
+     *
+     * @param args Optional number of measured ticks.
+     */
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICKS;
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        new Terrain(WINDOW_DIMENSIONS, SEED); // Sets the ground height the sky is laid out around
+
+        double overhead = bytesPerTick(threads, () -> { }, ticks); // Cost of measuring itself
+        int failures = 0;
+        List<Subsystem> subsystems = createSubsystems();
+        for (Subsystem subsystem : subsystems) {
+            double bytes = Math.max(0, bytesPerTick(threads, subsystem.tick, ticks) - overhead);
+            boolean withinBudget = bytes <= subsystem.budgetBytes;
+            System.out.printf(RESULT_FORMAT, subsystem.name, bytes, subsystem.budgetBytes,
+                    withinBudget ? PASS : FAIL);
+            if (!withinBudget) {
+                failures++;
+            }
+        }
+        System.out.printf(SUMMARY_FORMAT, failures, subsystems.size());
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    /**
+     * Declares every subsystem with its budget, in bytes per tick.
+     */
+    private static List<Subsystem> createSubsystems() {
+        List<Subsystem> subsystems = new ArrayList<>();
+        subsystems.add(new Subsystem("energy-meter", 96, energyMeter()));
+        subsystems.add(new Subsystem("sun", 128, update(Sun.create(WINDOW_DIMENSIONS,
+                DAY_NIGHT_CYCLE_LENGTH))));
+        subsystems.add(new Subsystem("night", 64, night()));
+        subsystems.add(new Subsystem("leaves", LEAF_COUNT * 48, leaves()));
+        subsystems.add(new Subsystem("cloud", 512, cloud()));
+        subsystems.add(new Subsystem("agents", 256, agents()));
+        subsystems.add(new Subsystem("event-bus", 0, eventBus()));
+        subsystems.add(new Subsystem("streaming", 8, streaming()));
+        subsystems.add(new Subsystem("interpolator", 64, interpolator()));
+        return subsystems;
+    }
+
+    private static double bytesPerTick(com.sun.management.ThreadMXBean threads, Runnable tick,
+                                       int ticks) {
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            tick.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ticks; i++) {
+            tick.run();
+        }
+        return (double) (threads.getThreadAllocatedBytes(thread) - before) / ticks;
+    }
+
+    private static Runnable update(GameObject gameObject) {
+        return () -> gameObject.update(TICK);
+    }
+
+    /**
+     * Drains the meter to empty and fills it back up, passing through every color band.
+     */
+    private static Runnable energyMeter() {
+        float[] energy = {MAX_ENERGY};
+        float[] step = {-ENERGY_STEP};
+        EnergyMeter meter = new EnergyMeter(Vector2.ZERO, () -> energy[0], MAX_ENERGY);
+        return () -> {
+            if (energy[0] + step[0] < 0 || energy[0] + step[0] > MAX_ENERGY) {
+                step[0] = -step[0];
+            }
+            energy[0] += step[0];
+            meter.update(TICK);
+        };
+    }
+
+    private static Runnable night() {
+        WorldEventBus eventBus = new WorldEventBus();
+        GameObject night = Night.create(WINDOW_DIMENSIONS, NIGHT_CYCLE_LENGTH, eventBus);
+        return () -> {
+            night.update(TICK);
+            eventBus.dispatch();
+        };
+    }
+
+    private static Runnable leaves() {
+        Leaf[] leaves = new Leaf[LEAF_COUNT];
+        Vector2 size = Vector2.ONES.mult(TreeDescriptor.LEAF_SIZE);
+        for (int i = 0; i < LEAF_COUNT; i++) {
+            leaves[i] = new Leaf(new Vector2(i * TreeDescriptor.LEAF_SIZE, 0), size, 0.5f);
+            leaves[i].addMovement();
+        }
+        return () -> {
+            for (Leaf leaf : leaves) {
+                leaf.update(TICK);
+            }
+        };
+    }
+
+    /**
+     * Moves a cloud and its blocks along their transitions. The blocks are caught from the
+     * sink the cloud adds them to; raindrops are made per jump, not per tick, so none fall.
+     */
+    private static Runnable cloud() {
+        List<GameObject> parts = new ArrayList<>();
+        GameObjectSink sink = new GameObjectSink() {
+            @Override
+            public void addGameObject(GameObject gameObject, int layerId) {
+                parts.add(gameObject);
+            }
+
+            @Override
+            public void removeGameObject(GameObject gameObject, int layerId) {
+                parts.remove(gameObject);
+            }
+        };
+        parts.add(new Cloud(Vector2.ZERO, CLOUD_DIMENSIONS, new RectangleRenderable(Color.WHITE),
+                sink, WINDOW_DIMENSIONS));
+        GameObject[] objects = parts.toArray(new GameObject[0]);
+        return () -> {
+            for (GameObject object : objects) {
+                object.update(TICK);
+            }
+        };
+    }
+
+    /**
+     * Simulates the herd and moves the proxies of the agents in a window-sized view at the
+     * origin. Proxies are added to a sink that drops them.
+     */
+    private static Runnable agents() {
+        Terrain terrain = new Terrain(WINDOW_DIMENSIONS, SEED);
+        HeightField heights = new HeightField(terrain, -AGENT_HABITAT_WIDTH / 2,
+                AGENT_HABITAT_WIDTH / 2);
+        AgentPopulation population = new AgentPopulation(AGENT_COUNT);
+        float habitatWidth = heights.getMaxX() - heights.getMinX() - AgentSimulator.AGENT_SIZE;
+        for (int i = 0; i < AGENT_COUNT; i++) {
+            float x = heights.getMinX() + habitatWidth * i / AGENT_COUNT;
+            population.spawn(x, heights.groundHeightAt(x) - AgentSimulator.AGENT_SIZE);
+        }
+        AgentSimulator simulator = new AgentSimulator(population, heights, terrain, null, SEED,
+                ForkJoinPool.commonPool());
+        GameObjectSink sink = new GameObjectSink() {
+            @Override
+            public void addGameObject(GameObject gameObject, int layerId) {
+            }
+
+            @Override
+            public void removeGameObject(GameObject gameObject, int layerId) {
+            }
+        };
+        AgentRenderer renderer = new AgentRenderer(population, sink, Layer.STATIC_OBJECTS - 1,
+                MAX_AGENT_PROXIES);
+        Camera camera = new Camera(null, Vector2.ZERO, WINDOW_DIMENSIONS, WINDOW_DIMENSIONS);
+        return () -> {
+            simulator.tick(TICK);
+            renderer.update(camera);
+        };
+    }
+
+    private static Runnable eventBus() {
+        WorldEventBus eventBus = new WorldEventBus();
+        int[] delivered = new int[1];
+        eventBus.subscribe(WorldEventBus.maskOf(WorldEventType.values()), event -> delivered[0]++);
+        return () -> {
+            for (int i = 0; i < EVENTS_PER_TICK; i++) {
+                eventBus.publish(WorldEventType.JUMP, i, i, i);
+            }
+            eventBus.dispatch();
+        };
+    }
+
+    /**
+     * Runs right, queueing a column load and unload every tick and draining them.
+     */
+    private static Runnable streaming() {
+        StreamingQueue streaming = new StreamingQueue();
+        ChunkPrefetcher prefetcher = new ChunkPrefetcher(PADDING, PADDING / 2, PADDING * 8,
+                RUN_SPEED, STREAMING_BUDGET_NANOS, 1 / TICK);
+        int[] column = new int[1];
+        StreamingQueue.Worker worker = (type, x) -> column[0] ^= x;
+        return () -> {
+            prefetcher.update(RUN_SPEED, TICK);
+            prefetcher.recordFrame(TICK);
+            prefetcher.setBacklog(streaming.getDepth());
+            streaming.enqueue(StreamingQueue.JobType.LOAD_COLUMN, ++column[0], false);
+            streaming.enqueue(StreamingQueue.JobType.UNLOAD_COLUMN, -column[0], false);
+            streaming.drain(STREAMING_BUDGET_NANOS, worker);
+        };
+    }
+
+    /**
+     * Interpolates one object, one tick per frame. The object stays put, so only the
+     * interpolator's own allocations are counted.
+     */
+    private static Runnable interpolator() {
+        RenderInterpolator interpolator = new RenderInterpolator();
+        interpolator.track(new GameObject(Vector2.ZERO, Vector2.ONES, null));
+        return () -> {
+            interpolator.restore();
+            interpolator.beginTick();
+            interpolator.endTicks();
+            interpolator.apply(0.5f);
+        };
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    /**
+     * A subsystem ticked on its own, with its allocation budget.
+     */
+    private static final class Subsystem {
+        private final String name;
+        private final int budgetBytes; // Bytes allowed per tick
+        private final Runnable tick;
+
+        private Subsystem(String name, int budgetBytes, Runnable tick) {
+            this.name = name;
+            this.budgetBytes = budgetBytes;
+            this.tick = tick;
+        }
+    }
+}
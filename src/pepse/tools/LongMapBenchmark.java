@@ -0,0 +1,140 @@
+package pepse.tools;
+
+import danogl.util.Vector2;
+import pepse.util.collections.LongObjectMap;
+import pepse.util.collections.PackedKey;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares {@link LongObjectMap} with a {@code HashMap} keyed by {@link Vector2}, as the world
+ * indexes used before: retained heap per entry and lookup throughput over a block-shaped grid.
+ * Usage: LongMapBenchmark [entries].
+ */
+public final class LongMapBenchmark {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_ENTRIES = 200_000;
+    private static final int GRID_ROWS = 20; // Rows per column, like a terrain column
+    private static final int CELL_SIZE = 30; // Pixels per cell, like a block
+    private static final int LOOKUP_ROUNDS = 20;
+    private static final int REPETITIONS = 3; // Best of, to reduce noise
+    private static final int SHUFFLE_SEED = 42;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final String RESULT_FORMAT = "%-22s bytes/entry=%.1f lookups/s=%.0f ns/lookup=%.1f%n";
+
+    // Prevent instantiation
+    private LongMapBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional entry count.
+     */
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ENTRIES;
+        int[] order = shuffledOrder(entries);
+        Object value = new Object();
+
+        long before = usedHeap();
+        HashMap<Vector2, Object> boxed = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            boxed.put(cellPosition(i), value);
+        }
+        double boxedBytes = (double) (usedHeap() - before) / entries;
+
+        before = usedHeap();
+        LongObjectMap<Object> packed = new LongObjectMap<>();
+        for (int i = 0; i < entries; i++) {
+            packed.put(cellKey(i), value);
+        }
+        double packedBytes = (double) (usedHeap() - before) / entries;
+
+        report("HashMap<Vector2>", boxedBytes, time(() -> lookUpBoxed(boxed, order)), entries);
+        report("LongObjectMap", packedBytes, time(() -> lookUpPacked(packed, order)), entries);
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static Vector2 cellPosition(int i) {
+        return new Vector2((i / GRID_ROWS) * CELL_SIZE, (i % GRID_ROWS) * CELL_SIZE);
+    }
+
+    private static long cellKey(int i) {
+        return PackedKey.of(i / GRID_ROWS, i % GRID_ROWS);
+    }
+
+    /**
+     * Looks every key up, building the key the way the game did: a new vector per lookup.
+     */
+    private static int lookUpBoxed(Map<Vector2, Object> map, int[] order) {
+        int found = 0;
+        for (int i : order) {
+            if (map.get(cellPosition(i)) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static int lookUpPacked(LongObjectMap<Object> map, int[] order) {
+        int found = 0;
+        for (int i : order) {
+            if (map.get(cellKey(i)) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static long time(IntSupplier lookUps) {
+        long best = Long.MAX_VALUE;
+        int sink = 0;
+        for (int r = 0; r < REPETITIONS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUP_ROUNDS; i++) {
+                sink += lookUps.getAsInt();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        if (sink == 0) {
+            throw new IllegalStateException();
+        }
+        return best;
+    }
+
+    private static void report(String name, double bytesPerEntry, long nanos, int entries) {
+        double lookups = (double) entries * LOOKUP_ROUNDS;
+        System.out.printf(RESULT_FORMAT, name, bytesPerEntry, lookups / (nanos / NANOS_PER_SECOND),
+                nanos / lookups);
+    }
+
+    private static int[] shuffledOrder(int entries) {
+        int[] order = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(SHUFFLE_SEED);
+        for (int i = entries - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,218 @@
+package pepse.tools;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.Camera;
+import danogl.util.Vector2;
+import pepse.event.WorldEventBus;
+import pepse.world.Block;
+import pepse.world.CullingManager;
+import pepse.world.GameObjectSink;
+import pepse.world.MutationQueue;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures what batching world mutations through a {@link MutationQueue} saves. The adds and
+ * removes of a scripted run are recorded once: terrain columns and trees streamed around a view
+ * that runs back and forth, through a {@link CullingManager}. They are then replayed into a
+ * model of the engine's collection, which keeps a list per layer and removes by searching it,
+ * once directly and once through the queue flushed every frame.
+ * Usage: MutationQueueBenchmark [frames].
+ */
+public final class MutationQueueBenchmark {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_FRAMES = 36000; // Ten minutes at 60 frames per second
+    private static final int SEED = 1234;
+    private static final int REPETITIONS = 10; // Best of, to reduce noise
+    private static final float FRAME = 1f / 60; // One tick per frame (in seconds)
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1600, 900);
+    private static final float PADDING = 300f; // Streamed on each side of the view
+    private static final float RUN_SPEED = 300f;
+    private static final float RUN_RIGHT_SECONDS = 6f; // Longer than the run back, so it drifts
+    private static final float RUN_LEFT_SECONDS = 4f;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String RESULT_FORMAT =
+            "%-7s operations=%d applied=%d best=%.2f ms ns/operation=%.1f%n";
+
+    // Prevent instantiation
+    private MutationQueueBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional number of frames.
+     */
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        Recording recording = record(frames);
+        int operations = recording.objects.size();
+
+        long direct = Long.MAX_VALUE;
+        long queued = Long.MAX_VALUE;
+        long applied = 0;
+        for (int r = 0; r < REPETITIONS; r++) {
+            ModelCollection collection = new ModelCollection();
+            long start = System.nanoTime();
+            recording.replay(collection, null);
+            direct = Math.min(direct, System.nanoTime() - start);
+
+            collection = new ModelCollection();
+            MutationQueue queue = new MutationQueue(collection);
+            start = System.nanoTime();
+            recording.replay(queue, queue);
+            queued = Math.min(queued, System.nanoTime() - start);
+            applied = queue.getOperationsApplied();
+        }
+        System.out.printf(RESULT_FORMAT, "direct", operations, operations,
+                direct / NANOS_PER_MILLI, (double) direct / operations);
+        System.out.printf(RESULT_FORMAT, "queued", operations, applied,
+                queued / NANOS_PER_MILLI, (double) queued / operations);
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    /**
+     * Streams columns and trees around a moving view and records every add and remove that
+     * reaches the world, frame by frame.
+     */
+    private static Recording record(int frames) {
+        Recording recording = new Recording();
+        Terrain terrain = new Terrain(WINDOW_DIMENSIONS, SEED);
+        CullingManager culling = new CullingManager(recording);
+        Flora flora = new Flora(terrain, culling, new WorldEventBus());
+        Camera camera = new Camera(null, Vector2.ZERO, WINDOW_DIMENSIONS, WINDOW_DIMENSIONS);
+        Map<Integer, List<Block>> columns = new HashMap<>();
+        List<Integer> trees = new ArrayList<>();
+        float viewX = 0;
+        float runTime = 0;
+        int direction = 1;
+        for (int frame = 0; frame < frames; frame++) {
+            runTime += FRAME;
+            if (runTime >= (direction > 0 ? RUN_RIGHT_SECONDS : RUN_LEFT_SECONDS)) {
+                runTime = 0;
+                direction = -direction;
+            }
+            viewX += direction * RUN_SPEED * FRAME;
+            camera.setTopLeftCorner(new Vector2(viewX, 0));
+
+            int minX = (int) (viewX - PADDING);
+            int maxX = (int) (viewX + WINDOW_DIMENSIONS.x() + PADDING);
+            int minColumn = Math.floorDiv(minX, Block.SIZE);
+            int maxColumn = Math.floorDiv(maxX, Block.SIZE);
+            columns.keySet().removeIf(column -> {
+                if (column >= minColumn && column <= maxColumn) {
+                    return false;
+                }
+                for (Block block : columns.get(column)) {
+                    culling.removeGameObject(block, Layer.STATIC_OBJECTS);
+                }
+                return true;
+            });
+            for (int column = minColumn; column <= maxColumn; column++) {
+                if (!columns.containsKey(column)) {
+                    List<Block> blocks = terrain.createColumn(column * Block.SIZE);
+                    for (Block block : blocks) {
+                        culling.addGameObject(block, Layer.STATIC_OBJECTS);
+                    }
+                    columns.put(column, blocks);
+                }
+            }
+            trees.removeIf(x -> {
+                if (x >= minX && x < maxX) {
+                    return false;
+                }
+                flora.removeTreeAt(x);
+                return true;
+            });
+            for (int x : Flora.treePositionsInRange(minX, maxX)) {
+                if (!trees.contains(x)) {
+                    flora.createTreeAt(x);
+                    trees.add(x);
+                }
+            }
+            culling.update(camera);
+            recording.endFrame();
+        }
+        return recording;
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    /**
+     * The operations of a run, in order, with the index each frame ends at.
+     */
+    private static final class Recording implements GameObjectSink {
+        private final List<GameObject> objects = new ArrayList<>();
+        private final List<Integer> layers = new ArrayList<>();
+        private final List<Boolean> isAdd = new ArrayList<>();
+        private final List<Integer> frameEnds = new ArrayList<>();
+
+        @Override
+        public void addGameObject(GameObject gameObject, int layerId) {
+            objects.add(gameObject);
+            layers.add(layerId);
+            isAdd.add(true);
+        }
+
+        @Override
+        public void removeGameObject(GameObject gameObject, int layerId) {
+            objects.add(gameObject);
+            layers.add(layerId);
+            isAdd.add(false);
+        }
+
+        private void endFrame() {
+            frameEnds.add(objects.size());
+        }
+
+        /**
+         * Replays the operations into a sink, flushing the queue, if any, at every frame end.
+         */
+        private void replay(GameObjectSink sink, MutationQueue queue) {
+            int operation = 0;
+            for (int frameEnd : frameEnds) {
+                for (; operation < frameEnd; operation++) {
+                    if (isAdd.get(operation)) {
+                        sink.addGameObject(objects.get(operation), layers.get(operation));
+                    } else {
+                        sink.removeGameObject(objects.get(operation), layers.get(operation));
+                    }
+                }
+                if (queue != null) {
+                    queue.flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * A model of the engine's collection: a list per layer, searched on removal.
+     */
+    private static final class ModelCollection implements GameObjectSink {
+        private final Map<Integer, List<GameObject>> layers = new HashMap<>();
+
+        @Override
+        public void addGameObject(GameObject gameObject, int layerId) {
+            layers.computeIfAbsent(layerId, layer -> new ArrayList<>()).add(gameObject);
+        }
+
+        @Override
+        public void removeGameObject(GameObject gameObject, int layerId) {
+            List<GameObject> layer = layers.get(layerId);
+            if (layer != null) {
+                layer.remove(gameObject);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package pepse.tools;
+
+import danogl.util.Vector2;
+import pepse.world.Biome;
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+import pepse.world.trees.TreeDescriptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Headless world-quality survey. Generates many worlds in parallel with the game's terrain and
+ * flora rules and streams per-seed statistics (height spread, slopes, tree and fruit counts)
+ * to a CSV file.
+ * Usage: SeedFarm &lt;output.csv&gt; &lt;worlds&gt; &lt;columns&gt; [firstSeed] [threads].
+ */
+public final class SeedFarm {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1600, 900); // Sets the base height
+    private static final int DEFAULT_FIRST_SEED = 0;
+    private static final int BATCH_PER_THREAD = 4; // Worlds per thread between file writes
+    private static final float COLUMNS_PER_DENSITY_UNIT = 1000f;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final String HEADER = "seed,columns,mean_height,height_variance,min_height," +
+            "max_height,max_slope_blocks,trees,trees_per_1000_columns,leaves,fruit\n";
+    private static final String ROW_FORMAT = "%d,%d,%.2f,%.2f,%.0f,%.0f,%d,%d,%.3f,%d,%d%n";
+    private static final String SUMMARY_FORMAT = "%d worlds, %d columns in %.2fs (%.0f columns/s)%n";
+    private static final String USAGE =
+            "Usage: SeedFarm <output.csv> <worlds> <columns> [firstSeed] [threads]";
+
+    // Prevent instantiation
+    private SeedFarm() {}
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Runs the survey.
+     *
+     * @param args The output path, world count and columns per world, and optionally the
+     *             first seed and the number of threads.
+     * @throws IOException If the output cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println(USAGE);
+            return;
+        }
+        Path output = Paths.get(args[0]);
+        int worlds = Integer.parseInt(args[1]);
+        int columns = Integer.parseInt(args[2]);
+        int firstSeed = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_FIRST_SEED;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) :
+                Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        run(output, worlds, columns, firstSeed, new ForkJoinPool(threads));
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        long totalColumns = (long) worlds * columns;
+        System.err.printf(SUMMARY_FORMAT, worlds, totalColumns, seconds, totalColumns / seconds);
+    }
+
+    /**
+     * Surveys a range of seeds, writing one CSV row per seed in seed order.
+     *
+     * @param output    The CSV file to write.
+     * @param worlds    The number of seeds to survey.
+     * @param columns   The number of block columns generated per world.
+     * @param firstSeed The first seed; the following seeds are consecutive.
+     * @param pool      The pool worlds are generated on.
+     * @throws IOException If the output cannot be written.
+     */
+    public static void run(Path output, int worlds, int columns, int firstSeed, ForkJoinPool pool)
+            throws IOException {
+        int batchSize = Math.max(1, pool.getParallelism() * BATCH_PER_THREAD);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(channel, HEADER);
+            for (int batchStart = 0; batchStart < worlds; batchStart += batchSize) {
+                int from = firstSeed + batchStart;
+                int to = firstSeed + Math.min(worlds, batchStart + batchSize);
+                List<WorldStats> batch = pool.submit(() -> IntStream.range(from, to)
+                        .parallel()
+                        .mapToObj(seed -> survey(seed, columns))
+                        .collect(Collectors.toList())).join();
+                StringBuilder rows = new StringBuilder();
+                for (WorldStats stats : batch) {
+                    stats.appendRow(rows);
+                }
+                write(channel, rows.toString());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Generates one world and computes its statistics.
+     *
+     * @param seed    The world seed.
+     * @param columns The number of block columns to generate, starting at x = 0.
+     * @return The world's statistics.
+     */
+    public static WorldStats survey(int seed, int columns) {
+        Terrain terrain = new Terrain(WINDOW_DIMENSIONS, seed);
+        WorldStats stats = new WorldStats(seed, columns);
+        float[] heights = new float[columns];
+        double sum = 0;
+        for (int column = 0; column < columns; column++) {
+            float height = terrain.groundHeightAt(column * (float) Block.SIZE);
+            heights[column] = height;
+            sum += height;
+            stats.minHeight = Math.min(stats.minHeight, height);
+            stats.maxHeight = Math.max(stats.maxHeight, height);
+            if (column > 0) {
+                int slope = Math.round(Math.abs(height - heights[column - 1]) / Block.SIZE);
+                stats.maxSlopeBlocks = Math.max(stats.maxSlopeBlocks, slope);
+            }
+        }
+        stats.meanHeight = columns == 0 ? 0 : sum / columns;
+        double squares = 0;
+        for (float height : heights) {
+            squares += (height - stats.meanHeight) * (height - stats.meanHeight);
+        }
+        stats.heightVariance = columns == 0 ? 0 : squares / columns;
+
+        // Trees stand on column boundaries, so their ground height is the column's height
+        for (int treeX : Flora.treePositionsInRange(0, columns * Block.SIZE)) {
+            Biome biome = terrain.biomeAt(treeX);
+            if (!biome.hasTreeAt(treeX, seed)) {
+                continue;
+            }
+            TreeDescriptor tree = TreeDescriptor.generate(treeX, heights[treeX / Block.SIZE], seed, biome);
+            stats.trees++;
+            stats.leaves += tree.getLeafCount();
+            stats.fruit += tree.getFruitCount();
+        }
+        return stats;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static void write(FileChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // =======================
+    //   NESTED CLASSES
+    // =======================
+    /**
+     * Statistics of a single surveyed world.
+     */
+    public static final class WorldStats {
+        private final int seed;
+        private final int columns;
+        private double meanHeight;
+        private double heightVariance;
+        private float minHeight = Float.MAX_VALUE;
+        private float maxHeight = -Float.MAX_VALUE;
+        private int maxSlopeBlocks; // Largest height change between neighbouring columns
+        private int trees;
+        private int leaves;
+        private int fruit;
+
+        private WorldStats(int seed, int columns) {
+            this.seed = seed;
+            this.columns = columns;
+        }
+
+        /**
+         * Returns the number of trees in the world.
+         *
+         * @return The tree count.
+         */
+        public int getTrees() {
+            return trees;
+        }
+
+        /**
+         * Returns the largest height change between neighbouring columns.
+         *
+         * @return The maximum slope, in blocks.
+         */
+        public int getMaxSlopeBlocks() {
+            return maxSlopeBlocks;
+        }
+
+        private void appendRow(StringBuilder rows) {
+            float density = columns == 0 ? 0 : trees * COLUMNS_PER_DENSITY_UNIT / columns;
+            rows.append(String.format(Locale.ROOT, ROW_FORMAT, seed, columns, meanHeight,
+                    heightVariance, minHeight, maxHeight, maxSlopeBlocks, trees, density, leaves, fruit));
+        }
+    }
+}
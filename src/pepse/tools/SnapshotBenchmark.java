@@ -0,0 +1,158 @@
+package pepse.tools;
+
+import danogl.util.Vector2;
+import pepse.world.Biome;
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.WorldSnapshot;
+import pepse.world.trees.Flora;
+import pepse.world.trees.TreeDescriptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Compares the startup cost of generating the initial world with restoring it from a
+ * {@link WorldSnapshot}: the columns and trees of a window plus its padding, built from noise
+ * versus read through a memory-mapped snapshot and built from the saved cells.
+ * Usage: SnapshotBenchmark [window width].
+ */
+public final class SnapshotBenchmark {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_WINDOW_WIDTH = 1600;
+    private static final float WINDOW_HEIGHT = 900f;
+    private static final int PADDING = 300; // Streamed padding on each side of the window
+    private static final int SEED = 42;
+    private static final int REPETITIONS = 20; // Best of, to reduce noise
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String RESULT_FORMAT = "%-10s columns=%d trees=%d best=%.2f ms%n";
+
+    // Prevent instantiation
+    private SnapshotBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional window width.
+     * @throws IOException If the snapshot cannot be written or read.
+     */
+    public static void main(String[] args) throws IOException {
+        int windowWidth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WINDOW_WIDTH;
+        int firstColumn = Math.floorDiv(-PADDING, Block.SIZE) - 1;
+        int lastColumn = Math.floorDiv(windowWidth + PADDING, Block.SIZE) + 1;
+        int firstTree = Math.floorDiv(-PADDING + Flora.TREE_SPACING - 1, Flora.TREE_SPACING);
+        int lastTree = Math.floorDiv(windowWidth + PADDING, Flora.TREE_SPACING);
+        int columns = lastColumn - firstColumn + 1;
+        int trees = lastTree - firstTree + 1;
+        Path path = Files.createTempFile("pepse", ".snap");
+        try {
+            writeSnapshot(path, windowWidth, firstColumn, lastColumn, firstTree, lastTree);
+            long generated = Long.MAX_VALUE;
+            long resumed = Long.MAX_VALUE;
+            int sink = 0;
+            for (int r = 0; r < REPETITIONS; r++) {
+                long start = System.nanoTime();
+                sink += generate(windowWidth, firstColumn, lastColumn, firstTree, lastTree);
+                generated = Math.min(generated, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sink += resume(path, windowWidth, firstColumn, lastColumn);
+                resumed = Math.min(resumed, System.nanoTime() - start);
+            }
+            if (sink == 0) {
+                throw new IllegalStateException();
+            }
+            System.out.printf(RESULT_FORMAT, "generate", columns, trees, generated / NANOS_PER_MILLI);
+            System.out.printf(RESULT_FORMAT, "resume", columns, trees, resumed / NANOS_PER_MILLI);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    /**
+     * Builds the initial world the way a new session does. A fresh terrain is used every time,
+     * so no biome is cached from the previous repetition.
+     */
+    private static int generate(int windowWidth, int firstColumn, int lastColumn, int firstTree,
+                                int lastTree) {
+        Terrain terrain = new Terrain(new Vector2(windowWidth, WINDOW_HEIGHT), SEED);
+        int built = 0;
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            built += terrain.createColumn(column * Block.SIZE).size();
+        }
+        for (int tree = firstTree; tree <= lastTree; tree++) {
+            int x = tree * Flora.TREE_SPACING;
+            Biome biome = terrain.biomeAt(x);
+            if (biome.hasTreeAt(x, SEED)) {
+                built += TreeDescriptor.generate(x, terrain.groundHeightAt(x), SEED, biome)
+                        .getLeafCount();
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Builds the initial world the way a resumed session does: columns and tree heights from
+     * the snapshot, only the biomes of the trees from noise.
+     */
+    private static int resume(Path path, int windowWidth, int firstColumn, int lastColumn)
+            throws IOException {
+        Terrain terrain = new Terrain(new Vector2(windowWidth, WINDOW_HEIGHT), SEED);
+        WorldSnapshot snapshot = WorldSnapshot.read(path);
+        snapshot.restoreEdits(terrain.getEdits());
+        int built = 0;
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            long exposed = Terrain.exposedCells(
+                    snapshot.getCells(column - 1), snapshot.getSurfaceRow(column - 1),
+                    snapshot.getCells(column), snapshot.getSurfaceRow(column),
+                    snapshot.getCells(column + 1), snapshot.getSurfaceRow(column + 1));
+            built += terrain.createColumn(column * Block.SIZE, snapshot.getSurfaceRow(column),
+                    exposed).size();
+        }
+        for (int i = 0; i < snapshot.getTreeCount(); i++) {
+            int x = snapshot.getTreeX(i);
+            built += TreeDescriptor.generate(x, snapshot.getTreeGroundY(i), SEED,
+                    terrain.biomeAt(x)).getLeafCount();
+        }
+        return built;
+    }
+
+    private static void writeSnapshot(Path path, int windowWidth, int firstColumn, int lastColumn,
+                                      int firstTree, int lastTree) throws IOException {
+        Terrain terrain = new Terrain(new Vector2(windowWidth, WINDOW_HEIGHT), SEED);
+        int columnCount = lastColumn - firstColumn + 3;
+        int[] surfaceRows = new int[columnCount];
+        long[] cells = new long[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            surfaceRows[i] = terrain.surfaceRow(firstColumn - 1 + i);
+            cells[i] = terrain.cellsAt(firstColumn - 1 + i);
+        }
+        ByteBuffer edits = ByteBuffer.allocate(terrain.getEdits().getSerializedSize());
+        terrain.getEdits().writeTo(edits);
+        edits.flip();
+
+        int treeCount = 0;
+        int[] treeX = new int[lastTree - firstTree + 1];
+        float[] treeGroundY = new float[treeX.length];
+        for (int tree = firstTree; tree <= lastTree; tree++) {
+            int x = tree * Flora.TREE_SPACING;
+            if (terrain.biomeAt(x).hasTreeAt(x, SEED)) {
+                treeX[treeCount] = x;
+                treeGroundY[treeCount] = terrain.groundHeightAt(x);
+                treeCount++;
+            }
+        }
+        new WorldSnapshot(SEED, 0, windowWidth / 2f, 0, 100, 0, windowWidth, firstColumn - 1,
+                surfaceRows, cells, edits, Arrays.copyOf(treeX, treeCount),
+                Arrays.copyOf(treeGroundY, treeCount), new long[treeCount]).write(path);
+    }
+}
@@ -0,0 +1,364 @@
+package pepse.tools;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.Camera;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.util.Vector2;
+import pepse.event.WorldEventBus;
+import pepse.world.Block;
+import pepse.world.ChunkCache;
+import pepse.world.ChunkPrefetcher;
+import pepse.world.Cloud;
+import pepse.world.CullingManager;
+import pepse.world.GameObjectSink;
+import pepse.world.InteractionGrid;
+import pepse.world.MutationQueue;
+import pepse.world.Terrain;
+import pepse.world.WorldStreamer;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Tree;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.awt.Color;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Headless long-run soak test. Runs the world, streamed by the game's {@link WorldStreamer}, for
+ * a number of simulated hours with a scripted viewpoint that keeps moving into new terrain,
+ * rains, and digs and refills cells, and samples the live heap after a full collection and the
+ * live instances of each world type at a fixed interval. The samples are written as a {@code sim_seconds,metric,value} time series that
+ * plots directly, and the run fails when the heap grows faster than the allowed slope.
+ * Usage: SoakTest output.csv [hours] [max slope KiB/hour]. Exits with status 1 on a leak.
+ */
+public final class SoakTest {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final double DEFAULT_HOURS = 2;
+    private static final double DEFAULT_MAX_SLOPE = 256; // KiB of heap growth per simulated hour
+    private static final float TICK = 1f / 60; // Duration of one tick (in seconds)
+    private static final int SAMPLE_INTERVAL_TICKS = 5 * 60 * 60; // Every 5 simulated minutes
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1600, 900);
+    private static final int SEED = 1;
+    private static final float PADDING = 300f; // Streamed on each side of the view
+    private static final float MIN_TRAILING_PADDING = Block.SIZE * 4; // Kept behind the avatar
+    private static final float MAX_LOOK_AHEAD = 2400f; // Largest padding streamed ahead
+    private static final long STREAMING_BUDGET_NANOS = 1_500_000; // Streaming time per tick
+    private static final float RUN_SPEED = 300f;
+    private static final float RUN_RIGHT_SECONDS = 90f; // Longer than the run back, so it drifts
+    private static final float RUN_LEFT_SECONDS = 60f;
+    private static final int RAIN_INTERVAL_TICKS = 7 * 60;
+    private static final int DIG_INTERVAL_TICKS = 20 * 60;
+    private static final int REFILL_DELAY_TICKS = 10 * 60;
+    private static final int DIG_DEPTH = 2; // Rows below the surface of the dug cell
+    private static final Vector2 CLOUD_DIMENSIONS = new Vector2(200, 100);
+    private static final int TOP_GROWING_TYPES = 10;
+    private static final long CACHE_BYTES = 256L << 10; // Per cache, full before the first sample
+    private static final double BYTES_PER_KIB = 1024;
+    private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+    private static final String CLASS_HISTOGRAM = "gcClassHistogram";
+    private static final String[] TRACKED_PACKAGES = {"pepse.", "danogl."};
+    private static final String HEADER = "sim_seconds,metric,value";
+    private static final String ROW_FORMAT = "%d,%s,%d%n";
+    private static final String INSTANCES_METRIC = "instances:";
+    private static final String SAMPLE_FORMAT = "t=%6ds heap=%8.1f KiB objects=%d raindrops=%d%n";
+    private static final String SLOPE_FORMAT = "heap slope %.1f KiB/hour, allowed %.1f: %s%n";
+    private static final String GROWTH_FORMAT = "  %-50s %+d%n";
+    private static final String GROWING_TYPES = "Fastest growing types:";
+    private static final String USAGE = "Usage: SoakTest output.csv [hours] [max slope KiB/hour]";
+    private static final String PASS = "ok";
+    private static final String FAIL = "LEAK";
+
+    // Prevent instantiation
+    private SoakTest() {}
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Runs the soak test and writes its time series.
+     *
+     * @param args The output file, optionally followed by the simulated hours and the allowed
+     *             heap slope.
+     * @throws Exception If the output cannot be written or the heap cannot be inspected.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        double hours = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_HOURS;
+        double maxSlope = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_MAX_SLOPE;
+        long ticks = (long) (hours * SECONDS_PER_HOUR / TICK);
+
+        SoakWorld world = new SoakWorld();
+        List<Long> sampleSeconds = new ArrayList<>();
+        List<Long> heapSamples = new ArrayList<>();
+        Map<String, Long> firstCounts = null;
+        Map<String, Long> lastCounts = null;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(args[0])))) {
+            out.println(HEADER);
+            for (long tick = 0; tick <= ticks; tick++) {
+                if (tick % SAMPLE_INTERVAL_TICKS == 0) {
+                    long seconds = Math.round(tick * (double) TICK);
+                    Map<String, Long> counts = liveInstanceCounts();
+                    long heap = liveHeapBytes();
+                    world.writeSample(out, seconds, heap, counts);
+                    out.flush();
+                    sampleSeconds.add(seconds);
+                    heapSamples.add(heap);
+                    if (firstCounts == null && tick > 0) {
+                        firstCounts = counts; // The first sample still holds startup garbage
+                    }
+                    lastCounts = counts;
+                    System.out.printf(SAMPLE_FORMAT, seconds, heap / BYTES_PER_KIB,
+                            world.objects.size(), world.cloud.getRaindropCount());
+                }
+                world.tick(tick);
+            }
+        }
+
+        double slope = heapSlope(sampleSeconds, heapSamples);
+        boolean leaking = slope > maxSlope;
+        System.out.printf(SLOPE_FORMAT, slope, maxSlope, leaking ? FAIL : PASS);
+        if (firstCounts != null) {
+            printGrowingTypes(firstCounts, lastCounts);
+        }
+        if (leaking) {
+            System.exit(1);
+        }
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static long liveHeapBytes() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Counts the live instances of the world's own types from a class histogram, which runs a
+     * full collection first.
+     */
+    private static Map<String, Long> liveInstanceCounts() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String histogram = (String) server.invoke(new ObjectName(DIAGNOSTIC_COMMAND),
+                CLASS_HISTOGRAM, new Object[]{new String[0]},
+                new String[]{String[].class.getName()});
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String line : histogram.split("\n")) {
+            // "   1:     123456     7890123  pepse.world.Block"
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 4 || !fields[0].endsWith(":")) {
+                continue;
+            }
+            String type = fields[3];
+            for (String trackedPackage : TRACKED_PACKAGES) {
+                if (type.startsWith(trackedPackage)) {
+                    counts.put(type, Long.parseLong(fields[1]));
+                    break;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Least-squares slope of the heap samples, in KiB per simulated hour. The first sample is
+     * left out, since it is taken before the world has reached steady state.
+     */
+    private static double heapSlope(List<Long> seconds, List<Long> heap) {
+        int n = seconds.size() - 1;
+        if (n < 2) {
+            return 0;
+        }
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 1; i <= n; i++) {
+            meanX += seconds.get(i);
+            meanY += heap.get(i);
+        }
+        meanX /= n;
+        meanY /= n;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 1; i <= n; i++) {
+            double dx = seconds.get(i) - meanX;
+            covariance += dx * (heap.get(i) - meanY);
+            variance += dx * dx;
+        }
+        return covariance / variance * SECONDS_PER_HOUR / BYTES_PER_KIB;
+    }
+
+    private static void printGrowingTypes(Map<String, Long> first, Map<String, Long> last) {
+        List<Map.Entry<String, Long>> growth = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : last.entrySet()) {
+            long delta = entry.getValue() - first.getOrDefault(entry.getKey(), 0L);
+            if (delta > 0) {
+                growth.add(Map.entry(entry.getKey(), delta));
+            }
+        }
+        growth.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        System.out.println(GROWING_TYPES);
+        for (int i = 0; i < Math.min(TOP_GROWING_TYPES, growth.size()); i++) {
+            System.out.printf(GROWTH_FORMAT, growth.get(i).getKey(), growth.get(i).getValue());
+        }
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    /**
+     * The world without a window, streamed and culled like the game's: a virtual avatar runs
+     * back and forth, a {@link WorldStreamer} loads and unloads the columns and trees around it
+     * through a {@link CullingManager}, digs and refills go through the streamer, and a cloud
+     * rains. Objects added or removed during a tick go through a {@link MutationQueue} flushed
+     * after it, like the game's frame.
+     */
+    private static final class SoakWorld implements GameObjectSink {
+        private final Set<GameObject> objects = new LinkedHashSet<>(); // In insertion order
+        private final Terrain terrain = new Terrain(WINDOW_DIMENSIONS, SEED);
+        private final WorldEventBus eventBus = new WorldEventBus();
+        private final MutationQueue mutations = new MutationQueue(this);
+        private final CullingManager culling = new CullingManager(mutations);
+        private final InteractionGrid interactions = new InteractionGrid(culling);
+        private final ChunkCache<List<Block>> columnCache = new ChunkCache<>("column",
+                CACHE_BYTES);
+        private final ChunkCache<Tree> treeCache = new ChunkCache<>(Flora.CACHE_NAME,
+                CACHE_BYTES);
+        private final Flora flora = new Flora(terrain, interactions, eventBus, treeCache);
+        private final Camera camera = new Camera(null, Vector2.ZERO, WINDOW_DIMENSIONS,
+                WINDOW_DIMENSIONS);
+        private final WorldStreamer streamer;
+        private final Cloud cloud;
+        private float viewX;
+        private int direction = 1;
+        private float runTime;
+        private boolean isStartupFinished;
+        private int dugColumn;
+        private int dugRow;
+        private boolean isDug;
+
+        private SoakWorld() {
+            ChunkPrefetcher prefetcher = new ChunkPrefetcher(PADDING, MIN_TRAILING_PADDING,
+                    MAX_LOOK_AHEAD, RUN_SPEED, STREAMING_BUDGET_NANOS, 1 / TICK);
+            streamer = new WorldStreamer(terrain, flora, culling, eventBus, prefetcher,
+                    columnCache, STREAMING_BUDGET_NANOS, () -> camera);
+            streamer.start(viewX, viewX + WINDOW_DIMENSIONS.x(), null);
+            int firstVisibleColumn = Math.floorDiv((int) viewX, Block.SIZE);
+            int lastVisibleColumn = Math.floorDiv((int) (viewX + WINDOW_DIMENSIONS.x()),
+                    Block.SIZE);
+            streamer.loadColumns(firstVisibleColumn, lastVisibleColumn);
+            streamer.enqueueStartup(firstVisibleColumn, lastVisibleColumn, avatarX());
+            cloud = new Cloud(Vector2.ZERO, CLOUD_DIMENSIONS, new RectangleRenderable(Color.WHITE),
+                    mutations, WINDOW_DIMENSIONS);
+            mutations.addGameObject(cloud, Layer.BACKGROUND);
+            mutations.flush();
+        }
+
+        @Override
+        public void addGameObject(GameObject gameObject, int layerId) {
+            objects.add(gameObject);
+        }
+
+        @Override
+        public void removeGameObject(GameObject gameObject, int layerId) {
+            objects.remove(gameObject);
+        }
+
+        private void tick(long tick) {
+            moveView();
+            if (tick % RAIN_INTERVAL_TICKS == 0) {
+                cloud.createRain();
+            }
+            if (tick % DIG_INTERVAL_TICKS == 0) {
+                dig();
+            } else if (isDug && tick % DIG_INTERVAL_TICKS == REFILL_DELAY_TICKS) {
+                refill();
+            }
+            streamer.update(avatarX(), direction * RUN_SPEED, TICK);
+            culling.update(camera);
+            for (GameObject gameObject : objects) {
+                gameObject.update(TICK);
+            }
+            eventBus.dispatch();
+            streamer.drain();
+            if (!isStartupFinished && streamer.getQueueDepth() == 0) {
+                isStartupFinished = true;
+                streamer.finishStartup();
+            }
+            mutations.flush();
+        }
+
+        private void moveView() {
+            runTime += TICK;
+            if (runTime >= (direction > 0 ? RUN_RIGHT_SECONDS : RUN_LEFT_SECONDS)) {
+                runTime = 0;
+                direction = -direction;
+            }
+            viewX += direction * RUN_SPEED * TICK;
+            camera.setTopLeftCorner(new Vector2(viewX, 0));
+        }
+
+        /**
+         * Returns where the virtual avatar stands: in the middle of the view.
+         */
+        private float avatarX() {
+            return viewX + WINDOW_DIMENSIONS.x() / 2;
+        }
+
+        /**
+         * Digs a cell under the avatar, rebuilding it and its neighbours.
+         */
+        private void dig() {
+            dugColumn = Math.floorDiv((int) avatarX(), Block.SIZE);
+            dugRow = terrain.surfaceRow(dugColumn) + DIG_DEPTH;
+            isDug = streamer.editCell(dugColumn, dugRow, false);
+        }
+
+        private void refill() {
+            streamer.editCell(dugColumn, dugRow, true);
+            isDug = false;
+        }
+
+        private void writeSample(PrintWriter out, long seconds, long heap, Map<String, Long> counts) {
+            out.printf(ROW_FORMAT, seconds, "heap_bytes", heap);
+            out.printf(ROW_FORMAT, seconds, "world_objects", objects.size());
+            out.printf(ROW_FORMAT, seconds, "raindrops", cloud.getRaindropCount());
+            out.printf(ROW_FORMAT, seconds, "culling_active", culling.getActiveCount());
+            out.printf(ROW_FORMAT, seconds, "culling_suspended", culling.getSuspendedCount());
+            out.printf(ROW_FORMAT, seconds, "terrain_edits", terrain.getEdits().getEditCount());
+            out.printf(ROW_FORMAT, seconds, "active_blocks", streamer.getActiveBlockCount());
+            out.printf(ROW_FORMAT, seconds, "streaming_depth", streamer.getQueueDepth());
+            out.printf(ROW_FORMAT, seconds, "mutations_applied", mutations.getOperationsApplied());
+            out.printf(ROW_FORMAT, seconds, "interaction_objects", interactions.getObjectCount());
+            writeCacheSample(out, seconds, "column_cache", columnCache);
+            writeCacheSample(out, seconds, "tree_cache", treeCache);
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                out.printf(ROW_FORMAT, seconds, INSTANCES_METRIC + entry.getKey(), entry.getValue());
+            }
+        }
+
+        private static void writeCacheSample(PrintWriter out, long seconds, String metric,
+                                             ChunkCache<?> cache) {
+            out.printf(ROW_FORMAT, seconds, metric + "_bytes", cache.getBytes());
+            out.printf(ROW_FORMAT, seconds, metric + "_hits", cache.getHits());
+            out.printf(ROW_FORMAT, seconds, metric + "_misses", cache.getMisses());
+            out.printf(ROW_FORMAT, seconds, metric + "_evictions", cache.getEvictions());
+        }
+    }
+}
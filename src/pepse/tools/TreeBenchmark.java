@@ -0,0 +1,89 @@
+package pepse.tools;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.event.WorldEventBus;
+import pepse.world.Biome;
+import pepse.world.GameObjectSink;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Tree;
+import pepse.world.trees.TreeDescriptor;
+
+/**
+ * Measures how many trees per second can be described and built: descriptors generated from
+ * the tree slots of a stretch of world, then the trees' trunks, leaves and fruit created into a
+ * sink that discards them. Ground heights and biomes are looked up ahead of timing, so only tree
+ * construction is measured.
+ * Usage: TreeBenchmark [trees].
+ */
+public final class TreeBenchmark {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_TREES = 20000;
+    private static final int SEED = 1234;
+    private static final int REPETITIONS = 10; // Best of, to reduce noise
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1600, 900);
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final String RESULT_FORMAT = "%-9s trees=%d best=%.1f ms trees/s=%.0f%n";
+
+    // Prevent instantiation
+    private TreeBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional number of trees.
+     */
+    public static void main(String[] args) {
+        int trees = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TREES;
+        Terrain terrain = new Terrain(WINDOW_DIMENSIONS, SEED);
+        float[] groundY = new float[trees];
+        Biome[] biomes = new Biome[trees];
+        for (int i = 0; i < trees; i++) {
+            int x = i * Flora.TREE_SPACING;
+            groundY[i] = terrain.groundHeightAt(x);
+            biomes[i] = terrain.biomeAt(x);
+        }
+        GameObjectSink discard = new GameObjectSink() {
+            @Override
+            public void addGameObject(GameObject gameObject, int layerId) { }
+
+            @Override
+            public void removeGameObject(GameObject gameObject, int layerId) { }
+        };
+        WorldEventBus eventBus = new WorldEventBus();
+
+        TreeDescriptor[] descriptors = new TreeDescriptor[trees];
+        long described = Long.MAX_VALUE;
+        long built = Long.MAX_VALUE;
+        int leaves = 0;
+        for (int r = 0; r < REPETITIONS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < trees; i++) {
+                descriptors[i] = TreeDescriptor.generate(i * Flora.TREE_SPACING, groundY[i], SEED,
+                        biomes[i]);
+            }
+            described = Math.min(described, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (TreeDescriptor descriptor : descriptors) {
+                new Tree(discard, descriptor, eventBus).buildTree();
+                leaves += descriptor.getLeafCount();
+            }
+            built = Math.min(built, System.nanoTime() - start);
+        }
+        if (leaves == 0) {
+            throw new IllegalStateException();
+        }
+        print("describe", trees, described);
+        print("build", trees, built);
+    }
+
+    private static void print(String phase, int trees, long nanos) {
+        System.out.printf(RESULT_FORMAT, phase, trees, nanos / 1e6,
+                trees / (nanos / NANOS_PER_SECOND));
+    }
+}
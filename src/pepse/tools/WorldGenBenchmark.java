@@ -0,0 +1,80 @@
+package pepse.tools;
+
+import danogl.util.Vector2;
+import pepse.world.ChunkData;
+import pepse.world.Terrain;
+import pepse.world.WorldGenerator;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how world generation scales from one core to all of them, and checks that every
+ * parallel run produces exactly the sequential output.
+ * Usage: WorldGenBenchmark [chunks] [seed].
+ */
+public final class WorldGenBenchmark {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_CHUNKS = 2048;
+    private static final int DEFAULT_SEED = 1234;
+    private static final int REPETITIONS = 3; // Best of, to reduce noise
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1600, 900);
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String RESULT_FORMAT =
+            "threads=%d ms=%.1f columns/s=%.0f speedup=%.2f identical=%b%n";
+
+    // Prevent instantiation
+    private WorldGenBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional chunk count and seed.
+     */
+    public static void main(String[] args) {
+        int chunks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CHUNKS;
+        int seed = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SEED;
+        WorldGenerator generator = new WorldGenerator(new Terrain(WINDOW_DIMENSIONS, seed), seed);
+        int maxX = chunks * WorldGenerator.CHUNK_WIDTH;
+
+        List<ChunkData> reference = generator.generate(0, maxX);
+        double baseline = 0;
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            long best = Long.MAX_VALUE;
+            List<ChunkData> result = null;
+            for (int i = 0; i < REPETITIONS; i++) {
+                long start = System.nanoTime();
+                result = generator.generate(0, maxX, pool);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            pool.shutdown();
+            double millis = best / NANOS_PER_MILLI;
+            if (threads == 1) {
+                baseline = millis;
+            }
+            double columnsPerSecond = (double) chunks * WorldGenerator.CHUNK_COLUMNS / (millis / 1000);
+            System.out.printf(RESULT_FORMAT, threads, millis, columnsPerSecond, baseline / millis,
+                    identical(reference, result));
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+    private static boolean identical(List<ChunkData> expected, List<ChunkData> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).contentEquals(actual.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
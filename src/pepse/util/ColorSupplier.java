@@ -64,6 +64,23 @@ public final class ColorSupplier {
                 randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta));
     }
 
+    /**
+     * Returns a color similar to baseColor, with a default delta, drawing from the given
+     * random generator. With a seeded generator the result is reproducible and safe to compute
+     * on any thread.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param random The random generator to sample from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColor(Color baseColor, Random random) {
+        int colorDelta = DEFAULT_COLOR_DELTA;
+        return new Color(
+                randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta, random),
+                randomChannelInRange(baseColor.getGreen()-colorDelta, baseColor.getGreen()+colorDelta, random),
+                randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta, random));
+    }
+
     /**
      * This method generates a random value for a color channel within the given range [min, max].
      *
@@ -72,6 +89,10 @@ public final class ColorSupplier {
      * @return A random number in the range [min, max], clipped to [0,255].
      */
     private static int randomChannelInRange(int min, int max) {
+        return randomChannelInRange(min, max, random);
+    }
+
+    private static int randomChannelInRange(int min, int max, Random random) {
         int channel = random.nextInt(max-min+1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
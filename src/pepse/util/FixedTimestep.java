@@ -0,0 +1,105 @@
+package pepse.util;
+
+/**
+ * Accumulator-based fixed timestep. Converts variable frame durations into a whole number
+ * of simulation ticks of constant length, so the simulation advances identically regardless
+ * of the frame rate the machine manages.
+ */
+public class FixedTimestep {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final String ERROR_TICK_RATE = "tickRate must be positive.";
+    private static final String ERROR_MAX_TICKS = "maxTicksPerFrame must be at least 1.";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final float tickDuration; // Length of a single simulation tick (in seconds)
+    private final int maxTicksPerFrame; // Catch-up limit per rendered frame
+    private double accumulator; // Unsimulated time carried over between frames
+    private long tickCount; // Total ticks simulated so far
+    private long droppedTicks; // Ticks discarded because the catch-up limit was reached
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a fixed timestep.
+     *
+     * @param tickRate         The number of simulation ticks per second.
+     * @param maxTicksPerFrame The maximum number of ticks simulated for a single frame. Time beyond
+     *                         this limit is dropped so a stalled frame cannot snowball.
+     */
+    public FixedTimestep(float tickRate, int maxTicksPerFrame) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException(ERROR_TICK_RATE);
+        }
+        if (maxTicksPerFrame < 1) {
+            throw new IllegalArgumentException(ERROR_MAX_TICKS);
+        }
+        this.tickDuration = 1f / tickRate;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Adds the duration of a frame to the accumulator and consumes whole ticks from it.
+     *
+     * @param deltaTime Time elapsed since the last frame (in seconds).
+     * @return The number of ticks to simulate for this frame.
+     */
+    public int advance(float deltaTime) {
+        accumulator += Math.max(deltaTime, 0f);
+        int ticks = (int) (accumulator / tickDuration);
+        if (ticks > maxTicksPerFrame) {
+            droppedTicks += ticks - maxTicksPerFrame;
+            ticks = maxTicksPerFrame;
+            // Keep only the fractional remainder so the next frame starts fresh
+            accumulator = accumulator % tickDuration;
+        } else {
+            accumulator -= ticks * (double) tickDuration;
+        }
+        tickCount += ticks;
+        return ticks;
+    }
+
+    /**
+     * Returns how far the accumulator is between the last simulated tick and the next one.
+     *
+     * @return The interpolation factor in the range [0, 1).
+     */
+    public float getAlpha() {
+        return (float) (accumulator / tickDuration);
+    }
+
+    /**
+     * Returns the length of a single tick.
+     *
+     * @return The tick duration (in seconds).
+     */
+    public float getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Returns the number of ticks simulated since construction.
+     *
+     * @return The total tick count.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the number of ticks dropped by the catch-up limit.
+     *
+     * @return The total dropped tick count.
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+}
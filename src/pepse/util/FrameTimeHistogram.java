@@ -0,0 +1,81 @@
+package pepse.util;
+
+import java.io.PrintStream;
+
+/**
+ * A fixed-bucket histogram of frame durations with one bucket per millisecond. Recording a frame
+ * does not allocate, so the histogram can stay enabled during performance runs.
+ */
+public class FrameTimeHistogram {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int BUCKET_COUNT = 100; // Frames of 100 ms or more share the last bucket
+    private static final float MILLIS_PER_SECOND = 1000f;
+    private static final double[] REPORTED_PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String SUMMARY_FORMAT = "frames=%d mean=%.2fms max=%.2fms%n";
+    private static final String PERCENTILE_FORMAT = "p%s<=%dms%n";
+    private static final String BUCKET_FORMAT = "%3dms %d%n";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long frameCount;
+    private double totalMillis;
+    private float maxMillis;
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Records the duration of one frame.
+     *
+     * @param deltaTime The frame duration (in seconds).
+     */
+    public void record(float deltaTime) {
+        float millis = deltaTime * MILLIS_PER_SECOND;
+        int bucket = Math.min((int) millis, BUCKET_COUNT - 1);
+        buckets[Math.max(bucket, 0)]++;
+        frameCount++;
+        totalMillis += millis;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    /**
+     * Returns the upper bound, in whole milliseconds, below which the given fraction of frames fall.
+     *
+     * @param fraction The percentile as a fraction in [0, 1].
+     * @return The bucket bound in milliseconds.
+     */
+    public int percentile(double fraction) {
+        long threshold = (long) Math.ceil(frameCount * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= threshold) {
+                return i + 1;
+            }
+        }
+        return BUCKET_COUNT;
+    }
+
+    /**
+     * Prints a summary, the main percentiles and every non-empty bucket.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        double mean = frameCount == 0 ? 0 : totalMillis / frameCount;
+        out.printf(SUMMARY_FORMAT, frameCount, mean, maxMillis);
+        for (double fraction : REPORTED_PERCENTILES) {
+            out.printf(PERCENTILE_FORMAT, fraction * 100, percentile(fraction));
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (buckets[i] > 0) {
+                out.printf(BUCKET_FORMAT, i, buckets[i]);
+            }
+        }
+    }
+}
@@ -86,6 +86,31 @@ public class NoiseGenerator {
     }
 
 
+    /**
+     * Generates two-dimensional fractal noise, e.g. for the density of the ground below the surface.
+     *
+     * @param x      the x coordinate to sample.
+     * @param y      the y coordinate to sample.
+     * @param scale  the size of the largest features, in the units of x and y.
+     * @param octaves the number of layers of detail, each half the size of the previous one.
+     * @return the noise, roughly in the range [-1, 1].
+     */
+    public double noise2D(double x, double y, double scale, int octaves) {
+        double value = 0.0;
+        double amplitude = 1.0;
+        double totalAmplitude = 0.0;
+
+        for (int octave = 0; octave < octaves; octave++) {
+            // Sample off the lattice plane z = 0, where the noise is zero at every whole x and y
+            value += smoothNoise(x / scale, y / scale, 0.5) * amplitude;
+            totalAmplitude += amplitude;
+            scale /= 2.0;
+            amplitude /= 2.0;
+        }
+
+        return value / totalAmplitude;
+    }
+
     private double smoothNoise(double x, double y, double z) {
         // Offset each coordinate by the seed value
         x += this.seed;
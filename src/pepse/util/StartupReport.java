@@ -0,0 +1,70 @@
+package pepse.util;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the phases of startup against a common origin, so time to first frame and time until
+ * everything is loaded can be tracked from run to run. Each phase is printed as one
+ * {@code key=value} line, which keeps the report easy to grep and diff.
+ */
+public class StartupReport {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String PHASE_FORMAT = "startup.%s=%.1fms%n";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final long originNanos;
+    private final List<String> phases = new ArrayList<>();
+    private final List<Long> phaseNanos = new ArrayList<>(); // Time of each phase since the origin
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a report whose origin is now.
+     */
+    public StartupReport() {
+        this.originNanos = System.nanoTime();
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Records that a phase has completed.
+     *
+     * @param phase The phase name, e.g. {@code first-frame}.
+     */
+    public void mark(String phase) {
+        phases.add(phase);
+        phaseNanos.add(System.nanoTime() - originNanos);
+    }
+
+    /**
+     * Returns whether a phase has been recorded.
+     *
+     * @param phase The phase name.
+     * @return True if {@link #mark(String)} was called with the phase.
+     */
+    public boolean hasMarked(String phase) {
+        return phases.contains(phase);
+    }
+
+    /**
+     * Prints every phase in the order recorded, with its time since the origin.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        for (int i = 0; i < phases.size(); i++) {
+            out.printf(PHASE_FORMAT, phases.get(i), phaseNanos.get(i) / NANOS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package pepse.util.collections;
+
+/**
+ * Hashing helpers shared by the long-keyed tables.
+ */
+final class Hashing {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L; // Fibonacci hashing multiplier
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    // Prevent instantiation
+    private Hashing() {}
+
+    /**
+     * Returns the home slot of a key. Packed coordinates differ mostly in their low bits, so
+     * the key is spread over all bits before masking.
+     *
+     * @param key  The key.
+     * @param mask The table capacity minus one.
+     * @return The home slot.
+     */
+    static int slot(long key, int mask) {
+        long mixed = key * GOLDEN_RATIO;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the power-of-two capacity that holds a number of entries under a load factor.
+     *
+     * @param expectedSize The number of entries expected.
+     * @param maxLoad      The maximum fraction of filled slots.
+     * @return The table capacity.
+     */
+    static int tableSize(int expectedSize, float maxLoad) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / maxLoad) + 1;
+        int capacity = Integer.highestOneBit((int) Math.min(needed, MAX_CAPACITY));
+        return capacity < needed ? capacity << 1 : capacity;
+    }
+}
@@ -0,0 +1,174 @@
+package pepse.util.collections;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive long values, using open addressing with linear probing.
+ */
+public class LongHashSet {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float MAX_LOAD = 0.5f; // Fraction of slots filled before the table grows
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private long[] keys;
+    private boolean[] used; // True for occupied slots
+    private int size;
+    private int mask; // Capacity - 1; capacity is a power of two
+    private int growThreshold;
+
+    // =======================
+    //   CONSTRUCTORS
+    // =======================
+    /**
+     * Constructs an empty set.
+     */
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty set sized for the given number of values.
+     *
+     * @param expectedSize The number of values expected.
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(Hashing.tableSize(expectedSize, MAX_LOAD));
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns whether a value is present.
+     *
+     * @param value The value.
+     * @return True if the set contains the value.
+     */
+    public boolean contains(long value) {
+        return find(value) >= 0;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value The value.
+     * @return True if the value was not already present.
+     */
+    public boolean add(long value) {
+        int slot = Hashing.slot(value, mask);
+        while (used[slot]) {
+            if (keys[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        used[slot] = true;
+        if (++size > growThreshold) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value The value.
+     * @return True if the value was present.
+     */
+    public boolean remove(long value) {
+        int gap = find(value);
+        if (gap < 0) {
+            return false;
+        }
+        // Move later values of the same probe run back into the gap, so no tombstones are needed
+        int slot = (gap + 1) & mask;
+        while (used[slot]) {
+            int home = Hashing.slot(keys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[gap] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns a snapshot of the values, in no particular order.
+     *
+     * @return A new array holding every value.
+     */
+    public long[] toArray() {
+        long[] snapshot = new long[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                snapshot[count++] = keys[i];
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The size of the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every value, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private int find(long value) {
+        int slot = Hashing.slot(value, mask);
+        while (used[slot]) {
+            if (keys[slot] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        growThreshold = (int) (capacity * MAX_LOAD);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = Hashing.slot(oldKeys[i], mask);
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                used[slot] = true;
+            }
+        }
+    }
+}
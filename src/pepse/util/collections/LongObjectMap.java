@@ -0,0 +1,234 @@
+package pepse.util.collections;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A map from primitive long keys to objects, using open addressing with linear probing.
+ * Keys are stored unboxed in a flat array, so lookups neither allocate nor chase entry objects.
+ * Null values are not supported; a null slot marks an empty one.
+ *
+ * @param <V> The type of the values.
+ */
+public class LongObjectMap<V> {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float MAX_LOAD = 0.5f; // Fraction of slots filled before the table grows
+    private static final String ERROR_NULL_VALUE = "Null values are not supported.";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private long[] keys;
+    private Object[] values; // Null for empty slots
+    private int size;
+    private int mask; // Capacity - 1; capacity is a power of two
+    private int growThreshold;
+
+    // =======================
+    //   CONSTRUCTORS
+    // =======================
+    /**
+     * Constructs an empty map.
+     */
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map sized for the given number of entries.
+     *
+     * @param expectedSize The number of entries expected.
+     */
+    public LongObjectMap(int expectedSize) {
+        allocate(Hashing.tableSize(expectedSize, MAX_LOAD));
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the value mapped to a key.
+     *
+     * @param key The key.
+     * @return The value, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Returns whether a key is present.
+     *
+     * @param key The key.
+     * @return True if the key is mapped.
+     */
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     *
+     * @param key   The key.
+     * @param value The value, not null.
+     * @return The previous value, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException(ERROR_NULL_VALUE);
+        }
+        int slot = Hashing.slot(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > growThreshold) {
+            rehash(values.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping of a key.
+     *
+     * @param key The key.
+     * @return The removed value, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V removed = (V) values[slot];
+        shiftBack(slot);
+        size--;
+        return removed;
+    }
+
+    /**
+     * Passes every value to an action, in no particular order. The map must not be modified
+     * by the action.
+     *
+     * @param action The action to apply.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the keys, in no particular order.
+     *
+     * @return A new array holding every key.
+     */
+    public long[] keys() {
+        long[] snapshot = new long[size];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                snapshot[count++] = keys[i];
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the map is empty.
+     *
+     * @return True if there are no entries.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private int find(long key) {
+        int slot = Hashing.slot(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Empties a slot and moves later entries of the same probe run back into the gap, so
+     * lookups never need tombstones.
+     */
+    private void shiftBack(int gap) {
+        int slot = (gap + 1) & mask;
+        while (values[slot] != null) {
+            int home = Hashing.slot(keys[slot], mask);
+            // Move the entry if its home does not lie cyclically in (gap, slot]
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        values[gap] = null;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        growThreshold = (int) (capacity * MAX_LOAD);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = Hashing.slot(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
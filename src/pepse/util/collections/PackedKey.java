@@ -0,0 +1,47 @@
+package pepse.util.collections;
+
+/**
+ * Packs a (column, row) pair of grid coordinates into a single long key.
+ */
+public final class PackedKey {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int ROW_BITS = 32;
+    private static final long ROW_MASK = 0xFFFFFFFFL;
+
+    // Prevent instantiation
+    private PackedKey() {}
+
+    /**
+     * Packs grid coordinates into a key.
+     *
+     * @param column The column, in the high 32 bits.
+     * @param row    The row, in the low 32 bits.
+     * @return The packed key.
+     */
+    public static long of(int column, int row) {
+        return ((long) column << ROW_BITS) | (row & ROW_MASK);
+    }
+
+    /**
+     * Returns the column of a packed key.
+     *
+     * @param key The packed key.
+     * @return The column.
+     */
+    public static int column(long key) {
+        return (int) (key >> ROW_BITS);
+    }
+
+    /**
+     * Returns the row of a packed key.
+     *
+     * @param key The packed key.
+     * @return The row.
+     */
+    public static int row(long key) {
+        return (int) key;
+    }
+}
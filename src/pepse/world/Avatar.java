@@ -2,11 +2,13 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.ImageReader;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.util.Vector2;
+import pepse.assets.SpriteAtlas;
+import pepse.event.WorldEventBus;
+import pepse.event.WorldEventType;
+import pepse.input.InputSource;
 
 import java.awt.*;
 import java.awt.event.KeyEvent;
@@ -15,15 +17,12 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.function.Consumer;
 
-import static pepse.constants.TagConstants.GROUND_TAG;
-import static pepse.constants.TagConstants.TRUNK_TAG;
-
 /**
  * Represents the main avatar in the game. The avatar has animations for idle, running,
  * and jumping states. The avatar also manages energy
  * consumption and recovery.
  */
-public class Avatar extends GameObject {
+public class Avatar extends GameObject implements TypedEntity {
     // =======================
     //   CONSTANTS
     // =======================
@@ -31,8 +30,8 @@ public class Avatar extends GameObject {
     private static final float VELOCITY_X = 300; // Horizontal velocity
     private static final float JUMP_VELOCITY = -450; // Jumping velocity (negative for upward motion)
     private static final Vector2 DEFAULT_SIZE = Vector2.ONES.mult(50); // Default size for the avatar
-    private static final float ENERGY_RECOVERY = 1; // Energy recovery rate
-    private static final float ENERGY_CONSUMPTION_RUN = 0.5f; // Energy consumption for running
+    private static final float ENERGY_RECOVERY_RATE = 60; // Energy recovered per second at rest
+    private static final float ENERGY_CONSUMPTION_RUN_RATE = 30; // Energy consumed per second running
     private static final float ENERGY_CONSUMPTION_JUMP = 10; // Energy consumption for jumping
     private static final float MAX_ENERGY = 100; // Maximum energy level
     private static final float IDLE_ANIMATION_FRAME_DURATION = 0.2f;
@@ -48,6 +47,9 @@ public class Avatar extends GameObject {
             "assets/jump_0.png", "assets/jump_1.png", "assets/jump_2.png", "assets/jump_3.png"
     };
     private static final String IMAGE_PATH = "assets/idle_0.png"; // Path to the default image
+    private static final String[][] ANIMATIONS = {
+            IDLE_ANIMATION_FRAMES, RUN_ANIMATION_FRAMES, JUMP_ANIMATION_FRAMES
+    };
 
 
 
@@ -59,9 +61,15 @@ public class Avatar extends GameObject {
     private AnimationRenderable jumpAnimation; // Animation for jumping state
 
     private float energy; // Current energy level of the avatar
-    private UserInputListener inputListener; // Listener for user inputs
+    private InputSource input; // Per-tick source of user inputs
 
-    private final List<Runnable> listeners = new ArrayList<>(); // List of event listeners for the avatar
+    private final WorldEventBus eventBus; // Bus the avatar publishes jump and land events to
+    private boolean wasOnGround = true; // Whether the avatar was grounded in the previous tick
+    private int facing = 1; // Direction the avatar last moved in: -1 (left) or 1 (right)
+    private boolean wasDigHeld; // Whether dig was held in the previous tick
+    private boolean wasPlaceHeld; // Whether place was held in the previous tick
+    private TerrainCollider terrainCollider; // Resolves terrain contact, or null for the engine
+    private boolean isOnTrunk; // Whether a trunk top was landed on since the previous tick
 
 
     // =======================
@@ -69,16 +77,23 @@ public class Avatar extends GameObject {
     // =======================
 
     /**
-     * Constructs the avatar at a specific position with input and image reader dependencies.
+     * Constructs the avatar at a specific position with input and sprite atlas dependencies.
      *
      * @param topLeftCorner The initial position of the avatar in the game world.
-     * @param inputListener The listener for user inputs to control the avatar.
-     * @param imageReader   The image reader used to load animations for the avatar.
+     * @param input         The per-tick input source controlling the avatar.
+     * @param atlas         An atlas containing the paths of {@link #getStillAssetPaths()}. If it
+     *                      also contains the paths of {@link #getAssetPaths()} the avatar is
+     *                      animated at once; otherwise see {@link #initializeAnimations}.
+     * @param eventBus      The bus jump and land events are published to.
      */
-    public Avatar(Vector2 topLeftCorner, UserInputListener inputListener, ImageReader imageReader) {
-        super(topLeftCorner, DEFAULT_SIZE, imageReader.readImage(IMAGE_PATH, true));
-        this.inputListener = inputListener;
-        initializeAnimations(imageReader);
+    public Avatar(Vector2 topLeftCorner, InputSource input, SpriteAtlas atlas,
+                  WorldEventBus eventBus) {
+        super(topLeftCorner, DEFAULT_SIZE, atlas.frame(IMAGE_PATH));
+        this.input = input;
+        this.eventBus = eventBus;
+        if (containsAnimations(atlas)) {
+            initializeAnimations(atlas);
+        }
         this.energy = MAX_ENERGY; // Start with full energy
         // Apply gravity to the avatar
         this.transform().setAccelerationY(GRAVITY);
@@ -100,20 +115,46 @@ public class Avatar extends GameObject {
     public void update(float deltaTime) {
         super.update(deltaTime);
         // Common checks
-        boolean isOnGround = transform().getVelocity().y() == 0;
-        boolean left  = inputListener.isKeyPressed(KeyEvent.VK_LEFT);
-        boolean right = inputListener.isKeyPressed(KeyEvent.VK_RIGHT);
-        boolean space = inputListener.isKeyPressed(KeyEvent.VK_SPACE);
+        boolean isOnGround;
+        if (terrainCollider != null) {
+            terrainCollider.resolve(this, deltaTime);
+            isOnGround = terrainCollider.isGrounded();
+        } else {
+            isOnGround = transform().getVelocity().y() == 0;
+        }
+        isOnGround |= isOnTrunk; // Trunks are resolved outside the terrain collider
+        isOnTrunk = false;
+        if (isOnGround && !wasOnGround) {
+            publish(WorldEventType.LAND);
+        }
+        boolean left  = input.isKeyPressed(KeyEvent.VK_LEFT);
+        boolean right = input.isKeyPressed(KeyEvent.VK_RIGHT);
+        boolean space = input.isKeyPressed(KeyEvent.VK_SPACE);
+        boolean dig = input.isKeyPressed(KeyEvent.VK_DOWN);
+        boolean place = input.isKeyPressed(KeyEvent.VK_UP);
         // Determine direction: -1 (left), 0 (none), 1 (right)
         int dir = (left ^ right) ? (left ? -1 : 1) : 0;
+        if (dir != 0) {
+            facing = dir;
+        }
+        // Dig and place act once per key press, on the cell in front of the avatar's feet
+        if (dig && !wasDigHeld) {
+            publishEdit(WorldEventType.DIG);
+        }
+        if (place && !wasPlaceHeld) {
+            publishEdit(WorldEventType.PLACE);
+        }
+        wasDigHeld = dig;
+        wasPlaceHeld = place;
+        float runCost = ENERGY_CONSUMPTION_RUN_RATE * deltaTime;
         // Can we run on the ground?
-        boolean canRun = (isOnGround && energy >= ENERGY_CONSUMPTION_RUN);
+        boolean canRun = (isOnGround && energy >= runCost);
         // If we can run or we are in the air, apply horizontal velocity
         float xVel = (canRun || !isOnGround) ? dir * VELOCITY_X : 0;
         // Mark as moving only if we have a direction on ground with energy
         boolean isMoving = (dir != 0 && canRun);
         if (isMoving) {
-            energy -= ENERGY_CONSUMPTION_RUN; // Consume energy for running
+            energy -= runCost; // Consume energy for running
         }
         // Handle jump input
         if (space && isOnGround && energy >= ENERGY_CONSUMPTION_JUMP) {
@@ -121,15 +162,15 @@ public class Avatar extends GameObject {
             isOnGround=false;
             energy -= ENERGY_CONSUMPTION_JUMP; // Consume energy for jumping
 
-            // Notify listeners about the jump
-            notifyAvatarJump();
+            publish(WorldEventType.JUMP);
         }
         // Update horizontal velocity in transform
         transform().setVelocityX(xVel);
         // Recover energy if not moving and on the ground
         if (!isMoving && isOnGround && energy < MAX_ENERGY) {
-            energy = Math.min(energy + ENERGY_RECOVERY, MAX_ENERGY);
+            energy = Math.min(energy + ENERGY_RECOVERY_RATE * deltaTime, MAX_ENERGY);
         }
+        wasOnGround = isOnGround;
         updateAnimationState();
     }
 
@@ -142,7 +183,7 @@ public class Avatar extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        if(other.getTag().equals(GROUND_TAG)){
+        if (EntityTypes.typeOf(other) == EntityTypes.GROUND) {
             if (collision.getNormal().y() > 0) {
                 this.transform().setVelocityY(0);
             }
@@ -151,39 +192,63 @@ public class Avatar extends GameObject {
                 this.transform().setVelocityX(0);
             }
         }
-        if (other.getTag().equals(TRUNK_TAG)) {
-            this.transform().setVelocityX(0);
+    }
 
-        }
+    /**
+     * Filters collisions by kind before the engine reports them.
+     *
+     * @param other The other game object.
+     * @return Whether the engine should report the collision.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return EntityTypes.canCollide(EntityTypes.AVATAR, EntityTypes.typeOf(other));
+    }
+
+    /**
+     * Returns the object's kind.
+     *
+     * @return {@link EntityTypes#AVATAR}.
+     */
+    @Override
+    public int getEntityType() {
+        return EntityTypes.AVATAR;
+    }
+
+    /**
+     * Tells the avatar it was landed on top of a trunk, which counts as standing on the ground
+     * in its next update.
+     */
+    public void landOnTrunk() {
+        isOnTrunk = true;
+    }
+
+    /**
+     * Resolves the avatar's contact with the terrain analytically from now on, instead of
+     * through engine collisions with the terrain blocks.
+     *
+     * @param terrainCollider The collider to resolve terrain contact with.
+     */
+    public void setTerrainCollider(TerrainCollider terrainCollider) {
+        this.terrainCollider = terrainCollider;
     }
 
     /**
      * Initializes the avatar animations (idle, run, jump).
      *
-     * @param imageReader The image reader used to load animation frames.
+     * @param atlas The atlas containing the animation frames.
      */
-    public void initializeAnimations(ImageReader imageReader) {
-        // Load idle animation
+    public void initializeAnimations(SpriteAtlas atlas) {
         idleAnimation = new AnimationRenderable(
-                IDLE_ANIMATION_FRAMES,
-                imageReader,
-                false,
+                atlas.frames(IDLE_ANIMATION_FRAMES),
                 IDLE_ANIMATION_FRAME_DURATION
         );
-
-        // Load run animation
         runAnimation = new AnimationRenderable(
-                RUN_ANIMATION_FRAMES,
-                imageReader,
-                false,
+                atlas.frames(RUN_ANIMATION_FRAMES),
                 RUN_ANIMATION_FRAME_DURATION
         );
-
-        // Load jump animation
         jumpAnimation = new AnimationRenderable(
-                JUMP_ANIMATION_FRAMES,
-                imageReader,
-                false,
+                atlas.frames(JUMP_ANIMATION_FRAMES),
                 JUMP_ANIMATION_FRAME_DURATION
         );
 
@@ -191,6 +256,37 @@ public class Avatar extends GameObject {
         renderer().setRenderable(idleAnimation);
     }
 
+    /**
+     * Returns the asset paths of the still image the avatar shows until its animations are
+     * initialized, the least needed to construct it. The still image is drawn with its
+     * top-left pixel colour transparent.
+     *
+     * @return The still image asset paths.
+     */
+    public static String[] getStillAssetPaths() {
+        return new String[]{IMAGE_PATH};
+    }
+
+    /**
+     * Returns the asset paths of every sprite the avatar uses, so they can be packed into an
+     * atlas ahead of construction. The animation frames are drawn as they are, without
+     * top-left transparency.
+     *
+     * @return The sprite asset paths.
+     */
+    public static String[] getAssetPaths() {
+        List<String> paths = new ArrayList<>();
+        paths.add(IMAGE_PATH);
+        for (String[] animation : ANIMATIONS) {
+            for (String frame : animation) {
+                if (!paths.contains(frame)) {
+                    paths.add(frame);
+                }
+            }
+        }
+        return paths.toArray(new String[0]);
+    }
+
     /**
      * Gets the current energy of the avatar.
      *
@@ -210,35 +306,40 @@ public class Avatar extends GameObject {
     }
 
     /**
-     * Adds a listener for avatar events.
+     * Sets the avatar's energy, e.g. when resuming a saved session.
      *
-     * @param listener The listener to add.
+     * @param energy The new energy, clamped to the valid range.
      */
-    public void addAvatarEventListener(Runnable listener) {
-        listeners.add(listener);
+    public void setEnergy(float energy) {
+        this.energy = Math.max(0, Math.min(energy, MAX_ENERGY));
     }
 
-    /**
-     * Removes a listener for avatar events.
-     *
-     * @param listener The listener to remove.
-     */
-    public void removeAvatarEventListener(Runnable listener) {
-        listeners.remove(listener);
+    private void publish(WorldEventType type) {
+        Vector2 position = getTopLeftCorner();
+        eventBus.publish(type, position.x(), position.y(), energy);
     }
 
-    /**
-     * Notifies all listeners that the avatar has jumped.
-     */
-    public void notifyAvatarJump() {
-        for (Runnable listener : listeners) {
-            listener.run();
-        }
-
+    private void publishEdit(WorldEventType type) {
+        Vector2 position = getTopLeftCorner();
+        float x = facing > 0 ? position.x() + getDimensions().x() + Block.SIZE / 2f :
+                position.x() - Block.SIZE / 2f;
+        float y = position.y() + getDimensions().y() + Block.SIZE / 2f;
+        eventBus.publish(type, x, y, energy);
     }
 
+    private static boolean containsAnimations(SpriteAtlas atlas) {
+        for (String path : getAssetPaths()) {
+            if (!atlas.contains(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     private void updateAnimationState() {
+        if (idleAnimation == null) {
+            return; // Still image until the animations are loaded
+        }
         // Determine animation state
         if (transform().getVelocity().y() != 0) {
             renderer().setRenderable(jumpAnimation);
@@ -0,0 +1,110 @@
+package pepse.world;
+
+import java.awt.*;
+
+/**
+ * The kinds of land the world is made of. A biome sets the ground palette, how densely trees
+ * grow and in which shapes, how likely leaves are to carry fruit and how often jumping brings
+ * rain. Biomes are laid out by a {@link BiomeMap}.
+ */
+public enum Biome {
+    /** Open land with every tree slot filled. */
+    PLAINS(new Color(212, 123, 74), 1f, new float[]{1f / 3, 1f / 3, 1f / 3}, 0.2f, 1f),
+    /** Dark soil, dense mostly triangular trees and plenty of fruit. */
+    FOREST(new Color(150, 95, 60), 1f, new float[]{0.15f, 0.6f, 0.25f}, 0.3f, 1f),
+    /** Pale sand, a few square trees, hardly any fruit and rare rain. */
+    DESERT(new Color(228, 196, 128), 0.15f, new float[]{0.1f, 0.1f, 0.8f}, 0.05f, 0.1f),
+    /** Frozen ground with sparse triangular trees. */
+    TUNDRA(new Color(205, 212, 222), 0.35f, new float[]{0.1f, 0.8f, 0.1f}, 0.05f, 0.5f);
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L; // Fibonacci hashing multiplier
+    private static final float UNIT_SCALE = 1f / (1 << 24); // Maps 24 bits to [0, 1)
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final Color groundColor;
+    private final float treeDensity; // Fraction of tree slots holding a tree
+    private final float[] shapeWeights; // Chance of a diamond, triangle and square crown
+    private final float fruitProbability; // Chance of a leaf carrying fruit
+    private final float rainChance; // Chance of a jump bringing rain
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    Biome(Color groundColor, float treeDensity, float[] shapeWeights, float fruitProbability,
+          float rainChance) {
+        this.groundColor = groundColor;
+        this.treeDensity = treeDensity;
+        this.shapeWeights = shapeWeights;
+        this.fruitProbability = fruitProbability;
+        this.rainChance = rainChance;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the base color the ground blocks are varied around.
+     *
+     * @return The ground color.
+     */
+    public Color getGroundColor() {
+        return groundColor;
+    }
+
+    /**
+     * Returns whether the tree slot at an x-coordinate holds a tree. The answer depends only on
+     * the position, the seed and the biome.
+     *
+     * @param x    The x-coordinate of the tree slot.
+     * @param seed The world seed.
+     * @return True if a tree grows in the slot.
+     */
+    public boolean hasTreeAt(int x, int seed) {
+        if (treeDensity >= 1f) {
+            return true;
+        }
+        long hash = ((long) x * GOLDEN_RATIO) ^ ((long) seed * GOLDEN_RATIO >>> 17);
+        hash *= GOLDEN_RATIO;
+        return (hash >>> 40) * UNIT_SCALE < treeDensity;
+    }
+
+    /**
+     * Picks a crown shape from a uniformly distributed value.
+     *
+     * @param value A value in [0, 1).
+     * @return The shape index: 0 for diamond, 1 for triangle, 2 for square.
+     */
+    public int pickShape(float value) {
+        float cumulative = 0;
+        for (int i = 0; i < shapeWeights.length - 1; i++) {
+            cumulative += shapeWeights[i];
+            if (value < cumulative) {
+                return i;
+            }
+        }
+        return shapeWeights.length - 1;
+    }
+
+    /**
+     * Returns the chance of a leaf carrying fruit.
+     *
+     * @return The fruit probability.
+     */
+    public float getFruitProbability() {
+        return fruitProbability;
+    }
+
+    /**
+     * Returns the chance of a jump bringing rain.
+     *
+     * @return The rain chance.
+     */
+    public float getRainChance() {
+        return rainChance;
+    }
+}
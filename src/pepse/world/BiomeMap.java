@@ -0,0 +1,94 @@
+package pepse.world;
+
+import pepse.util.NoiseGenerator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lays biomes out over the world from two low-frequency noise channels, temperature and
+ * moisture. The biome is resolved once per chunk and cached, so looking it up for a column costs
+ * no noise evaluation. The cache is direct-mapped and lock-free, so generator threads can share it.
+ */
+public class BiomeMap {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int SEED_OFFSET = 7919; // Decorrelates biomes from the terrain noise
+    private static final double CHANNEL_SCALE = 6; // Size of the largest biome regions (in chunks)
+    private static final int CHANNEL_OCTAVES = 2;
+    private static final double TEMPERATURE_ROW = 0.5; // Noise rows sampled for each channel
+    private static final double MOISTURE_ROW = 100.5;
+    private static final double COLD = -0.15; // Temperature below which land is tundra
+    private static final double HOT = 0.15; // Temperature above which dry land is desert
+    private static final double WET = 0.1; // Moisture above which land is forest
+    private static final int CACHE_SIZE = 1024; // Chunks cached; a power of two
+    private static final int ORDINAL_BITS = 8;
+    private static final long ORDINAL_MASK = (1L << ORDINAL_BITS) - 1;
+    private static final Biome[] BIOMES = Biome.values();
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final NoiseGenerator noiseGenerator;
+    private final AtomicLongArray cache = new AtomicLongArray(CACHE_SIZE); // Chunk << 8 | ordinal + 1
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a biome map.
+     *
+     * @param seed The world seed.
+     */
+    public BiomeMap(int seed) {
+        this.noiseGenerator = new NoiseGenerator(seed + SEED_OFFSET, 0);
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the biome at an x-coordinate.
+     *
+     * @param x The x-coordinate.
+     * @return The biome of the chunk containing x.
+     */
+    public Biome biomeAt(float x) {
+        return biomeOfChunk(WorldGenerator.chunkIndexOf(x));
+    }
+
+    /**
+     * Returns the biome of a chunk, resolving it from the noise channels on a cache miss.
+     *
+     * @param chunkIndex The chunk index.
+     * @return The chunk's biome.
+     */
+    public Biome biomeOfChunk(int chunkIndex) {
+        int slot = chunkIndex & (CACHE_SIZE - 1);
+        long entry = cache.get(slot);
+        if (entry != 0 && entry >> ORDINAL_BITS == chunkIndex) {
+            return BIOMES[(int) (entry & ORDINAL_MASK) - 1];
+        }
+        Biome biome = resolve(chunkIndex);
+        cache.set(slot, (long) chunkIndex << ORDINAL_BITS | (biome.ordinal() + 1));
+        return biome;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private Biome resolve(int chunkIndex) {
+        double temperature = noiseGenerator.noise2D(chunkIndex, TEMPERATURE_ROW, CHANNEL_SCALE,
+                CHANNEL_OCTAVES);
+        double moisture = noiseGenerator.noise2D(chunkIndex, MOISTURE_ROW, CHANNEL_SCALE,
+                CHANNEL_OCTAVES);
+        if (temperature < COLD) {
+            return Biome.TUNDRA;
+        }
+        if (temperature > HOT && moisture < 0) {
+            return Biome.DESERT;
+        }
+        return moisture > WET ? Biome.FOREST : Biome.PLAINS;
+    }
+}
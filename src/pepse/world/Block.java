@@ -9,7 +9,7 @@ import danogl.util.Vector2;
  * Represents a single block in the game world.
  * Blocks are static objects with a fixed size and immovable physics.
  */
-public class Block extends GameObject {
+public class Block extends GameObject implements TypedEntity {
 
     // =======================
     //   CONSTANTS
@@ -19,6 +19,11 @@ public class Block extends GameObject {
      */
     public static final int SIZE = 30;
 
+    // =======================
+    //   FIELDS
+    // =======================
+    private int entityType = EntityTypes.GROUND; // Terrain unless set otherwise
+
     // =======================
     //   CONSTRUCTOR
     // =======================
@@ -38,4 +43,37 @@ public class Block extends GameObject {
         // Set the block's mass to immovable
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
     }
-}
\ No newline at end of file
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the block's kind.
+     *
+     * @return One of the ids in {@link EntityTypes}, {@link EntityTypes#GROUND} by default.
+     */
+    @Override
+    public int getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Sets the block's kind, e.g. for blocks that are not terrain.
+     *
+     * @param entityType One of the ids in {@link EntityTypes}.
+     */
+    public void setEntityType(int entityType) {
+        this.entityType = entityType;
+    }
+
+    /**
+     * Filters collisions by kind before the engine reports them.
+     *
+     * @param other The other game object.
+     * @return Whether the engine should report the collision.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return EntityTypes.canCollide(entityType, EntityTypes.typeOf(other));
+    }
+}
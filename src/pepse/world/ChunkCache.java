@@ -0,0 +1,188 @@
+package pepse.world;
+
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps recently unloaded chunks of the world, such as the blocks of a terrain column or a
+ * tree, so walking back over them re-adds their objects instead of generating them again.
+ * Chunks are evicted least recently used first once their estimated size passes a byte budget;
+ * the budget is soft, since sizes are estimated from object counts rather than measured.
+ *
+ * @param <V> The type of the cached chunks.
+ */
+public class ChunkCache<V> {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    /**
+     * Estimated retained size of a cached game object with its renderable and components,
+     * in bytes.
+     */
+    public static final long BYTES_PER_OBJECT = 768;
+    private static final String REPORT_FORMAT =
+            "%s cache: entries=%d bytes=%d/%d hits=%d misses=%d (%.1f%% hit) evictions=%d%n";
+    private static final float PERCENT = 100f;
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final String name; // Used in the report
+    private final long budgetBytes;
+    private final Map<Long, Entry<V>> entries =
+            new LinkedHashMap<>(16, 0.75f, true); // Least recently used first
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs an empty cache.
+     *
+     * @param name        The name the cache is reported under.
+     * @param budgetBytes The estimated size the cached chunks may take up; zero keeps nothing.
+     */
+    public ChunkCache(String name, long budgetBytes) {
+        this.name = name;
+        this.budgetBytes = budgetBytes;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Caches a chunk, replacing any chunk under the same key, and evicts the least recently
+     * used chunks until the cache is within its budget.
+     *
+     * @param key         The chunk's key, e.g. its column index.
+     * @param value       The chunk.
+     * @param objectCount The number of game objects in the chunk, from which its size is
+     *                    estimated.
+     */
+    public void put(long key, V value, int objectCount) {
+        Entry<V> previous = entries.put(key, new Entry<>(value, objectCount * BYTES_PER_OBJECT));
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        bytes += objectCount * BYTES_PER_OBJECT;
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (bytes > budgetBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes a chunk from the cache to bring it back into the world.
+     *
+     * @param key The chunk's key.
+     * @return The chunk, or null if it is not cached and must be generated.
+     */
+    public V take(long key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        bytes -= entry.bytes;
+        return entry.value;
+    }
+
+    /**
+     * Drops a chunk that no longer matches the world, e.g. a terrain column that was edited.
+     *
+     * @param key The chunk's key.
+     */
+    public void invalidate(long key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            bytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Returns the number of cached chunks.
+     *
+     * @return The entry count.
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the estimated size of the cached chunks.
+     *
+     * @return The size in bytes.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of chunks taken from the cache so far.
+     *
+     * @return The hit count.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of chunks looked up but not cached so far.
+     *
+     * @return The miss count.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the fraction of lookups that found their chunk cached.
+     *
+     * @return The hit rate, between 0 and 1; 0 before any lookup.
+     */
+    public float getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (float) hits / lookups;
+    }
+
+    /**
+     * Returns the number of chunks evicted to stay within the budget so far.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Prints the cache's size, hit rate and evictions.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        out.printf(REPORT_FORMAT, name, entries.size(), bytes, budgetBytes, hits, misses,
+                PERCENT * getHitRate(), evictions);
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    private static class Entry<V> {
+        private final V value;
+        private final long bytes; // Estimated size
+
+        Entry(V value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
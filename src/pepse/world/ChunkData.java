@@ -0,0 +1,131 @@
+package pepse.world;
+
+import pepse.world.trees.TreeDescriptor;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The generated content of a chunk of the world: the ground height and bit-packed solid cells
+ * of each column, and the descriptors of the trees standing in it. Chunk data holds no GameObjects, so it
+ * can be produced off the game thread and turned into objects later.
+ */
+public final class ChunkData {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final int index; // Chunk index; the chunk starts at index * WorldGenerator.CHUNK_WIDTH
+    private final float[] groundHeights; // Ground height of each column
+    private final long[] cells; // Solid cells of each column, bit i being i rows below the surface
+    private final List<TreeDescriptor> trees; // Trees standing in the chunk, left to right
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs chunk data.
+     *
+     * @param index         The chunk index.
+     * @param groundHeights The ground height of each column.
+     * @param cells         The solid cells of each column, as generated by
+     *                      {@link Terrain#columnCells(int)}.
+     * @param trees         The trees standing in the chunk.
+     */
+    public ChunkData(int index, float[] groundHeights, long[] cells, List<TreeDescriptor> trees) {
+        this.index = index;
+        this.groundHeights = groundHeights;
+        this.cells = cells;
+        this.trees = trees;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the chunk index.
+     *
+     * @return The index of the chunk.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the number of columns in the chunk.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return groundHeights.length;
+    }
+
+    /**
+     * Returns the x-coordinate of a column.
+     *
+     * @param column The column index within the chunk.
+     * @return The x-coordinate of the column's left edge.
+     */
+    public int getColumnX(int column) {
+        return (index * groundHeights.length + column) * Block.SIZE;
+    }
+
+    /**
+     * Returns the ground height of a column.
+     *
+     * @param column The column index within the chunk.
+     * @return The ground height.
+     */
+    public float getGroundHeight(int column) {
+        return groundHeights[column];
+    }
+
+    /**
+     * Returns the row of the top cell of a column, in units of {@link Block#SIZE}.
+     *
+     * @param column The column index within the chunk.
+     * @return The surface row.
+     */
+    public int getSurfaceRow(int column) {
+        return Math.round(groundHeights[column] / Block.SIZE);
+    }
+
+    /**
+     * Returns the solid cells of a column.
+     *
+     * @param column The column index within the chunk.
+     * @return The cells, bit i set if the cell i rows below the surface is solid.
+     */
+    public long getCells(int column) {
+        return cells[column];
+    }
+
+    /**
+     * Returns the trees standing in the chunk.
+     *
+     * @return The tree descriptors, left to right.
+     */
+    public List<TreeDescriptor> getTrees() {
+        return trees;
+    }
+
+    /**
+     * Checks whether two chunks have identical content.
+     *
+     * @param other The chunk to compare with.
+     * @return True if heights, cells and trees are all identical.
+     */
+    public boolean contentEquals(ChunkData other) {
+        if (index != other.index || trees.size() != other.trees.size() ||
+                !Arrays.equals(groundHeights, other.groundHeights) ||
+                !Arrays.equals(cells, other.cells)) {
+            return false;
+        }
+        for (int i = 0; i < trees.size(); i++) {
+            if (!trees.get(i).contentEquals(other.trees.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
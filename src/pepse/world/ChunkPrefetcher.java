@@ -0,0 +1,145 @@
+package pepse.world;
+
+/**
+ * Decides how far past each edge of the view the world is streamed. The edge the avatar is
+ * travelling towards gets a look-ahead that grows with speed and with the time the streaming
+ * queue needs to catch up, measured from the observed cost of generating a column and the
+ * observed frame rate, since the queue is drained once per frame. The trailing edge shrinks
+ * while the direction of travel is steady.
+ */
+public class ChunkPrefetcher {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final float DIRECTION_SMOOTHING = 4f; // Rate at which the smoothed velocity follows
+    private static final float COST_SMOOTHING = 0.1f; // Weight of a new sample in the column cost average
+    private static final float REACTION_SECONDS = 0.5f; // Travel time always covered by the look-ahead
+    private static final float FRAME_SMOOTHING = 0.1f; // Weight of a new sample in the frame time average
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final float basePadding; // Padding on both sides while standing still
+    private final float minTrailingPadding; // Smallest padding kept behind the avatar
+    private final float maxLookAhead; // Largest padding ever requested ahead of the avatar
+    private final float fullSpeed; // Speed at which the trailing padding is fully shrunk
+    private final long budgetNanos; // Streaming work done per frame
+    private float frameSeconds; // Moving average of the time between frames
+    private float smoothedVelocity; // Recent horizontal velocity, smoothed against jitter
+    private float columnCostNanos; // Moving average of the time to load one column
+    private int backlog; // Streaming jobs waiting, as last reported
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a prefetcher.
+     *
+     * @param basePadding        The padding on both sides of the view while standing still.
+     * @param minTrailingPadding The smallest padding kept behind the avatar.
+     * @param maxLookAhead       The largest padding requested ahead of the avatar.
+     * @param fullSpeed          The horizontal speed at which the trailing padding is fully shrunk.
+     * @param budgetNanos        The streaming time budget per frame (in nanoseconds).
+     * @param framesPerSecond    The expected number of frames per second the queue is drained
+     *                           at, used until frame times are fed to {@link #recordFrame}.
+     */
+    public ChunkPrefetcher(float basePadding, float minTrailingPadding, float maxLookAhead,
+                           float fullSpeed, long budgetNanos, float framesPerSecond) {
+        this.basePadding = basePadding;
+        this.minTrailingPadding = Math.min(minTrailingPadding, basePadding);
+        this.maxLookAhead = Math.max(maxLookAhead, basePadding);
+        this.fullSpeed = fullSpeed;
+        this.budgetNanos = budgetNanos;
+        this.frameSeconds = framesPerSecond > 0 ? 1f / framesPerSecond : 0;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Feeds the avatar's current horizontal velocity.
+     *
+     * @param velocityX The horizontal velocity (in pixels per second).
+     * @param deltaTime The time since the last update (in seconds).
+     */
+    public void update(float velocityX, float deltaTime) {
+        float weight = Math.min(1f, DIRECTION_SMOOTHING * deltaTime);
+        smoothedVelocity += (velocityX - smoothedVelocity) * weight;
+    }
+
+    /**
+     * Feeds the measured time of a frame, in which the streaming queue is drained once.
+     *
+     * @param deltaTime The time since the last frame (in seconds).
+     */
+    public void recordFrame(float deltaTime) {
+        if (deltaTime > 0) {
+            frameSeconds = frameSeconds == 0 ? deltaTime :
+                    frameSeconds + (deltaTime - frameSeconds) * FRAME_SMOOTHING;
+        }
+    }
+
+    /**
+     * Feeds the measured time of loading one terrain column.
+     *
+     * @param nanos The load time (in nanoseconds).
+     */
+    public void recordColumnCost(long nanos) {
+        columnCostNanos = columnCostNanos == 0 ? nanos :
+                columnCostNanos + (nanos - columnCostNanos) * COST_SMOOTHING;
+    }
+
+    /**
+     * Feeds the number of streaming jobs still waiting.
+     *
+     * @param queueDepth The streaming queue depth.
+     */
+    public void setBacklog(int queueDepth) {
+        this.backlog = queueDepth;
+    }
+
+    /**
+     * Returns the padding to stream left of the view.
+     *
+     * @return The left padding (in pixels).
+     */
+    public float getLeftPadding() {
+        return smoothedVelocity < 0 ? getLeadingPadding() : getTrailingPadding();
+    }
+
+    /**
+     * Returns the padding to stream right of the view.
+     *
+     * @return The right padding (in pixels).
+     */
+    public float getRightPadding() {
+        return smoothedVelocity > 0 ? getLeadingPadding() : getTrailingPadding();
+    }
+
+    /**
+     * Returns whether the avatar is recently travelling left.
+     *
+     * @return True if the smoothed velocity points left.
+     */
+    public boolean isMovingLeft() {
+        return smoothedVelocity < 0;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private float getLeadingPadding() {
+        // Time for the queue to work through its backlog at the measured column cost
+        float streamingNanosPerSecond = frameSeconds == 0 ? 0 : budgetNanos / frameSeconds;
+        float backlogSeconds = streamingNanosPerSecond == 0 ? 0 :
+                backlog * columnCostNanos / streamingNanosPerSecond;
+        float lookAhead = basePadding + Math.abs(smoothedVelocity) * (REACTION_SECONDS + backlogSeconds);
+        return Math.min(lookAhead, maxLookAhead);
+    }
+
+    private float getTrailingPadding() {
+        float steadiness = fullSpeed <= 0 ? 0 : Math.min(1f, Math.abs(smoothedVelocity) / fullSpeed);
+        return basePadding + (minTrailingPadding - basePadding) * steadiness;
+    }
+}
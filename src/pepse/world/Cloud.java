@@ -1,13 +1,13 @@
 package pepse.world;
 
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
 import danogl.components.CoordinateSpace;
 import danogl.components.Transition;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.profiling.RainBurstEvent;
 
 import java.awt.*;
 import java.util.ArrayList;
@@ -50,8 +50,8 @@ public class Cloud  extends GameObject {
     private final Vector2 windowDimensions; // Dimensions of the game window
     private final Renderable renderer; // Renderable for the cloud's appearance
     private final List<List<Block>> cloudBlocks; // Blocks representing the cloud
-    private final GameObjectCollection gameObjects; // Collection of all game objects
-    private final List<GameObject> raindrops = new ArrayList<>(); // List of raindrop GameObjects
+    private final GameObjectSink gameObjects; // Receives the cloud blocks and raindrops
+    private final List<GameObject> raindrops = new ArrayList<>(); // Raindrops that have not faded yet
     private Vector2 cloudDimensions; // Dimensions of the cloud
 
     private Runnable onRemoveCallback; // handle removal from avatars listeners list
@@ -68,11 +68,11 @@ public class Cloud  extends GameObject {
      * @param topLeftCorner   The top-left corner of the cloud's position.
      * @param dimensions      The dimensions of the cloud.
      * @param renderable      The renderable defining the appearance of the cloud.
-     * @param objectsCollection The collection of all game objects.
+     * @param objectsCollection The sink the cloud blocks and raindrops are added to.
      * @param windowDimensions The dimensions of the game window.
      */
     public Cloud(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                 GameObjectCollection objectsCollection, Vector2 windowDimensions) {
+                 GameObjectSink objectsCollection, Vector2 windowDimensions) {
         super(topLeftCorner, Vector2.ZERO, null);
         this.topLeftCorner = topLeftCorner;
         this.windowDimensions = windowDimensions;
@@ -84,7 +84,8 @@ public class Cloud  extends GameObject {
         //set cloud position change
         new Transition<>(
                 this,
-                (Float delta) -> this.setTopLeftCorner(topLeftCorner.add(new Vector2(delta,0))),
+                (Float delta) -> this.setTopLeftCorner(
+                        new Vector2(topLeftCorner.x() + delta, topLeftCorner.y())),
                 0f,
                 windowDimensions.x(),
                 Transition.LINEAR_INTERPOLATOR_FLOAT,
@@ -129,12 +130,14 @@ public class Cloud  extends GameObject {
                             this.renderer
                     );
                     cloudBlock.setTag(CLOUD_BLOCK_TAG);
+                    cloudBlock.setEntityType(EntityTypes.CLOUD_BLOCK);
                     blocks.add(cloudBlock); // Add block to the current row
                     gameObjects.addGameObject(cloudBlock, Layer.BACKGROUND);
                     //set cloud block position change
                     new Transition<>(
                             cloudBlock,
-                            (Float delta) -> cloudBlock.setTopLeftCorner(position.add(new Vector2(delta,0))),
+                            (Float delta) -> cloudBlock.setTopLeftCorner(
+                                    new Vector2(position.x() + delta, position.y())),
                             0f,
                             windowDimensions.x(),
                             Transition.LINEAR_INTERPOLATOR_FLOAT,
@@ -157,6 +160,8 @@ public class Cloud  extends GameObject {
      * The raindrops have randomized positions and fade away as they fall.
      */
     public void createRain() {
+        RainBurstEvent event = new RainBurstEvent();
+        event.begin();
         float[] dropsBoundaries = this.getDropsBoundaries();
         float minX = dropsBoundaries[FIRST_POSITION_IN_ARRAY];
         float maxX = dropsBoundaries[SECOND_POSITION_IN_ARRAY];
@@ -187,14 +192,28 @@ public class Cloud  extends GameObject {
                     DROP_FALLING_TIME,
                     Transition.TransitionType.TRANSITION_ONCE,
                     () -> {
-                        gameObjects.removeGameObject(raindrop);
+                        gameObjects.removeGameObject(raindrop, Layer.DEFAULT);
+                        raindrops.remove(raindrop);
                     }
             );
             gameObjects.addGameObject(raindrop, Layer.DEFAULT);
             raindrop.transform().setVelocityX(DROPS_VELOCITY);
-            raindrops.add(raindrop); // Save the raindrop
+            raindrops.add(raindrop); // Released again once it fades
             raindrop.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         }
+        if (event.shouldCommit()) {
+            event.dropCount = numberOfDrops;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the number of raindrops that have not faded yet.
+     *
+     * @return The live raindrop count.
+     */
+    public int getRaindropCount() {
+        return raindrops.size();
     }
 
     /**
@@ -0,0 +1,32 @@
+package pepse.world;
+
+/**
+ * Terrain columns whose cells are known ahead of time, such as those of a saved session or of a
+ * region generated in advance, so their blocks can be built without evaluating terrain noise.
+ */
+public interface ColumnSource {
+
+    /**
+     * Checks whether the source holds a column.
+     *
+     * @param column The column index (x divided by {@link Block#SIZE}).
+     * @return True if the column's surface row and cells are known.
+     */
+    boolean hasColumn(int column);
+
+    /**
+     * Returns the surface row of a column.
+     *
+     * @param column The column index, see {@link #hasColumn(int)}.
+     * @return The surface row.
+     */
+    int getSurfaceRow(int column);
+
+    /**
+     * Returns the solid cells of a column.
+     *
+     * @param column The column index, see {@link #hasColumn(int)}.
+     * @return The cells, bit i set if the cell i rows below the surface is solid.
+     */
+    long getCells(int column);
+}
@@ -0,0 +1,179 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Camera;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps only the world objects near the camera in the engine's collection. Objects that leave
+ * the camera bounds plus a margin are taken out of the collection, which suspends their update,
+ * their components and their rendering; they are put back once they come into range again.
+ * Suspension uses a wider margin than resumption, so objects at the edge do not flip back and
+ * forth every tick.
+ */
+public class CullingManager implements GameObjectSink {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final float DEFAULT_MARGIN = 2 * Block.SIZE; // Resume within this of the view
+    private static final float DEFAULT_HYSTERESIS = 3 * Block.SIZE; // Extra distance to suspend
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final GameObjectSink target; // Where active objects live
+    private final float margin;
+    private final float hysteresis;
+    private final Map<GameObject, Entry> entries = new IdentityHashMap<>();
+    private final List<Entry> entryList = new ArrayList<>(); // Same entries, for fast scanning
+    private int activeCount;
+
+    // =======================
+    //   CONSTRUCTORS
+    // =======================
+    /**
+     * Constructs a culling manager with the default margins.
+     *
+     * @param target The sink active objects are added to.
+     */
+    public CullingManager(GameObjectSink target) {
+        this(target, DEFAULT_MARGIN, DEFAULT_HYSTERESIS);
+    }
+
+    /**
+     * Constructs a culling manager.
+     *
+     * @param target     The sink active objects are added to.
+     * @param margin     Distance beyond the camera bounds within which objects are active.
+     * @param hysteresis Additional distance an active object must move out before it is suspended.
+     */
+    public CullingManager(GameObjectSink target, float margin, float hysteresis) {
+        this.target = target;
+        this.margin = margin;
+        this.hysteresis = hysteresis;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Starts managing an object. It is active until the next {@link #update} decides otherwise.
+     *
+     * @param gameObject The object to add.
+     * @param layerId    The layer to add it to.
+     */
+    @Override
+    public void addGameObject(GameObject gameObject, int layerId) {
+        if (entries.containsKey(gameObject)) {
+            return;
+        }
+        Entry entry = new Entry(gameObject, layerId, entryList.size());
+        entries.put(gameObject, entry);
+        entryList.add(entry);
+        target.addGameObject(gameObject, layerId);
+        activeCount++;
+    }
+
+    /**
+     * Stops managing an object and removes it from the world if it is active.
+     *
+     * @param gameObject The object to remove.
+     * @param layerId    The layer it was added to.
+     */
+    @Override
+    public void removeGameObject(GameObject gameObject, int layerId) {
+        Entry entry = entries.remove(gameObject);
+        if (entry == null) {
+            return;
+        }
+        if (entry.active) {
+            target.removeGameObject(gameObject, entry.layerId);
+            activeCount--;
+        }
+        // Swap-remove from the scan list
+        Entry last = entryList.remove(entryList.size() - 1);
+        if (last != entry) {
+            last.index = entry.index;
+            entryList.set(entry.index, last);
+        }
+    }
+
+    /**
+     * Suspends managed objects that moved out of range of the camera and resumes those that
+     * came back into range.
+     *
+     * @param camera The camera whose view defines the active area.
+     */
+    public void update(Camera camera) {
+        Vector2 viewTopLeft = camera.getTopLeftCorner();
+        Vector2 viewSize = camera.getDimensions();
+        float viewMinX = viewTopLeft.x();
+        float viewMinY = viewTopLeft.y();
+        float viewMaxX = viewMinX + viewSize.x();
+        float viewMaxY = viewMinY + viewSize.y();
+        float suspendMargin = margin + hysteresis;
+
+        for (int i = 0; i < entryList.size(); i++) {
+            Entry entry = entryList.get(i);
+            Vector2 topLeft = entry.gameObject.getTopLeftCorner();
+            Vector2 size = entry.gameObject.getDimensions();
+            float minX = topLeft.x();
+            float minY = topLeft.y();
+            float maxX = minX + size.x();
+            float maxY = minY + size.y();
+            if (entry.active) {
+                if (maxX < viewMinX - suspendMargin || minX > viewMaxX + suspendMargin ||
+                        maxY < viewMinY - suspendMargin || minY > viewMaxY + suspendMargin) {
+                    target.removeGameObject(entry.gameObject, entry.layerId);
+                    entry.active = false;
+                    activeCount--;
+                }
+            } else if (maxX >= viewMinX - margin && minX <= viewMaxX + margin &&
+                    maxY >= viewMinY - margin && minY <= viewMaxY + margin) {
+                target.addGameObject(entry.gameObject, entry.layerId);
+                entry.active = true;
+                activeCount++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of managed objects currently in the world.
+     *
+     * @return The active object count.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Returns the number of managed objects currently suspended.
+     *
+     * @return The suspended object count.
+     */
+    public int getSuspendedCount() {
+        return entryList.size() - activeCount;
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    private static class Entry {
+        private final GameObject gameObject;
+        private final int layerId;
+        private int index; // Position in the scan list
+        private boolean active = true;
+
+        Entry(GameObject gameObject, int layerId, int index) {
+            this.gameObject = gameObject;
+            this.layerId = layerId;
+            this.index = index;
+        }
+    }
+}
@@ -6,7 +6,7 @@ import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
 
 import java.awt.*;
-import java.util.function.Supplier;
+import java.util.function.DoubleSupplier;
 
 /**
  * Represents an energy meter in the game. Displays a visual bar to indicate the current energy level,
@@ -29,14 +29,18 @@ public class EnergyMeter extends GameObject {
     private static final float YELLOW_THRESHOLD = 0.7f; // Threshold for yellow transition
     private static final float RED_THRESHOLD = 0.3f; // Threshold for red transition
     private static final int MAX_RGB_VALUE = 255; // Maximum intensity for RGB color components
+    private static final int COLOR_COUNT = 2 * (MAX_RGB_VALUE + 1); // Either red or green is maxed
 
     // =======================
     //   FIELDS
     // =======================
-    private final Supplier<Float> energySupplier; // Supplies the current energy level
+    private final DoubleSupplier energySupplier; // Supplies the current energy level
     private final float maxEnergy; // Maximum energy level
     private final GameObject energyTextObject; // GameObject for the energy text
     private final TextRenderable textRenderable; // Renderable for the numeric energy text
+    private final RectangleRenderable[] barRenderables = new RectangleRenderable[COLOR_COUNT]; // Lazily made
+    private float shownEnergy = Float.NaN; // Energy the bar and text currently show
+    private int shownText = -1; // Whole energy the text currently shows
 
     // =======================
     //   CONSTRUCTOR
@@ -48,7 +52,7 @@ public class EnergyMeter extends GameObject {
      * @param energySupplier A supplier providing the current energy level.
      * @param maxEnergy      The maximum energy level.
      */
-    public EnergyMeter(Vector2 topLeftCorner, Supplier<Float> energySupplier, float maxEnergy) {
+    public EnergyMeter(Vector2 topLeftCorner, DoubleSupplier energySupplier, float maxEnergy) {
         super(topLeftCorner, new Vector2(MAX_WIDTH, HEIGHT), new RectangleRenderable(ENERGY_COLOR));
         this.energySupplier = energySupplier;
         this.maxEnergy = maxEnergy;
@@ -70,16 +74,22 @@ public class EnergyMeter extends GameObject {
     //   PUBLIC METHODS
     // =======================
     /**
-     * Updates the energy meter, adjusting its dimensions, color, and text based on the current energy level.
+     * Updates the energy meter, adjusting its dimensions, color, and text based on the current
+     * energy level. Nothing is updated, or allocated, while the energy stays the same.
      *
      * @param deltaTime Time elapsed since the last frame (in seconds).
      */
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
+        float energy = (float) energySupplier.getAsDouble();
+        if (energy == shownEnergy) {
+            return;
+        }
+        shownEnergy = energy;
 
         // Update the energy bar width and position
-        float currentEnergy = updateEnergyMeter();
+        float currentEnergy = updateEnergyMeter(energy);
 
         // Update the energy bar color based on the current energy level
         updateBarColor(currentEnergy);
@@ -101,21 +111,26 @@ public class EnergyMeter extends GameObject {
      * Updates the width and position of the energy meter based on the current energy level.
      * Also updates the numeric energy text.
      *
+     * @param currentEnergy The current energy level.
      * @return The current energy level.
      */
-    private float updateEnergyMeter() {
-        // Get the current energy from the supplier
-        float currentEnergy = energySupplier.get();
+    private float updateEnergyMeter(float currentEnergy) {
 
         // Calculate the width of the energy bar based on the current energy
         float width = (currentEnergy / maxEnergy) * MAX_WIDTH;
         setDimensions(new Vector2(width, HEIGHT));
 
         // Update the position of the text relative to the energy bar
-        energyTextObject.setTopLeftCorner(getTopLeftCorner().add(new Vector2(width + TEXT_OFFSET, 0)));
-
-        // Update the text with the current energy (rounded down)
-        this.textRenderable.setString(String.valueOf((int) Math.floor(currentEnergy)));
+        Vector2 topLeftCorner = getTopLeftCorner();
+        energyTextObject.setTopLeftCorner(
+                new Vector2(topLeftCorner.x() + width + TEXT_OFFSET, topLeftCorner.y()));
+
+        // Update the text with the current energy (rounded down), only when it changes
+        int text = (int) Math.floor(currentEnergy);
+        if (text != shownText) {
+            shownText = text;
+            this.textRenderable.setString(String.valueOf(text));
+        }
         return currentEnergy;
     }
 
@@ -144,7 +159,14 @@ public class EnergyMeter extends GameObject {
             green = 0;
         }
 
-        // Update the bar's color
-        renderer().setRenderable(new RectangleRenderable(new Color(red, green, 0)));
+        // Update the bar's color; one of the two channels is always maxed, so the other one
+        // identifies the color
+        red = Math.max(0, Math.min(red, MAX_RGB_VALUE));
+        green = Math.max(0, Math.min(green, MAX_RGB_VALUE));
+        int colorIndex = red == MAX_RGB_VALUE ? green : MAX_RGB_VALUE + 1 + red;
+        if (barRenderables[colorIndex] == null) {
+            barRenderables[colorIndex] = new RectangleRenderable(new Color(red, green, 0));
+        }
+        renderer().setRenderable(barRenderables[colorIndex]);
     }
 }
\ No newline at end of file
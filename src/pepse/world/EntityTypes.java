@@ -0,0 +1,74 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+/**
+ * Registry of the kinds of world objects. Each kind has an integer id and a collision mask of
+ * the kinds it interacts with, so collision code filters pairs and dispatches with integer
+ * checks instead of comparing tags. Objects declare their kind by implementing
+ * {@link TypedEntity}; any other object is {@link #NONE} and collides with nothing.
+ */
+public final class EntityTypes {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    /** Objects that do not declare a kind. */
+    public static final int NONE = 0;
+    /** The player's avatar. */
+    public static final int AVATAR = 1;
+    /** Terrain blocks. */
+    public static final int GROUND = 2;
+    /** Tree trunks. */
+    public static final int TRUNK = 3;
+    /** Tree leaves. */
+    public static final int LEAF = 4;
+    /** Fruit hanging in the trees. */
+    public static final int FRUIT = 5;
+    /** Blocks making up a cloud. */
+    public static final int CLOUD_BLOCK = 6;
+
+    private static final int TYPE_COUNT = 7;
+    private static final int[] COLLISION_MASKS = new int[TYPE_COUNT]; // Kinds each kind hits
+
+    static {
+        // Trunks and fruit are resolved by the InteractionGrid, not the engine
+        allowCollision(AVATAR, GROUND);
+    }
+
+    // Prevent instantiation
+    private EntityTypes() {}
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the kind of an object.
+     *
+     * @param gameObject The object.
+     * @return Its kind, or {@link #NONE} if it does not declare one.
+     */
+    public static int typeOf(GameObject gameObject) {
+        return gameObject instanceof TypedEntity ?
+                ((TypedEntity) gameObject).getEntityType() : NONE;
+    }
+
+    /**
+     * Returns whether two kinds collide.
+     *
+     * @param type  One kind.
+     * @param other The other kind.
+     * @return True if collisions between the two are reported.
+     */
+    public static boolean canCollide(int type, int other) {
+        return (COLLISION_MASKS[type] & (1 << other)) != 0;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static void allowCollision(int type, int other) {
+        COLLISION_MASKS[type] |= 1 << other;
+        COLLISION_MASKS[other] |= 1 << type;
+    }
+}
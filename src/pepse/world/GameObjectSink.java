@@ -0,0 +1,48 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+/**
+ * Receives the game objects that make up the world. World builders such as {@link pepse.world.trees.Flora} and
+ * the terrain streaming add and remove their objects through a sink, so layers like culling can
+ * sit between them and the engine's collection.
+ */
+public interface GameObjectSink {
+
+    /**
+     * Adds an object to the world.
+     *
+     * @param gameObject The object to add.
+     * @param layerId    The layer to add it to.
+     */
+    void addGameObject(GameObject gameObject, int layerId);
+
+    /**
+     * Removes an object from the world.
+     *
+     * @param gameObject The object to remove.
+     * @param layerId    The layer it was added to.
+     */
+    void removeGameObject(GameObject gameObject, int layerId);
+
+    /**
+     * Wraps the engine's collection in a sink that passes every call straight through.
+     *
+     * @param gameObjects The engine's collection.
+     * @return A sink writing to the collection.
+     */
+    static GameObjectSink of(GameObjectCollection gameObjects) {
+        return new GameObjectSink() {
+            @Override
+            public void addGameObject(GameObject gameObject, int layerId) {
+                gameObjects.addGameObject(gameObject, layerId);
+            }
+
+            @Override
+            public void removeGameObject(GameObject gameObject, int layerId) {
+                gameObjects.removeGameObject(gameObject, layerId);
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package pepse.world;
+
+import pepse.world.trees.Flora;
+import pepse.world.trees.TreeDescriptor;
+
+import java.util.List;
+
+/**
+ * A stretch of the world generated ahead of time by a {@link WorldGenerator}, e.g. in parallel
+ * while the first frame renders, so streaming it in only has to build its objects. The cells
+ * are as generated, without the player's edits.
+ */
+public final class GeneratedRegion implements ColumnSource {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final List<ChunkData> chunks; // Consecutive chunks, left to right
+    private final int firstChunk; // Chunk index of chunks.get(0)
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a region from generated chunks.
+     *
+     * @param chunks Consecutive chunks, left to right, as returned by
+     *               {@link WorldGenerator#generate(int, int)}.
+     */
+    public GeneratedRegion(List<ChunkData> chunks) {
+        this.chunks = chunks;
+        this.firstChunk = chunks.isEmpty() ? 0 : chunks.get(0).getIndex();
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    @Override
+    public boolean hasColumn(int column) {
+        return chunkOf(column) != null;
+    }
+
+    @Override
+    public int getSurfaceRow(int column) {
+        return chunkOf(column).getSurfaceRow(Math.floorMod(column, WorldGenerator.CHUNK_COLUMNS));
+    }
+
+    @Override
+    public long getCells(int column) {
+        return chunkOf(column).getCells(Math.floorMod(column, WorldGenerator.CHUNK_COLUMNS));
+    }
+
+    /**
+     * Checks whether the region holds a tree slot, whether or not a tree stands in it.
+     *
+     * @param x The x-coordinate of the slot, a multiple of {@link Flora#TREE_SPACING}.
+     * @return True if the region was generated over the slot.
+     */
+    public boolean hasTreeSlot(int x) {
+        return chunkOf(Math.floorDiv(x, Block.SIZE)) != null;
+    }
+
+    /**
+     * Finds the tree generated in a slot.
+     *
+     * @param x The x-coordinate of the slot, see {@link #hasTreeSlot(int)}.
+     * @return The tree's descriptor, or null if the biome leaves the slot empty.
+     */
+    public TreeDescriptor findTree(int x) {
+        for (TreeDescriptor tree : chunkOf(Math.floorDiv(x, Block.SIZE)).getTrees()) {
+            if (tree.getX() == x) {
+                return tree;
+            }
+        }
+        return null;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private ChunkData chunkOf(int column) {
+        int chunk = Math.floorDiv(column, WorldGenerator.CHUNK_COLUMNS) - firstChunk;
+        return chunk >= 0 && chunk < chunks.size() ? chunks.get(chunk) : null;
+    }
+}
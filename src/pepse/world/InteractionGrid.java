@@ -0,0 +1,182 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.util.collections.LongObjectMap;
+import pepse.world.trees.Fruit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the avatar's interactions with trunks and fruit without the engine's collision pass.
+ * Trunks and fruit passing through on their way to the world are also filed in a uniform grid
+ * keyed by column index, and each tick only the few columns around the avatar are checked:
+ * fruit the avatar touches is collected, and trunks block it like solid ground, their tops
+ * counting as ground the avatar stands on.
+ * Every other object is passed straight through.
+ */
+public class InteractionGrid implements GameObjectSink {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final GameObjectSink target; // Where the objects live
+    private final LongObjectMap<List<GameObject>> cells = new LongObjectMap<>(); // By column
+    private final List<GameObject> nearby = new ArrayList<>(); // Scratch list for queries
+    private float maxWidth; // Widest object filed, how far back from a column to look
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs an empty grid.
+     *
+     * @param target The sink every object is added to.
+     */
+    public InteractionGrid(GameObjectSink target) {
+        this.target = target;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Adds an object to the world, filing trunks and fruit in the column of their left edge.
+     *
+     * @param gameObject The object to add.
+     * @param layerId    The layer to add it to.
+     */
+    @Override
+    public void addGameObject(GameObject gameObject, int layerId) {
+        target.addGameObject(gameObject, layerId);
+        if (!isInteractive(gameObject)) {
+            return;
+        }
+        long column = columnOf(gameObject.getTopLeftCorner().x());
+        List<GameObject> cell = cells.get(column);
+        if (cell == null) {
+            cell = new ArrayList<>();
+            cells.put(column, cell);
+        }
+        cell.add(gameObject);
+        maxWidth = Math.max(maxWidth, gameObject.getDimensions().x());
+    }
+
+    /**
+     * Removes an object from the world and from the grid.
+     *
+     * @param gameObject The object to remove.
+     * @param layerId    The layer it was added to.
+     */
+    @Override
+    public void removeGameObject(GameObject gameObject, int layerId) {
+        target.removeGameObject(gameObject, layerId);
+        if (!isInteractive(gameObject)) {
+            return;
+        }
+        long column = columnOf(gameObject.getTopLeftCorner().x());
+        List<GameObject> cell = cells.get(column);
+        if (cell != null && cell.remove(gameObject) && cell.isEmpty()) {
+            cells.remove(column);
+        }
+    }
+
+    /**
+     * Collects the fruit the avatar overlaps and pushes it out of any trunk it ran into.
+     *
+     * @param avatar The avatar.
+     */
+    public void resolve(Avatar avatar) {
+        Vector2 topLeft = avatar.getTopLeftCorner();
+        Vector2 size = avatar.getDimensions();
+        findOverlapping(topLeft.x(), topLeft.y(), size.x(), size.y());
+        // Collecting removes fruit from the grid, so act on the scratch list
+        for (int i = 0; i < nearby.size(); i++) {
+            GameObject other = nearby.get(i);
+            if (EntityTypes.typeOf(other) == EntityTypes.FRUIT) {
+                ((Fruit) other).collect();
+            } else {
+                pushOut(avatar, other);
+            }
+        }
+        nearby.clear();
+    }
+
+    /**
+     * Returns the number of trunks and fruit in the grid.
+     *
+     * @return The filed object count.
+     */
+    public int getObjectCount() {
+        int[] count = new int[1];
+        cells.forEachValue(cell -> count[0] += cell.size());
+        return count[0];
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static boolean isInteractive(GameObject gameObject) {
+        int type = EntityTypes.typeOf(gameObject);
+        return type == EntityTypes.TRUNK || type == EntityTypes.FRUIT;
+    }
+
+    private static long columnOf(float x) {
+        return (long) Math.floor(x / Block.SIZE);
+    }
+
+    /**
+     * Fills the scratch list with the filed objects overlapping a box. An object is filed under
+     * the column of its left edge only, so the search starts far enough left to reach the
+     * widest one.
+     */
+    private void findOverlapping(float minX, float minY, float width, float height) {
+        float maxX = minX + width;
+        float maxY = minY + height;
+        long lastColumn = columnOf(maxX);
+        for (long column = columnOf(minX - maxWidth); column <= lastColumn; column++) {
+            List<GameObject> cell = cells.get(column);
+            if (cell == null) {
+                continue;
+            }
+            for (int i = 0; i < cell.size(); i++) {
+                GameObject other = cell.get(i);
+                Vector2 otherTopLeft = other.getTopLeftCorner();
+                Vector2 otherSize = other.getDimensions();
+                if (otherTopLeft.x() < maxX && otherTopLeft.x() + otherSize.x() > minX &&
+                        otherTopLeft.y() < maxY && otherTopLeft.y() + otherSize.y() > minY) {
+                    nearby.add(other);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the avatar out of a trunk along the axis it is least deep in: onto the top, where
+     * it stands if it came down on it, otherwise back to the side it came from. An avatar
+     * jumping off the top is only lifted out of it, keeping its upward velocity.
+     */
+    private static void pushOut(Avatar avatar, GameObject trunk) {
+        Vector2 topLeft = avatar.getTopLeftCorner();
+        Vector2 size = avatar.getDimensions();
+        Vector2 trunkTopLeft = trunk.getTopLeftCorner();
+        Vector2 trunkSize = trunk.getDimensions();
+        float fromLeft = topLeft.x() + size.x() - trunkTopLeft.x();
+        float fromRight = trunkTopLeft.x() + trunkSize.x() - topLeft.x();
+        float fromAbove = topLeft.y() + size.y() - trunkTopLeft.y();
+        float depthX = Math.min(fromLeft, fromRight);
+        if (fromAbove < depthX) {
+            avatar.setTopLeftCorner(new Vector2(topLeft.x(), trunkTopLeft.y() - size.y()));
+            if (avatar.getVelocity().y() >= 0) {
+                avatar.transform().setVelocityY(0);
+                avatar.landOnTrunk();
+            }
+        } else {
+            float x = fromLeft < fromRight ? trunkTopLeft.x() - size.x() :
+                    trunkTopLeft.x() + trunkSize.x();
+            avatar.setTopLeftCorner(new Vector2(x, topLeft.y()));
+            avatar.transform().setVelocityX(0);
+        }
+    }
+}
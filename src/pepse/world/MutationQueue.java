@@ -0,0 +1,146 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the adds and removes made during a frame and applies them to the world in one pass
+ * at its end. An add and a remove of the same object on the same layer cancel out, so objects
+ * that leave and come back within a frame, like those culled at the edge of the view, never
+ * touch the engine's collection. The remaining operations are grouped by layer, removes first,
+ * so each layer's list is worked through in one go.
+ */
+public class MutationQueue implements GameObjectSink {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final Comparator<Pending> BY_LAYER =
+            Comparator.comparingInt(pending -> pending.layerId);
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final GameObjectSink target; // Where the operations are applied
+    private final Map<GameObject, Pending> pendingAdds = new IdentityHashMap<>();
+    private final Map<GameObject, Pending> pendingRemoves = new IdentityHashMap<>();
+    private final List<Pending> batch = new ArrayList<>(); // Scratch list for sorting by layer
+    private long operationsQueued;
+    private long operationsApplied;
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs an empty queue.
+     *
+     * @param target The sink the operations are applied to.
+     */
+    public MutationQueue(GameObjectSink target) {
+        this.target = target;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Queues an add, or cancels a queued remove of the object from the same layer.
+     *
+     * @param gameObject The object to add.
+     * @param layerId    The layer to add it to.
+     */
+    @Override
+    public void addGameObject(GameObject gameObject, int layerId) {
+        operationsQueued++;
+        Pending remove = pendingRemoves.get(gameObject);
+        if (remove != null && remove.layerId == layerId) {
+            pendingRemoves.remove(gameObject); // Still in the world
+            return;
+        }
+        pendingAdds.put(gameObject, new Pending(gameObject, layerId));
+    }
+
+    /**
+     * Queues a remove, or cancels a queued add of the object to the same layer.
+     *
+     * @param gameObject The object to remove.
+     * @param layerId    The layer it was added to.
+     */
+    @Override
+    public void removeGameObject(GameObject gameObject, int layerId) {
+        operationsQueued++;
+        Pending add = pendingAdds.get(gameObject);
+        if (add != null && add.layerId == layerId) {
+            pendingAdds.remove(gameObject); // Never reached the world
+            return;
+        }
+        pendingRemoves.put(gameObject, new Pending(gameObject, layerId));
+    }
+
+    /**
+     * Applies the queued operations, removes before adds so an object moving between layers
+     * leaves the old one first.
+     */
+    public void flush() {
+        apply(pendingRemoves, false);
+        apply(pendingAdds, true);
+    }
+
+    /**
+     * Returns the number of operations queued so far.
+     *
+     * @return The queued operation count.
+     */
+    public long getOperationsQueued() {
+        return operationsQueued;
+    }
+
+    /**
+     * Returns the number of operations applied to the target so far; the rest were cancelled.
+     *
+     * @return The applied operation count.
+     */
+    public long getOperationsApplied() {
+        return operationsApplied;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private void apply(Map<GameObject, Pending> pending, boolean isAdd) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        batch.addAll(pending.values());
+        pending.clear();
+        batch.sort(BY_LAYER);
+        for (int i = 0; i < batch.size(); i++) {
+            Pending operation = batch.get(i);
+            if (isAdd) {
+                target.addGameObject(operation.gameObject, operation.layerId);
+            } else {
+                target.removeGameObject(operation.gameObject, operation.layerId);
+            }
+        }
+        operationsApplied += batch.size();
+        batch.clear();
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    private static class Pending {
+        private final GameObject gameObject;
+        private final int layerId;
+
+        Pending(GameObject gameObject, int layerId) {
+            this.gameObject = gameObject;
+            this.layerId = layerId;
+        }
+    }
+}
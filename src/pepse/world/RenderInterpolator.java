@@ -0,0 +1,98 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Smooths the rendering of moving objects under a fixed timestep. Objects are simulated at tick
+ * boundaries, and between frames they are displayed at a position interpolated between the last
+ * two simulated ticks. The simulated position is restored before the next tick runs, so the
+ * simulation itself never sees interpolated state.
+ */
+public class RenderInterpolator {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final List<GameObject> tracked = new ArrayList<>(); // Objects to interpolate
+    private float[] previous = new float[0]; // x,y pairs at the start of the last tick
+    private float[] current = new float[0]; // x,y pairs at the end of the last tick
+    private boolean displaced = false; // True while objects are shown at interpolated positions
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Starts interpolating the given object.
+     *
+     * @param gameObject The object whose rendered position should be interpolated.
+     */
+    public void track(GameObject gameObject) {
+        restore();
+        tracked.add(gameObject);
+        previous = new float[tracked.size() * 2];
+        current = new float[tracked.size() * 2];
+        for (int i = 0; i < tracked.size(); i++) {
+            storePosition(tracked.get(i), previous, i);
+            storePosition(tracked.get(i), current, i);
+        }
+    }
+
+    /**
+     * Moves every tracked object back to its simulated position. Must be called before
+     * the simulation reads or advances any tracked object.
+     */
+    public void restore() {
+        if (!displaced) {
+            return;
+        }
+        for (int i = 0; i < tracked.size(); i++) {
+            tracked.get(i).setTopLeftCorner(new Vector2(current[2 * i], current[2 * i + 1]));
+        }
+        displaced = false;
+    }
+
+    /**
+     * Records the simulated positions at the start of a tick.
+     */
+    public void beginTick() {
+        for (int i = 0; i < tracked.size(); i++) {
+            storePosition(tracked.get(i), previous, i);
+        }
+    }
+
+    /**
+     * Records the simulated positions at the end of the last tick of the frame.
+     */
+    public void endTicks() {
+        for (int i = 0; i < tracked.size(); i++) {
+            storePosition(tracked.get(i), current, i);
+        }
+    }
+
+    /**
+     * Displays every tracked object between its previous and current simulated position.
+     *
+     * @param alpha The interpolation factor, 0 for the previous tick and 1 for the current one.
+     */
+    public void apply(float alpha) {
+        for (int i = 0; i < tracked.size(); i++) {
+            float x = previous[2 * i] + (current[2 * i] - previous[2 * i]) * alpha;
+            float y = previous[2 * i + 1] + (current[2 * i + 1] - previous[2 * i + 1]) * alpha;
+            tracked.get(i).setTopLeftCorner(new Vector2(x, y));
+        }
+        displaced = !tracked.isEmpty();
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static void storePosition(GameObject gameObject, float[] target, int index) {
+        Vector2 position = gameObject.getTopLeftCorner();
+        target[2 * index] = position.x();
+        target[2 * index + 1] = position.y();
+    }
+}
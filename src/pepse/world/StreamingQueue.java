@@ -0,0 +1,192 @@
+package pepse.world;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+
+/**
+ * A queue of world-streaming work (loading and unloading terrain columns and trees) drained
+ * under a per-frame time budget. Work for columns the camera can see is urgent and always
+ * completed in the frame it is drained; everything else is deferred to later frames once the
+ * budget is spent.
+ */
+public class StreamingQueue {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int INITIAL_JOB_POOL = 64;
+    private static final String REPORT_FORMAT =
+            "streaming: jobs=%d depth=%d maxDepth=%d frames=%d overBudget=%d (%.1f%%)%n";
+    private static final float PERCENT = 100f;
+
+    /**
+     * The kinds of streaming work.
+     */
+    public enum JobType {
+        /** Create the blocks of a terrain column. */
+        LOAD_COLUMN,
+        /** Remove the blocks of a terrain column. */
+        UNLOAD_COLUMN,
+        /** Create the tree standing at an x-coordinate. */
+        LOAD_TREE,
+        /** Remove the tree standing at an x-coordinate. */
+        UNLOAD_TREE
+    }
+
+    /**
+     * Performs streaming work.
+     */
+    @FunctionalInterface
+    public interface Worker {
+        /**
+         * Performs one job. Jobs may be stale by the time they run, so a worker should check
+         * that the work is still wanted.
+         *
+         * @param type The kind of work.
+         * @param x    The x-coordinate of the column or tree.
+         */
+        void perform(JobType type, int x);
+    }
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final ArrayDeque<Job> urgent = new ArrayDeque<>(); // Visible work, never deferred
+    private final ArrayDeque<Job> deferred = new ArrayDeque<>(); // Work drained under the budget
+    private final ArrayDeque<Job> freeJobs = new ArrayDeque<>(); // Recycled job objects
+    private int maxDepth;
+    private long framesDrained;
+    private long framesOverBudget;
+    private long jobsPerformed;
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs an empty queue.
+     */
+    public StreamingQueue() {
+        for (int i = 0; i < INITIAL_JOB_POOL; i++) {
+            freeJobs.add(new Job());
+        }
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Queues a job.
+     *
+     * @param type    The kind of work.
+     * @param x       The x-coordinate of the column or tree.
+     * @param visible Whether the camera currently sees the column; visible work is urgent.
+     */
+    public void enqueue(JobType type, int x, boolean visible) {
+        Job job = freeJobs.isEmpty() ? new Job() : freeJobs.poll();
+        job.type = type;
+        job.x = x;
+        (visible ? urgent : deferred).add(job);
+        maxDepth = Math.max(maxDepth, getDepth());
+    }
+
+    /**
+     * Performs every urgent job, then deferred jobs until the budget is spent.
+     *
+     * @param budgetNanos The time budget for this frame (in nanoseconds).
+     * @param worker      The worker performing the jobs.
+     * @return The number of jobs performed.
+     */
+    public int drain(long budgetNanos, Worker worker) {
+        if (urgent.isEmpty() && deferred.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int performed = 0;
+        while (!urgent.isEmpty()) {
+            perform(urgent.poll(), worker);
+            performed++;
+        }
+        while (!deferred.isEmpty() && System.nanoTime() - start < budgetNanos) {
+            perform(deferred.poll(), worker);
+            performed++;
+        }
+        framesDrained++;
+        if (System.nanoTime() - start > budgetNanos) {
+            framesOverBudget++;
+        }
+        return performed;
+    }
+
+    /**
+     * Returns the number of jobs waiting.
+     *
+     * @return The current queue depth.
+     */
+    public int getDepth() {
+        return urgent.size() + deferred.size();
+    }
+
+    /**
+     * Returns the deepest the queue has been.
+     *
+     * @return The maximum queue depth.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of frames in which work was drained.
+     *
+     * @return The drained frame count.
+     */
+    public long getFramesDrained() {
+        return framesDrained;
+    }
+
+    /**
+     * Returns the number of frames whose streaming work took longer than the budget.
+     *
+     * @return The over-budget frame count.
+     */
+    public long getFramesOverBudget() {
+        return framesOverBudget;
+    }
+
+    /**
+     * Returns the number of jobs performed so far.
+     *
+     * @return The job count.
+     */
+    public long getJobsPerformed() {
+        return jobsPerformed;
+    }
+
+    /**
+     * Prints the queue statistics.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        float overBudgetPercent = framesDrained == 0 ? 0 : PERCENT * framesOverBudget / framesDrained;
+        out.printf(REPORT_FORMAT, jobsPerformed, getDepth(), maxDepth, framesDrained,
+                framesOverBudget, overBudgetPercent);
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private void perform(Job job, Worker worker) {
+        worker.perform(job.type, job.x);
+        jobsPerformed++;
+        freeJobs.add(job);
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    private static class Job {
+        private JobType type;
+        private int x;
+    }
+}
@@ -9,28 +9,46 @@ import pepse.util.NoiseGenerator;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Random;
 
 import static pepse.constants.TagConstants.GROUND_TAG;
 
 /**
  * Represents the terrain generation system. It calculates ground height
  * and creates blocks to form the terrain within a specified range.
+ * <p>
+ * Below the surface, a 2D density noise carves caves. Each column's cells are stored as one
+ * bit-packed long, bit i telling whether the cell i rows below the surface is solid, and only
+ * solid cells bordering air become blocks.
  */
 public class Terrain {
 
     // =======================
     //   CONSTANTS
     // =======================
-    private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
-    private static final int TERRAIN_DEPTH_BLOCKS = 20; // Number of vertical blocks in the terrain
+    /**
+     * Number of vertical blocks in a terrain column.
+     */
+    public static final int TERRAIN_DEPTH_BLOCKS = 20;
     private static final int NOISE_SCALE_FACTOR = 7; // Noise scale factor
     private static final float GROUND_HEIGHT_RATIO = 2.0f / 3.0f; // Ground height is 2/3 of window height
+    private static final int SOLID_CRUST_BLOCKS = 3; // Rows under the surface caves never break into
+    private static final float CAVE_SCALE = 10f; // Size of the largest caves (in blocks)
+    private static final int CAVE_OCTAVES = 2; // Layers of detail in the cave noise
+    private static final float CAVE_THRESHOLD = 0.12f; // Density above which a cell is carved out
+    private static final long COLUMN_MASK = TERRAIN_DEPTH_BLOCKS == Long.SIZE ? -1L :
+            (1L << TERRAIN_DEPTH_BLOCKS) - 1; // Bits of the rows of a column
+    private static final long BOTTOM_ROW = 1L << (TERRAIN_DEPTH_BLOCKS - 1);
 
 
     // =======================
     //   FIELDS
     // =======================
     private final NoiseGenerator noiseGenerator;
+    private final int seed; // Seed for heights and block colors
+    private final TerrainEdits edits = new TerrainEdits(); // Player changes over the generated cells
+    private final BiomeMap biomes; // Biome of each chunk
     /**
      * The ground height at x0.
      */
@@ -46,6 +64,8 @@ public class Terrain {
      * @param seed             The seed for the noise generator.
      */
     public Terrain(Vector2 windowDimensions, int seed) {
+        this.seed = seed;
+        this.biomes = new BiomeMap(seed);
         this.groundHeightAtX0 = windowDimensions.y() * GROUND_HEIGHT_RATIO;
         this.noiseGenerator = new NoiseGenerator(seed, (int)Terrain.groundHeightAtX0);
 
@@ -79,23 +99,198 @@ public class Terrain {
         int endX = (maxX / Block.SIZE) * Block.SIZE;
 
         for (int x = startX - Block.SIZE; x <= endX +Block.SIZE; x += Block.SIZE) {
-            float groundHeight = (float) Math.floor(groundHeightAt(x) / Block.SIZE) * Block.SIZE;
+            blocks.addAll(createColumn(x));
+        }
+        return blocks;
+    }
+
+    /**
+     * Creates the exposed blocks of a single terrain column.
+     *
+     * @param x The x-coordinate of the column, a multiple of {@link Block#SIZE}.
+     * @return The blocks of the column, top to bottom.
+     */
+    public List<Block> createColumn(int x) {
+        int column = Math.floorDiv(x, Block.SIZE);
+        long exposed = exposedCells(
+                cellsAt(column - 1), surfaceRow(column - 1),
+                cellsAt(column), surfaceRow(column),
+                cellsAt(column + 1), surfaceRow(column + 1));
+        List<Block> blocks = new ArrayList<>(Long.bitCount(exposed));
+        addColumn(blocks, x, groundHeightAt(x), exposed);
+        return blocks;
+    }
 
+    /**
+     * Creates the blocks of a column whose cells are already known, e.g. from a snapshot,
+     * without evaluating any noise.
+     *
+     * @param x          The x-coordinate of the column, a multiple of {@link Block#SIZE}.
+     * @param surfaceRow The column's surface row.
+     * @param exposed    The column's exposed cells, see {@link #exposedCells}.
+     * @return The blocks of the column, top to bottom.
+     */
+    public List<Block> createColumn(int x, int surfaceRow, long exposed) {
+        List<Block> blocks = new ArrayList<>(Long.bitCount(exposed));
+        addColumn(blocks, x, surfaceRow * (float) Block.SIZE, exposed);
+        return blocks;
+    }
 
-            for (int i = 0; i < TERRAIN_DEPTH_BLOCKS; i++) {
-                Vector2 blockPosition = new Vector2(x, groundHeight + i * Block.SIZE);
-                Block block = new Block(blockPosition,
-                        new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR)));
-                blocks.add(block);
-                block.setTag(GROUND_TAG);
+    /**
+     * Returns the row of the top cell of a column, in units of {@link Block#SIZE}.
+     *
+     * @param column The column index (x divided by {@link Block#SIZE}).
+     * @return The surface row.
+     */
+    public int surfaceRow(int column) {
+        return Math.round(groundHeightAt(column * (float) Block.SIZE) / Block.SIZE);
+    }
+
+    /**
+     * Generates the cells of a column: bit i is set if the cell i rows below the surface is
+     * solid. The crust under the surface and the bottom row are always solid; in between, cells
+     * whose cave density is above the threshold are carved out.
+     *
+     * @param column The column index (x divided by {@link Block#SIZE}).
+     * @return The column's solid cells.
+     */
+    public long columnCells(int column) {
+        int surface = surfaceRow(column);
+        long cells = COLUMN_MASK;
+        for (int i = SOLID_CRUST_BLOCKS; i < TERRAIN_DEPTH_BLOCKS - 1; i++) {
+            if (noiseGenerator.noise2D(column, surface + i, CAVE_SCALE, CAVE_OCTAVES) > CAVE_THRESHOLD) {
+                cells &= ~(1L << i);
             }
         }
-        return blocks;
+        return cells;
+    }
+
+    /**
+     * Returns the cells of a column as the player left them: the generated cells with the
+     * column's edits applied.
+     *
+     * @param column The column index (x divided by {@link Block#SIZE}).
+     * @return The column's solid cells, bit i being i rows below the surface.
+     */
+    public long cellsAt(int column) {
+        return edits.apply(column, columnCells(column));
+    }
+
+    /**
+     * Digs out or fills in a cell. Only cells between the surface and the bottom row can be
+     * edited; the bottom row is bedrock.
+     *
+     * @param column The column index (x divided by {@link Block#SIZE}).
+     * @param row    The row index (y divided by {@link Block#SIZE}).
+     * @param solid  True to place ground, false to dig.
+     * @return True if the cell changed.
+     */
+    public boolean editCell(int column, int row, boolean solid) {
+        int depth = row - surfaceRow(column);
+        if (depth < 0 || depth >= TERRAIN_DEPTH_BLOCKS - 1) {
+            return false;
+        }
+        long bit = 1L << depth;
+        if (((cellsAt(column) & bit) != 0) == solid) {
+            return false;
+        }
+        edits.set(column, depth, solid ? TerrainEdits.CELL_GROUND : TerrainEdits.CELL_AIR,
+                (columnCells(column) & bit) != 0);
+        return true;
+    }
+
+    /**
+     * Returns the player's edits to the terrain.
+     *
+     * @return The terrain edits.
+     */
+    public TerrainEdits getEdits() {
+        return edits;
+    }
+
+    /**
+     * Computes which solid cells of a column border air, comparing the column with itself
+     * shifted up and down and with its neighbours aligned to its surface. Air lies above every
+     * surface; below the bottom row everything counts as solid.
+     *
+     * @param left          The cells of the column to the left.
+     * @param leftSurface   The surface row of the column to the left.
+     * @param cells         The cells of the column.
+     * @param surface       The surface row of the column.
+     * @param right         The cells of the column to the right.
+     * @param rightSurface  The surface row of the column to the right.
+     * @return The column's solid cells that border air.
+     */
+    public static long exposedCells(long left, int leftSurface, long cells, int surface,
+                                    long right, int rightSurface) {
+        long above = cells << 1; // The top cell has air above it
+        long below = (cells >>> 1) | BOTTOM_ROW;
+        long enclosed = above & below & alignNeighbour(left, surface - leftSurface)
+                & alignNeighbour(right, surface - rightSurface);
+        return cells & ~enclosed & COLUMN_MASK;
+    }
+
+    /**
+     * Returns the biome at an x-coordinate.
+     *
+     * @param x The x-coordinate.
+     * @return The biome of the chunk containing x.
+     */
+    public Biome biomeAt(float x) {
+        return biomes.biomeAt(x);
+    }
+
+    /**
+     * Computes the colors of the blocks of a column, top to bottom. The colors depend only on
+     * the column, its biome's palette and the seed.
+     *
+     * @param x      The x-coordinate of the column.
+     * @param target The array receiving {@value TERRAIN_DEPTH_BLOCKS} RGB values.
+     * @param offset The index in target of the top block.
+     */
+    public void columnColors(int x, int[] target, int offset) {
+        Random random = new Random(Objects.hash(x, seed));
+        Color groundColor = biomes.biomeAt(x).getGroundColor();
+        for (int i = 0; i < TERRAIN_DEPTH_BLOCKS; i++) {
+            target[offset + i] = ColorSupplier.approximateColor(groundColor, random).getRGB();
+        }
     }
 
     // =======================
     //   PRIVATE METHODS
     // =======================
+    private void addColumn(List<Block> blocks, int x, float groundHeight, long exposed) {
+        int[] colors = new int[TERRAIN_DEPTH_BLOCKS];
+        columnColors(x, colors, 0);
+        for (long remaining = exposed; remaining != 0; remaining &= remaining - 1) {
+            int i = Long.numberOfTrailingZeros(remaining);
+            Vector2 blockPosition = new Vector2(x, groundHeight + i * Block.SIZE);
+            Block block = new Block(blockPosition,
+                    new RectangleRenderable(new Color(colors[i])));
+            blocks.add(block);
+            block.setTag(GROUND_TAG);
+        }
+    }
+
+    /**
+     * Shifts a neighbouring column's cells so that bit i lines up with row i of a column whose
+     * surface is the given number of rows lower. Rows above the neighbour's surface are air and
+     * rows below its bottom are solid.
+     */
+    private static long alignNeighbour(long neighbour, int surfaceOffset) {
+        if (surfaceOffset >= TERRAIN_DEPTH_BLOCKS) {
+            return COLUMN_MASK;
+        }
+        if (surfaceOffset <= -TERRAIN_DEPTH_BLOCKS) {
+            return 0;
+        }
+        if (surfaceOffset >= 0) {
+            long belowBottom = COLUMN_MASK & ~(COLUMN_MASK >>> surfaceOffset);
+            return (neighbour >>> surfaceOffset) | belowBottom;
+        }
+        return (neighbour << -surfaceOffset) & COLUMN_MASK;
+    }
+
     /**
      * Calculates the ground height with noise added at a given x-coordinate.
      *
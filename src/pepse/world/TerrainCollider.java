@@ -0,0 +1,134 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * Resolves an object's contact with the terrain analytically, treating the terrain as a height
+ * function: each column is solid from its topmost solid cell down. Lands the object on the
+ * columns under it, blocks it at height changes it cannot step onto, and reports whether it is
+ * grounded. The terrain blocks themselves then need no part in the engine's collision pass.
+ * Column tops are cached, since evaluating a column's cells runs the cave noise.
+ */
+public class TerrainCollider {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int CACHE_SIZE = 64; // Columns cached, a power of two
+    private static final float STEP_TOLERANCE = 1f; // Penetration still resolved as landing
+    private static final float EDGE_EPSILON = 1e-3f; // Keeps a flush edge out of the next column
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final Terrain terrain;
+    private final int[] cachedColumns = new int[CACHE_SIZE]; // Direct-mapped by column index
+    private final float[] cachedTops = new float[CACHE_SIZE]; // Top of each cached column
+    private final boolean[] isCached = new boolean[CACHE_SIZE];
+    private boolean isGrounded;
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a collider over a terrain.
+     *
+     * @param terrain The terrain to collide with.
+     */
+    public TerrainCollider(Terrain terrain) {
+        this.terrain = terrain;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Moves an object out of the terrain after it has moved for a tick. It is first pushed out
+     * sideways of any column it ran into above its feet, then landed on the highest column left
+     * under it if it is falling.
+     *
+     * @param gameObject The object to resolve.
+     * @param deltaTime  The duration of the tick it moved for (in seconds).
+     */
+    public void resolve(GameObject gameObject, float deltaTime) {
+        Vector2 topLeft = gameObject.getTopLeftCorner();
+        Vector2 size = gameObject.getDimensions();
+        Vector2 velocity = gameObject.getVelocity();
+        float left = topLeft.x();
+        float top = topLeft.y();
+        float bottom = top + size.y();
+        // Sinking this far within one tick is a landing, not running into a wall
+        float tolerance = Math.max(STEP_TOLERANCE, velocity.y() * deltaTime);
+        float centerX = left + size.x() / 2;
+
+        int firstColumn = columnOf(left);
+        int lastColumn = columnOf(left + size.x() - EDGE_EPSILON);
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            if (bottom - columnTop(column) > tolerance) {
+                float columnLeft = column * (float) Block.SIZE;
+                left = columnLeft + Block.SIZE / 2f > centerX ? columnLeft - size.x() :
+                        columnLeft + Block.SIZE;
+                gameObject.transform().setVelocityX(0);
+            }
+        }
+
+        float ground = Float.MAX_VALUE;
+        lastColumn = columnOf(left + size.x() - EDGE_EPSILON);
+        for (int column = columnOf(left); column <= lastColumn; column++) {
+            ground = Math.min(ground, columnTop(column));
+        }
+        isGrounded = bottom >= ground && velocity.y() >= 0;
+        if (isGrounded) {
+            top = ground - size.y();
+            gameObject.transform().setVelocityY(0);
+        }
+        if (left != topLeft.x() || top != topLeft.y()) {
+            gameObject.setTopLeftCorner(new Vector2(left, top));
+        }
+    }
+
+    /**
+     * Returns whether the last resolved object ended its tick standing on the terrain.
+     *
+     * @return True if it is grounded.
+     */
+    public boolean isGrounded() {
+        return isGrounded;
+    }
+
+    /**
+     * Forgets the cached top of an edited column.
+     *
+     * @param column The column index (x divided by {@link Block#SIZE}).
+     */
+    public void invalidate(int column) {
+        int slot = column & (CACHE_SIZE - 1);
+        if (cachedColumns[slot] == column) {
+            isCached[slot] = false;
+        }
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static int columnOf(float x) {
+        return (int) Math.floor(x / Block.SIZE);
+    }
+
+    /**
+     * Returns the y-coordinate of a column's topmost solid cell, which lies below the surface
+     * once the cells above it are dug out.
+     */
+    private float columnTop(int column) {
+        int slot = column & (CACHE_SIZE - 1);
+        if (!isCached[slot] || cachedColumns[slot] != column) {
+            int row = terrain.surfaceRow(column) +
+                    Long.numberOfTrailingZeros(terrain.cellsAt(column));
+            cachedColumns[slot] = column;
+            cachedTops[slot] = row * (float) Block.SIZE;
+            isCached[slot] = true;
+        }
+        return cachedTops[slot];
+    }
+}
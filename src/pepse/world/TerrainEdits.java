@@ -0,0 +1,234 @@
+package pepse.world;
+
+import pepse.util.collections.LongObjectMap;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The player's changes to the terrain, layered over the generated cells. Each edited chunk keeps
+ * a bitset of its edited cells and a sparse list of their new cell types; chunks without edits
+ * cost nothing. Edits are kept whether or not the chunk is loaded, so they survive streaming.
+ */
+public class TerrainEdits {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    /**
+     * Cell type of a dug-out cell.
+     */
+    public static final byte CELL_AIR = 0;
+    /**
+     * Cell type of a placed ground cell.
+     */
+    public static final byte CELL_GROUND = 1;
+    private static final int ROW_BITS = 6; // Rows per column fit in a long
+    private static final int ROW_MASK = (1 << ROW_BITS) - 1;
+    private static final int INITIAL_EDITS = 8;
+    private static final int CHUNK_HEADER_BYTES = Long.BYTES + Integer.BYTES; // Chunk index and count
+    private static final int EDIT_BYTES = Short.BYTES + Byte.BYTES; // Cell and type
+    private static final String ERROR_BAD_CELL = "Corrupt terrain edit: cell %d, type %d";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final LongObjectMap<ChunkDelta> chunks = new LongObjectMap<>(); // Keyed by chunk index
+    private int editCount;
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Applies the edits of a column to its generated cells. Takes time proportional to the number
+     * of edits in the column's chunk, and none at all for unedited columns.
+     *
+     * @param column The column index (x divided by {@link Block#SIZE}).
+     * @param cells  The column's generated cells, bit i being i rows below the surface.
+     * @return The column's cells with the edits applied.
+     */
+    public long apply(int column, long cells) {
+        ChunkDelta delta = chunks.get(chunkOf(column));
+        int local = Math.floorMod(column, WorldGenerator.CHUNK_COLUMNS);
+        if (delta == null || delta.edited[local] == 0) {
+            return cells;
+        }
+        for (int i = 0; i < delta.count; i++) {
+            if (delta.cells[i] >> ROW_BITS == local) {
+                long bit = 1L << (delta.cells[i] & ROW_MASK);
+                cells = delta.types[i] == CELL_AIR ? cells & ~bit : cells | bit;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Records the type of a cell. Setting a cell back to its generated type drops the edit.
+     *
+     * @param column    The column index.
+     * @param row       The row below the column's surface.
+     * @param type      The new cell type, {@link #CELL_AIR} or {@link #CELL_GROUND}.
+     * @param baseSolid Whether the generated cell is solid.
+     */
+    public void set(int column, int row, byte type, boolean baseSolid) {
+        long chunk = chunkOf(column);
+        int local = Math.floorMod(column, WorldGenerator.CHUNK_COLUMNS);
+        short cell = (short) (local << ROW_BITS | row);
+        boolean restoresBase = (type == CELL_GROUND) == baseSolid;
+
+        ChunkDelta delta = chunks.get(chunk);
+        if (delta == null) {
+            if (restoresBase) {
+                return;
+            }
+            delta = new ChunkDelta();
+            chunks.put(chunk, delta);
+        }
+        int index = delta.indexOf(cell);
+        if (restoresBase) {
+            if (index >= 0) {
+                delta.remove(index);
+                editCount--;
+                if (delta.count == 0) {
+                    chunks.remove(chunk);
+                }
+            }
+        } else if (index >= 0) {
+            delta.types[index] = type;
+        } else {
+            delta.add(cell, type);
+            editCount++;
+        }
+    }
+
+    /**
+     * Returns the number of edited cells.
+     *
+     * @return The edit count.
+     */
+    public int getEditCount() {
+        return editCount;
+    }
+
+    /**
+     * Returns the number of chunks holding edits.
+     *
+     * @return The edited chunk count.
+     */
+    public int getEditedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeTo(ByteBuffer)} writes.
+     *
+     * @return The serialized size.
+     */
+    public int getSerializedSize() {
+        return Integer.BYTES + chunks.size() * CHUNK_HEADER_BYTES + editCount * EDIT_BYTES;
+    }
+
+    /**
+     * Writes every edit: the chunk count, then for each chunk its index, edit count and
+     * (cell, type) pairs.
+     *
+     * @param buffer The buffer to write to.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(chunks.size());
+        for (long chunk : chunks.keys()) {
+            ChunkDelta delta = chunks.get(chunk);
+            buffer.putLong(chunk);
+            buffer.putInt(delta.count);
+            for (int i = 0; i < delta.count; i++) {
+                buffer.putShort(delta.cells[i]);
+                buffer.put(delta.types[i]);
+            }
+        }
+    }
+
+    /**
+     * Replaces every edit with the edits read from a buffer written by {@link #writeTo(ByteBuffer)}.
+     *
+     * @param buffer The buffer to read from.
+     * @throws IllegalArgumentException If an edit names a cell outside its chunk or an unknown
+     *                                  cell type.
+     */
+    public void readFrom(ByteBuffer buffer) {
+        chunks.clear();
+        editCount = 0;
+        int chunkCount = buffer.getInt();
+        for (int c = 0; c < chunkCount; c++) {
+            long chunk = buffer.getLong();
+            int count = buffer.getInt();
+            ChunkDelta delta = new ChunkDelta();
+            for (int i = 0; i < count; i++) {
+                short cell = buffer.getShort();
+                byte type = buffer.get();
+                checkEdit(cell, type);
+                delta.add(cell, type);
+            }
+            chunks.put(chunk, delta);
+            editCount += count;
+        }
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static long chunkOf(int column) {
+        return Math.floorDiv(column, WorldGenerator.CHUNK_COLUMNS);
+    }
+
+    private static void checkEdit(short cell, byte type) {
+        if (cell < 0 || cell >> ROW_BITS >= WorldGenerator.CHUNK_COLUMNS ||
+                (cell & ROW_MASK) >= Terrain.TERRAIN_DEPTH_BLOCKS ||
+                (type != CELL_AIR && type != CELL_GROUND)) {
+            throw new IllegalArgumentException(String.format(ERROR_BAD_CELL, cell, type));
+        }
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    /**
+     * The edits of one chunk.
+     */
+    private static class ChunkDelta {
+        private final long[] edited = new long[WorldGenerator.CHUNK_COLUMNS]; // Edited rows per column
+        private short[] cells = new short[INITIAL_EDITS]; // Column << ROW_BITS | row of each edit
+        private byte[] types = new byte[INITIAL_EDITS]; // New type of each edited cell
+        private int count;
+
+        private int indexOf(short cell) {
+            if ((edited[cell >> ROW_BITS] & (1L << (cell & ROW_MASK))) == 0) {
+                return -1;
+            }
+            for (int i = 0; i < count; i++) {
+                if (cells[i] == cell) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void add(short cell, byte type) {
+            if (count == cells.length) {
+                cells = Arrays.copyOf(cells, count * 2);
+                types = Arrays.copyOf(types, count * 2);
+            }
+            cells[count] = cell;
+            types[count] = type;
+            count++;
+            edited[cell >> ROW_BITS] |= 1L << (cell & ROW_MASK);
+        }
+
+        private void remove(int index) {
+            short cell = cells[index];
+            edited[cell >> ROW_BITS] &= ~(1L << (cell & ROW_MASK));
+            count--;
+            cells[index] = cells[count];
+            types[index] = types[count];
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package pepse.world;
+
+/**
+ * A world object that declares its kind, see {@link EntityTypes}.
+ */
+public interface TypedEntity {
+
+    /**
+     * Returns the object's kind.
+     *
+     * @return One of the ids in {@link EntityTypes}.
+     */
+    int getEntityType();
+}
@@ -0,0 +1,129 @@
+package pepse.world;
+
+import pepse.world.trees.Flora;
+import pepse.world.trees.TreeDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates world content chunk by chunk. Every chunk is a pure function of its index and the
+ * seed, so chunks can be generated in parallel and the output is identical to sequential
+ * generation whatever the parallelism. Used to warm-start a large region before play and for
+ * offline generation.
+ */
+public class WorldGenerator {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    /**
+     * Number of block columns in a chunk.
+     */
+    public static final int CHUNK_COLUMNS = 32;
+    /**
+     * Width of a chunk.
+     */
+    public static final int CHUNK_WIDTH = CHUNK_COLUMNS * Block.SIZE;
+    private static final String ERROR_MINX_GREATER_THAN_MAXX = "minX must be smaller than maxX.";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final Terrain terrain;
+    private final int seed;
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a generator.
+     *
+     * @param terrain The terrain providing heights and cells.
+     * @param seed    The world seed, as used by the terrain and the flora.
+     */
+    public WorldGenerator(Terrain terrain, int seed) {
+        this.terrain = terrain;
+        this.seed = seed;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the index of the chunk containing an x-coordinate.
+     *
+     * @param x The x-coordinate.
+     * @return The chunk index.
+     */
+    public static int chunkIndexOf(float x) {
+        return (int) Math.floor(x / CHUNK_WIDTH);
+    }
+
+    /**
+     * Generates a single chunk.
+     *
+     * @param index The chunk index.
+     * @return The chunk's content.
+     */
+    public ChunkData generateChunk(int index) {
+        float[] groundHeights = new float[CHUNK_COLUMNS];
+        long[] cells = new long[CHUNK_COLUMNS];
+        int firstX = index * CHUNK_WIDTH;
+        for (int column = 0; column < CHUNK_COLUMNS; column++) {
+            int x = firstX + column * Block.SIZE;
+            groundHeights[column] = terrain.groundHeightAt(x);
+            cells[column] = terrain.columnCells(index * CHUNK_COLUMNS + column);
+        }
+
+        List<TreeDescriptor> trees = new ArrayList<>();
+        for (int treeX : Flora.treePositionsInRange(firstX, firstX + CHUNK_WIDTH)) {
+            Biome biome = terrain.biomeAt(treeX);
+            if (biome.hasTreeAt(treeX, seed)) {
+                trees.add(TreeDescriptor.generate(treeX, terrain.groundHeightAt(treeX), seed, biome));
+            }
+        }
+        return new ChunkData(index, groundHeights, cells, trees);
+    }
+
+    /**
+     * Generates every chunk overlapping a range, one after the other.
+     *
+     * @param minX The minimum x-coordinate of the range.
+     * @param maxX The maximum x-coordinate of the range.
+     * @return The chunks, left to right.
+     */
+    public List<ChunkData> generate(int minX, int maxX) {
+        return chunkIndices(minX, maxX)
+                .mapToObj(this::generateChunk)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Generates every chunk overlapping a range in parallel on the given pool.
+     *
+     * @param minX The minimum x-coordinate of the range.
+     * @param maxX The maximum x-coordinate of the range.
+     * @param pool The pool to generate on.
+     * @return The chunks, left to right; identical to {@link #generate(int, int)}.
+     */
+    public List<ChunkData> generate(int minX, int maxX, ForkJoinPool pool) {
+        return pool.submit(() -> chunkIndices(minX, maxX)
+                .parallel()
+                .mapToObj(this::generateChunk)
+                .collect(Collectors.toList())).join();
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static IntStream chunkIndices(int minX, int maxX) {
+        if (minX >= maxX) {
+            throw new IllegalArgumentException(ERROR_MINX_GREATER_THAN_MAXX);
+        }
+        return IntStream.rangeClosed(chunkIndexOf(minX), chunkIndexOf(maxX - 1));
+    }
+}
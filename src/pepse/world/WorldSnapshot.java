@@ -0,0 +1,424 @@
+package pepse.world;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A saved game session: the seed, the world clock, the avatar, the loaded terrain columns, the
+ * player's terrain edits and the standing trees with their eaten fruit. Snapshots are written in
+ * one pass through a file channel and read back through a memory-mapped file, so restoring a
+ * session needs no terrain noise for the columns it covers.
+ * <p>
+ * Layout (big-endian): magic, version, seed, world time, avatar x, y and energy, view range,
+ * first column and column count, then per column (including one neighbour on each side) its
+ * surface row and cells, then the terrain edits, then the tree count and per tree its x,
+ * ground height and eaten fruit mask.
+ */
+public final class WorldSnapshot implements ColumnSource {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final byte VERSION = 1;
+    private static final int SEED_OFFSET = Integer.BYTES + Byte.BYTES; // Seed follows magic and version
+    private static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES + Integer.BYTES +
+            Double.BYTES + 5 * Float.BYTES + 2 * Integer.BYTES;
+    private static final int COLUMN_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int TREE_BYTES = Integer.BYTES + Float.BYTES + Long.BYTES;
+    private static final String ERROR_BAD_MAGIC = "Not a world snapshot: ";
+    private static final String ERROR_BAD_VERSION = "Unsupported world snapshot version: ";
+    private static final String ERROR_TRUNCATED = "Truncated or corrupt world snapshot: ";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final int seed;
+    private final double worldTime; // Simulated seconds since the world was created
+    private final float avatarX;
+    private final float avatarY;
+    private final float energy;
+    private final float viewMinX; // View range the columns were streamed around
+    private final float viewMaxX;
+    private final int firstColumn; // Column index of surfaceRows[0] and cells[0]
+    private final int[] surfaceRows;
+    private final long[] cells; // Cells of each column, edits applied
+    private final ByteBuffer edits; // Serialized terrain edits, see TerrainEdits#writeTo
+    private final int[] treeX;
+    private final float[] treeGroundY;
+    private final long[] eatenFruit;
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a snapshot.
+     *
+     * @param seed        The world seed.
+     * @param worldTime   The simulated time since the world was created (in seconds).
+     * @param avatarX     The avatar's top-left x-coordinate.
+     * @param avatarY     The avatar's top-left y-coordinate.
+     * @param energy      The avatar's energy.
+     * @param viewMinX    The left edge of the streamed view.
+     * @param viewMaxX    The right edge of the streamed view.
+     * @param firstColumn The index of the first saved column.
+     * @param surfaceRows The surface row of each saved column.
+     * @param cells       The cells of each saved column, edits applied.
+     * @param edits       The serialized terrain edits.
+     * @param treeX       The x-coordinate of each standing tree.
+     * @param treeGroundY The ground height of each standing tree.
+     * @param eatenFruit  The eaten fruit mask of each standing tree.
+     */
+    public WorldSnapshot(int seed, double worldTime, float avatarX, float avatarY, float energy,
+                         float viewMinX, float viewMaxX, int firstColumn, int[] surfaceRows,
+                         long[] cells, ByteBuffer edits, int[] treeX, float[] treeGroundY,
+                         long[] eatenFruit) {
+        this.seed = seed;
+        this.worldTime = worldTime;
+        this.avatarX = avatarX;
+        this.avatarY = avatarY;
+        this.energy = energy;
+        this.viewMinX = viewMinX;
+        this.viewMaxX = viewMaxX;
+        this.firstColumn = firstColumn;
+        this.surfaceRows = surfaceRows;
+        this.cells = cells;
+        this.edits = edits;
+        this.treeX = treeX;
+        this.treeGroundY = treeGroundY;
+        this.eatenFruit = eatenFruit;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Writes the snapshot, replacing the file atomically so a crash mid-write cannot leave a
+     * truncated snapshot behind.
+     *
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        writeEncoded(encode(), path);
+    }
+
+    /**
+     * Encodes the snapshot in the file layout, so it can be captured now and written later, e.g.
+     * from a thread that must not read the live world.
+     *
+     * @return A buffer holding the encoded snapshot, positioned at its start.
+     */
+    public ByteBuffer encode() {
+        int size = HEADER_BYTES + surfaceRows.length * COLUMN_BYTES + edits.remaining() +
+                Integer.BYTES + treeX.length * TREE_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).put(VERSION).putInt(seed).putDouble(worldTime);
+        buffer.putFloat(avatarX).putFloat(avatarY).putFloat(energy);
+        buffer.putFloat(viewMinX).putFloat(viewMaxX);
+        buffer.putInt(firstColumn).putInt(surfaceRows.length);
+        for (int i = 0; i < surfaceRows.length; i++) {
+            buffer.putInt(surfaceRows[i]).putLong(cells[i]);
+        }
+        buffer.put(edits.duplicate());
+        buffer.putInt(treeX.length);
+        for (int i = 0; i < treeX.length; i++) {
+            buffer.putInt(treeX[i]).putFloat(treeGroundY[i]).putLong(eatenFruit[i]);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes a snapshot encoded by {@link #encode()}, replacing the file atomically.
+     *
+     * @param encoded The encoded snapshot; its position is left unchanged.
+     * @param path    The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeEncoded(ByteBuffer encoded, Path path) throws IOException {
+        ByteBuffer buffer = encoded.duplicate();
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), null);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot through a memory-mapped file.
+     *
+     * @param path The file to read.
+     * @return The snapshot.
+     * @throws IOException If the file cannot be read or is not a snapshot.
+     */
+    public static WorldSnapshot read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        checkHeader(buffer, path);
+        int seed = buffer.getInt();
+        double worldTime = buffer.getDouble();
+        float avatarX = buffer.getFloat();
+        float avatarY = buffer.getFloat();
+        float energy = buffer.getFloat();
+        float viewMinX = buffer.getFloat();
+        float viewMaxX = buffer.getFloat();
+        int firstColumn = buffer.getInt();
+        int columnCount = buffer.getInt();
+        checkCount(buffer, columnCount, COLUMN_BYTES, path);
+        int[] surfaceRows = new int[columnCount];
+        long[] cells = new long[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            surfaceRows[i] = buffer.getInt();
+            cells[i] = buffer.getLong();
+        }
+
+        // The edits stay in the mapped file until they are applied
+        int editsStart = buffer.position();
+        try {
+            new TerrainEdits().readFrom(buffer); // Finds where the edits end
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException(ERROR_TRUNCATED + path, e);
+        }
+        ByteBuffer edits = buffer.duplicate();
+        edits.limit(buffer.position()).position(editsStart);
+
+        checkCount(buffer, 1, Integer.BYTES, path);
+        int treeCount = buffer.getInt();
+        checkCount(buffer, treeCount, TREE_BYTES, path);
+        int[] treeX = new int[treeCount];
+        float[] treeGroundY = new float[treeCount];
+        long[] eatenFruit = new long[treeCount];
+        for (int i = 0; i < treeCount; i++) {
+            treeX[i] = buffer.getInt();
+            treeGroundY[i] = buffer.getFloat();
+            eatenFruit[i] = buffer.getLong();
+        }
+        return new WorldSnapshot(seed, worldTime, avatarX, avatarY, energy, viewMinX, viewMaxX,
+                firstColumn, surfaceRows, cells, edits, treeX, treeGroundY, eatenFruit);
+    }
+
+    /**
+     * Reads just the seed of a snapshot, e.g. to pick the seed of a resumed session.
+     *
+     * @param path     The snapshot file.
+     * @param fallback The seed to return if there is no readable snapshot.
+     * @return The snapshot's seed, or the fallback.
+     */
+    public static int readSeed(Path path, int fallback) {
+        if (!Files.isRegularFile(path)) {
+            return fallback;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SEED_OFFSET + Integer.BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < header.capacity() || header.getInt() != MAGIC ||
+                    header.get() != VERSION) {
+                return fallback;
+            }
+            return header.getInt();
+        } catch (IOException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Checks whether a column is saved in the snapshot.
+     *
+     * @param column The column index.
+     * @return True if the column's cells are saved.
+     */
+    @Override
+    public boolean hasColumn(int column) {
+        return column >= firstColumn && column < firstColumn + surfaceRows.length;
+    }
+
+    /**
+     * Returns the surface row of a saved column.
+     *
+     * @param column The column index, see {@link #hasColumn(int)}.
+     * @return The surface row.
+     */
+    @Override
+    public int getSurfaceRow(int column) {
+        return surfaceRows[column - firstColumn];
+    }
+
+    /**
+     * Returns the cells of a saved column, edits applied.
+     *
+     * @param column The column index, see {@link #hasColumn(int)}.
+     * @return The column's cells.
+     */
+    @Override
+    public long getCells(int column) {
+        return cells[column - firstColumn];
+    }
+
+    /**
+     * Restores the saved terrain edits.
+     *
+     * @param target The edits to replace.
+     */
+    public void restoreEdits(TerrainEdits target) {
+        target.readFrom(edits.duplicate());
+    }
+
+    /**
+     * Returns the world seed.
+     *
+     * @return The seed.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the simulated time since the world was created.
+     *
+     * @return The world time (in seconds).
+     */
+    public double getWorldTime() {
+        return worldTime;
+    }
+
+    /**
+     * Returns the avatar's top-left x-coordinate.
+     *
+     * @return The avatar x-coordinate.
+     */
+    public float getAvatarX() {
+        return avatarX;
+    }
+
+    /**
+     * Returns the avatar's top-left y-coordinate.
+     *
+     * @return The avatar y-coordinate.
+     */
+    public float getAvatarY() {
+        return avatarY;
+    }
+
+    /**
+     * Returns the avatar's energy.
+     *
+     * @return The energy.
+     */
+    public float getEnergy() {
+        return energy;
+    }
+
+    /**
+     * Returns the left edge of the streamed view.
+     *
+     * @return The view's minimum x-coordinate.
+     */
+    public float getViewMinX() {
+        return viewMinX;
+    }
+
+    /**
+     * Returns the right edge of the streamed view.
+     *
+     * @return The view's maximum x-coordinate.
+     */
+    public float getViewMaxX() {
+        return viewMaxX;
+    }
+
+    /**
+     * Returns the number of saved trees.
+     *
+     * @return The tree count.
+     */
+    public int getTreeCount() {
+        return treeX.length;
+    }
+
+    /**
+     * Finds a saved tree by its x-coordinate.
+     *
+     * @param x The x-coordinate of the tree.
+     * @return The tree index, or -1 if no tree was saved at x.
+     */
+    public int findTree(int x) {
+        for (int i = 0; i < treeX.length; i++) {
+            if (treeX[i] == x) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the x-coordinate of a saved tree.
+     *
+     * @param tree The tree index.
+     * @return The tree's x-coordinate.
+     */
+    public int getTreeX(int tree) {
+        return treeX[tree];
+    }
+
+    /**
+     * Returns the ground height of a saved tree.
+     *
+     * @param tree The tree index.
+     * @return The ground height the tree stands on.
+     */
+    public float getTreeGroundY(int tree) {
+        return treeGroundY[tree];
+    }
+
+    /**
+     * Returns the eaten fruit of a saved tree.
+     *
+     * @param tree The tree index.
+     * @return The eaten fruit mask.
+     */
+    public long getEatenFruit(int tree) {
+        return eatenFruit[tree];
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static void checkHeader(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException(ERROR_BAD_MAGIC + path);
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException(ERROR_BAD_VERSION + version);
+        }
+    }
+
+    /**
+     * Checks that a count read from the file is not negative and that its records fit in what
+     * is left of the file, so a corrupt count fails the read instead of the allocation.
+     */
+    private static void checkCount(ByteBuffer buffer, int count, int recordBytes, Path path)
+            throws IOException {
+        if (count < 0 || (long) count * recordBytes > buffer.remaining()) {
+            throw new IOException(ERROR_TRUNCATED + path);
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package pepse.world;
+
+import danogl.collisions.Layer;
+import danogl.gui.rendering.Camera;
+import danogl.util.Vector2;
+import pepse.event.WorldEventBus;
+import pepse.event.WorldEventType;
+import pepse.profiling.ChunkLoadedEvent;
+import pepse.profiling.ChunkUnloadedEvent;
+import pepse.profiling.StreamingStepEvent;
+import pepse.util.collections.LongObjectMap;
+import pepse.util.collections.PackedKey;
+import pepse.world.trees.Flora;
+import pepse.world.trees.TreeDescriptor;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static pepse.PepseGameManager.getSeed;
+
+/**
+ * Streams the terrain columns and trees around the avatar in and out of the world. Once the
+ * avatar has moved far enough, the columns and tree slots that entered or left the wanted range
+ * are queued, nearest first, and a frame's worth of the queue is worked through at a time. The
+ * range reaches further ahead of the direction of travel than behind it, as decided by a
+ * {@link ChunkPrefetcher}. Unloaded columns are kept in a {@link ChunkCache}; during startup,
+ * columns and trees are built from a resumed snapshot or a region generated in parallel.
+ */
+public class WorldStreamer {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final float UPDATE_THRESHOLD = Block.SIZE * 3; // Avatar travel between updates
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final Terrain terrain;
+    private final Flora flora;
+    private final GameObjectSink gameObjects; // Where blocks are added and removed
+    private final WorldEventBus eventBus;
+    private final ChunkPrefetcher prefetcher;
+    private final ChunkCache<List<Block>> columnCache; // Unloaded columns' blocks, by column index
+    private final long budgetNanos; // Streaming time per frame
+    private final Supplier<Camera> camera; // Decides which jobs are visible; may supply null
+    private final StreamingQueue streaming = new StreamingQueue();
+    private final LongObjectMap<Block> activeBlocks = new LongObjectMap<>(); // Keyed by packed block cell
+    private float lastAvatarX; // Avatar position at the last range update
+    private float minLimit; // Left edge of the view, tracked from the avatar's movement
+    private float maxLimit; // Right edge of the view, tracked from the avatar's movement
+    private int minColumn; // Leftmost terrain column wanted, as a column index
+    private int maxColumn; // Rightmost terrain column wanted, as a column index
+    private int minTree; // Leftmost tree wanted, as a multiple of the tree spacing
+    private int maxTree; // Rightmost tree wanted, as a multiple of the tree spacing
+    private WorldSnapshot resumed; // Resumed session, consulted until startup loading completes
+    private CompletableFuture<GeneratedRegion> warmStart; // Startup range, generated in parallel
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a streamer with nothing loaded.
+     *
+     * @param terrain     The terrain columns are built from.
+     * @param flora       The flora trees are grown by.
+     * @param gameObjects The sink blocks are added to and removed from.
+     * @param eventBus    The bus {@link WorldEventType#CHUNK_LOADED} and
+     *                    {@link WorldEventType#CHUNK_UNLOADED} events are published to.
+     * @param prefetcher  Decides how far the wanted range reaches on each side of the view.
+     * @param columnCache The cache unloaded columns are kept in.
+     * @param budgetNanos The time a frame may spend on queued streaming jobs.
+     * @param camera      Supplies the camera whose view decides which jobs come first; while it
+     *                    supplies null, everything counts as visible.
+     */
+    public WorldStreamer(Terrain terrain, Flora flora, GameObjectSink gameObjects,
+                         WorldEventBus eventBus, ChunkPrefetcher prefetcher,
+                         ChunkCache<List<Block>> columnCache, long budgetNanos,
+                         Supplier<Camera> camera) {
+        this.terrain = terrain;
+        this.flora = flora;
+        this.gameObjects = gameObjects;
+        this.eventBus = eventBus;
+        this.prefetcher = prefetcher;
+        this.columnCache = columnCache;
+        this.budgetNanos = budgetNanos;
+        this.camera = camera;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Sets the view the wanted range is streamed around, and where startup columns and trees
+     * come from: the resumed session if there is one, otherwise a region generated in parallel
+     * while the first frame renders.
+     *
+     * @param viewMinX The left edge of the view.
+     * @param viewMaxX The right edge of the view.
+     * @param resumed  The resumed session, or null for a new one.
+     */
+    public void start(float viewMinX, float viewMaxX, WorldSnapshot resumed) {
+        minLimit = viewMinX;
+        maxLimit = viewMaxX;
+        updateWantedRanges();
+        this.resumed = resumed;
+        if (resumed == null) {
+            startWarmStart();
+        }
+    }
+
+    /**
+     * Loads a range of columns right away, e.g. those on screen for the first frame.
+     *
+     * @param firstColumn The first column index.
+     * @param lastColumn  The last column index, inclusive.
+     */
+    public void loadColumns(int firstColumn, int lastColumn) {
+        StreamingStepEvent event = new StreamingStepEvent();
+        event.begin();
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            loadColumn(column * Block.SIZE);
+        }
+        if (event.shouldCommit()) {
+            event.jobsPerformed = lastColumn - firstColumn + 1;
+            event.queueDepth = streaming.getDepth();
+            event.commit();
+        }
+    }
+
+    /**
+     * Queues the rest of the startup range: the padding columns, nearest to the screen first,
+     * and every tree of the wanted range. Range updates are measured from the avatar's position.
+     *
+     * @param firstVisibleColumn The first column loaded for the first frame.
+     * @param lastVisibleColumn  The last column loaded for the first frame.
+     * @param avatarX            The avatar's x-coordinate.
+     */
+    public void enqueueStartup(int firstVisibleColumn, int lastVisibleColumn, float avatarX) {
+        lastAvatarX = avatarX;
+        for (int distance = 1; firstVisibleColumn - distance >= minColumn ||
+                lastVisibleColumn + distance <= maxColumn; distance++) {
+            if (lastVisibleColumn + distance <= maxColumn) {
+                streaming.enqueue(StreamingQueue.JobType.LOAD_COLUMN,
+                        (lastVisibleColumn + distance) * Block.SIZE, false);
+            }
+            if (firstVisibleColumn - distance >= minColumn) {
+                streaming.enqueue(StreamingQueue.JobType.LOAD_COLUMN,
+                        (firstVisibleColumn - distance) * Block.SIZE, false);
+            }
+        }
+        for (int tree = minTree; tree <= maxTree; tree++) {
+            int x = tree * Flora.TREE_SPACING;
+            streaming.enqueue(StreamingQueue.JobType.LOAD_TREE, x, isVisible(x));
+        }
+    }
+
+    /**
+     * Queues the terrain columns and trees that enter or leave the wanted range once the avatar
+     * has moved far enough. The work itself is done by {@link #drain()}.
+     *
+     * @param avatarX      The avatar's x-coordinate.
+     * @param velocityX    The avatar's horizontal velocity.
+     * @param tickDuration The length of the tick (in seconds).
+     */
+    public void update(float avatarX, float velocityX, float tickDuration) {
+        prefetcher.update(velocityX, tickDuration);
+        if (Math.abs(avatarX - lastAvatarX) < UPDATE_THRESHOLD) {
+            return;
+        }
+        float moveChange = avatarX - lastAvatarX;
+        int oldMinColumn = minColumn;
+        int oldMaxColumn = maxColumn;
+        int oldMinTree = minTree;
+        int oldMaxTree = maxTree;
+
+        lastAvatarX = avatarX;
+        minLimit += moveChange;
+        maxLimit += moveChange;
+        prefetcher.setBacklog(streaming.getDepth());
+        updateWantedRanges();
+
+        // Nearest work first, so the queue fills in terrain in the order the avatar reaches it
+        boolean towardsLeft = prefetcher.isMovingLeft();
+        enqueueRangeChanges(oldMinColumn, oldMaxColumn, minColumn, maxColumn, Block.SIZE,
+                StreamingQueue.JobType.LOAD_COLUMN, StreamingQueue.JobType.UNLOAD_COLUMN,
+                towardsLeft);
+        enqueueRangeChanges(oldMinTree, oldMaxTree, minTree, maxTree, Flora.TREE_SPACING,
+                StreamingQueue.JobType.LOAD_TREE, StreamingQueue.JobType.UNLOAD_TREE, towardsLeft);
+    }
+
+    /**
+     * Performs queued streaming jobs within the frame's budget.
+     */
+    public void drain() {
+        if (streaming.getDepth() == 0) {
+            return;
+        }
+        StreamingStepEvent event = new StreamingStepEvent();
+        event.begin();
+        long jobsBefore = streaming.getJobsPerformed();
+        streaming.drain(budgetNanos, this::performStreamingJob);
+        if (event.shouldCommit()) {
+            event.jobsPerformed = (int) (streaming.getJobsPerformed() - jobsBefore);
+            event.queueDepth = streaming.getDepth();
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the number of streaming jobs waiting to be performed.
+     *
+     * @return The streaming queue's depth.
+     */
+    public int getQueueDepth() {
+        return streaming.getDepth();
+    }
+
+    /**
+     * Stops building columns and trees from the resumed session or the warm start; later ones
+     * come from the terrain and flora.
+     */
+    public void finishStartup() {
+        resumed = null;
+        warmStart = null;
+    }
+
+    /**
+     * Digs out or fills in the cell at a position and rebuilds the blocks of the loaded columns
+     * whose exposed cells may have changed.
+     *
+     * @param column The column index of the cell.
+     * @param row    The row index of the cell.
+     * @param solid  True to place ground, false to dig.
+     * @return True if the cell changed.
+     */
+    public boolean editCell(int column, int row, boolean solid) {
+        finishStartup(); // The saved and generated cells no longer match the terrain
+        if (!terrain.editCell(column, row, solid)) {
+            return false;
+        }
+        for (int neighbour = column - 1; neighbour <= column + 1; neighbour++) {
+            int columnX = neighbour * Block.SIZE;
+            boolean isWanted = isColumnWanted(columnX);
+            if (isWanted) {
+                unloadColumn(columnX);
+            }
+            columnCache.invalidate(neighbour); // Its blocks were built from the old cells
+            if (isWanted) {
+                loadColumn(columnX);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the left edge of the view the wanted range is streamed around.
+     *
+     * @return The view's minimum x-coordinate.
+     */
+    public float getViewMinX() {
+        return minLimit;
+    }
+
+    /**
+     * Returns the right edge of the view the wanted range is streamed around.
+     *
+     * @return The view's maximum x-coordinate.
+     */
+    public float getViewMaxX() {
+        return maxLimit;
+    }
+
+    /**
+     * Returns the leftmost wanted column.
+     *
+     * @return The column index.
+     */
+    public int getMinColumn() {
+        return minColumn;
+    }
+
+    /**
+     * Returns the rightmost wanted column.
+     *
+     * @return The column index.
+     */
+    public int getMaxColumn() {
+        return maxColumn;
+    }
+
+    /**
+     * Returns the number of blocks in the world.
+     *
+     * @return The active block count.
+     */
+    public int getActiveBlockCount() {
+        return activeBlocks.size();
+    }
+
+    /**
+     * Prints the streaming queue's and the column cache's statistics.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        streaming.print(out);
+        columnCache.print(out);
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    /**
+     * Queues a load for every slot that entered the range and an unload for every slot that left it.
+     */
+    private void enqueueRangeChanges(int oldMin, int oldMax, int newMin, int newMax, int spacing,
+                                     StreamingQueue.JobType load, StreamingQueue.JobType unload,
+                                     boolean descending) {
+        int first = Math.min(oldMin, newMin);
+        int last = Math.max(oldMax, newMax);
+        for (int i = 0; i <= last - first; i++) {
+            int slot = descending ? last - i : first + i;
+            boolean wasWanted = slot >= oldMin && slot <= oldMax;
+            boolean isWanted = slot >= newMin && slot <= newMax;
+            int x = slot * spacing;
+            if (isWanted && !wasWanted) {
+                streaming.enqueue(load, x, isVisible(x));
+            } else if (wasWanted && !isWanted) {
+                streaming.enqueue(unload, x, false);
+            }
+        }
+    }
+
+    /**
+     * Derives the wanted column and tree ranges from the view and the prefetcher's paddings.
+     */
+    private void updateWantedRanges() {
+        int minX = (int) (minLimit - prefetcher.getLeftPadding());
+        int maxX = (int) (maxLimit + prefetcher.getRightPadding());
+        minColumn = Math.floorDiv(minX, Block.SIZE) - 1;
+        maxColumn = Math.floorDiv(maxX, Block.SIZE) + 1;
+        minTree = Math.floorDiv(minX + Flora.TREE_SPACING - 1, Flora.TREE_SPACING);
+        maxTree = Math.floorDiv(maxX, Flora.TREE_SPACING);
+    }
+
+    /**
+     * Performs one streaming job, skipping work that became stale while it was queued.
+     */
+    private void performStreamingJob(StreamingQueue.JobType type, int x) {
+        switch (type) {
+            case LOAD_COLUMN:
+                if (isColumnWanted(x)) {
+                    long start = System.nanoTime();
+                    loadColumn(x);
+                    prefetcher.recordColumnCost(System.nanoTime() - start);
+                }
+                break;
+            case UNLOAD_COLUMN:
+                if (!isColumnWanted(x)) {
+                    unloadColumn(x);
+                }
+                break;
+            case LOAD_TREE:
+                if (isTreeWanted(x)) {
+                    loadTree(x);
+                }
+                break;
+            default: // UNLOAD_TREE
+                if (!isTreeWanted(x)) {
+                    flora.removeTreeAt(x);
+                }
+                break;
+        }
+    }
+
+    private boolean isColumnWanted(int x) {
+        int column = Math.floorDiv(x, Block.SIZE);
+        return column >= minColumn && column <= maxColumn;
+    }
+
+    private boolean isTreeWanted(int x) {
+        int tree = Math.floorDiv(x, Flora.TREE_SPACING);
+        return tree >= minTree && tree <= maxTree;
+    }
+
+    private boolean isVisible(int x) {
+        Camera view = camera.get();
+        if (view == null) {
+            return true;
+        }
+        float viewMinX = view.getTopLeftCorner().x();
+        float viewMaxX = viewMinX + view.getDimensions().x();
+        return x + Block.SIZE >= viewMinX && x <= viewMaxX;
+    }
+
+    /**
+     * Loads a column, from the blocks it was unloaded with while they are cached, or from its
+     * saved or generated cells while a resumed session or the warm start holds them.
+     */
+    private void loadColumn(int x) {
+        ChunkLoadedEvent event = new ChunkLoadedEvent();
+        event.begin();
+        int column = Math.floorDiv(x, Block.SIZE);
+        ColumnSource source = resumed != null ? resumed : getWarmStart();
+        List<Block> cached = columnCache.take(column);
+        int added;
+        if (cached != null) {
+            added = addColumnBlocks(x, cached);
+        } else if (source == null || !source.hasColumn(column - 1) ||
+                !source.hasColumn(column) || !source.hasColumn(column + 1)) {
+            added = addColumnBlocks(x, terrain.createColumn(x));
+        } else {
+            long exposed = Terrain.exposedCells(
+                    source.getCells(column - 1), source.getSurfaceRow(column - 1),
+                    source.getCells(column), source.getSurfaceRow(column),
+                    source.getCells(column + 1), source.getSurfaceRow(column + 1));
+            added = addColumnBlocks(x, terrain.createColumn(x, source.getSurfaceRow(column),
+                    exposed));
+        }
+        if (event.shouldCommit()) {
+            event.startX = x;
+            event.endX = x + Block.SIZE;
+            event.blockCount = added;
+            event.commit();
+        }
+    }
+
+    /**
+     * Grows a tree, restoring its eaten fruit while a resumed session holds it, or from its
+     * generated descriptor while the warm start holds it.
+     */
+    private void loadTree(int x) {
+        int saved = resumed != null ? resumed.findTree(x) : -1;
+        GeneratedRegion region = getWarmStart();
+        if (saved >= 0) {
+            flora.restoreTree(x, resumed.getTreeGroundY(saved), resumed.getEatenFruit(saved));
+        } else if (region != null && region.hasTreeSlot(x)) {
+            TreeDescriptor descriptor = region.findTree(x);
+            if (descriptor != null) {
+                flora.createTree(descriptor);
+            }
+        } else {
+            flora.createTreeAt(x);
+        }
+    }
+
+    /**
+     * Generates the startup range, with one neighbour column on each side, in parallel while the
+     * first frame renders, so streaming it in skips the terrain noise and tree layout.
+     */
+    private void startWarmStart() {
+        int minX = Math.min((minColumn - 1) * Block.SIZE, minTree * Flora.TREE_SPACING);
+        int maxX = Math.max((maxColumn + 2) * Block.SIZE, maxTree * Flora.TREE_SPACING + 1);
+        WorldGenerator generator = new WorldGenerator(terrain, getSeed());
+        warmStart = CompletableFuture.supplyAsync(() ->
+                new GeneratedRegion(generator.generate(minX, maxX, ForkJoinPool.commonPool())));
+    }
+
+    /**
+     * Returns the warm start once it is generated; until then columns and trees are generated
+     * on the game thread as usual.
+     */
+    private GeneratedRegion getWarmStart() {
+        CompletableFuture<GeneratedRegion> region = warmStart;
+        if (region == null || !region.isDone() || region.isCompletedExceptionally()) {
+            return null;
+        }
+        return region.join();
+    }
+
+    /**
+     * Adds the blocks of a column that are not in the world yet.
+     *
+     * @return The number of blocks added.
+     */
+    private int addColumnBlocks(int x, List<Block> blocks) {
+        int added = 0;
+        for (Block block : blocks) {
+            Vector2 blockPosition  = block.getTopLeftCorner();
+            long key = blockKey(blockPosition.x(), blockPosition.y());
+            if (!activeBlocks.containsKey(key)) {
+                gameObjects.addGameObject(block, Layer.STATIC_OBJECTS);
+                activeBlocks.put(key, block);
+                added++;
+            }
+        }
+        eventBus.publish(WorldEventType.CHUNK_LOADED, x, x + Block.SIZE, added);
+        return added;
+    }
+
+    /**
+     * Removes the blocks of a column from the active blocks map and the game world, keeping
+     * them in the column cache.
+     *
+     * @param x The x-coordinate of the column.
+     */
+    private void unloadColumn(int x) {
+        ChunkUnloadedEvent event = new ChunkUnloadedEvent();
+        event.begin();
+        float groundHeight = terrain.groundHeightAt(x);
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < Terrain.TERRAIN_DEPTH_BLOCKS; i++) {
+            Block block = activeBlocks.remove(blockKey(x, groundHeight + i * Block.SIZE));
+            if (block != null) {
+                gameObjects.removeGameObject(block, Layer.STATIC_OBJECTS);
+                blocks.add(block);
+            }
+        }
+        int removed = blocks.size();
+        if (removed > 0) {
+            columnCache.put(Math.floorDiv(x, Block.SIZE), blocks, removed);
+        }
+        eventBus.publish(WorldEventType.CHUNK_UNLOADED, x, x + Block.SIZE, removed);
+        if (event.shouldCommit()) {
+            event.startX = x;
+            event.endX = x + Block.SIZE;
+            event.blockCount = removed;
+            event.commit();
+        }
+    }
+
+    private static long blockKey(float x, float y) {
+        return PackedKey.of(Math.round(x / Block.SIZE), Math.round(y / Block.SIZE));
+    }
+}
@@ -0,0 +1,142 @@
+package pepse.world.agents;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for a herd of foraging agents. Each agent is an index into
+ * parallel primitive arrays rather than a GameObject, so a tick streams through contiguous memory
+ * and slices of the herd can be updated independently on different threads.
+ */
+public class AgentPopulation {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    /**
+     * Maximum energy an agent can hold, as for the avatar.
+     */
+    public static final float MAX_ENERGY = 100f;
+    private static final String ERROR_FULL = "Population is at capacity: ";
+
+    // =======================
+    //   FIELDS
+    // =======================
+    final float[] x; // Top-left x of each agent
+    final float[] y; // Top-left y of each agent
+    final float[] velocityX;
+    final float[] velocityY;
+    final float[] energy;
+    final boolean[] grounded; // Whether the agent stood on the ground after the last tick
+    final boolean[] hungry; // Set during a tick when the agent wants to eat at its tree
+    private int count;
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs an empty population.
+     *
+     * @param capacity The maximum number of agents.
+     */
+    public AgentPopulation(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        energy = new float[capacity];
+        grounded = new boolean[capacity];
+        hungry = new boolean[capacity];
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Adds an agent with full energy, at rest.
+     *
+     * @param topLeftX The agent's initial top-left x.
+     * @param topLeftY The agent's initial top-left y.
+     * @return The index of the new agent.
+     */
+    public int spawn(float topLeftX, float topLeftY) {
+        if (count == x.length) {
+            throw new IllegalStateException(ERROR_FULL + x.length);
+        }
+        int index = count++;
+        x[index] = topLeftX;
+        y[index] = topLeftY;
+        velocityX[index] = 0f;
+        velocityY[index] = 0f;
+        energy[index] = MAX_ENERGY;
+        grounded[index] = false;
+        hungry[index] = false;
+        return index;
+    }
+
+    /**
+     * Removes every agent.
+     */
+    public void clear() {
+        Arrays.fill(hungry, 0, count, false);
+        count = 0;
+    }
+
+    /**
+     * Returns the number of live agents.
+     *
+     * @return The agent count.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns an agent's top-left x.
+     *
+     * @param index The agent index.
+     * @return The x-coordinate.
+     */
+    public float getX(int index) {
+        return x[index];
+    }
+
+    /**
+     * Returns an agent's top-left y.
+     *
+     * @param index The agent index.
+     * @return The y-coordinate.
+     */
+    public float getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Returns an agent's horizontal velocity.
+     *
+     * @param index The agent index.
+     * @return The horizontal velocity.
+     */
+    public float getVelocityX(int index) {
+        return velocityX[index];
+    }
+
+    /**
+     * Gets the current energy of an agent.
+     *
+     * @param index The agent index.
+     * @return The current energy.
+     */
+    public float getEnergy(int index) {
+        return energy[index];
+    }
+
+    /**
+     * Adds energy to an agent.
+     *
+     * @param index  The agent index.
+     * @param amount The amount of energy to add.
+     */
+    public void addEnergy(int index, float amount) {
+        energy[index] = Math.min(energy[index] + amount, MAX_ENERGY);
+    }
+}
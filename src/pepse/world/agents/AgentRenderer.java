@@ -0,0 +1,105 @@
+package pepse.world.agents;
+
+import danogl.GameObject;
+import danogl.components.Transform;
+import danogl.gui.rendering.Camera;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.world.GameObjectSink;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives render proxies to the agents near the camera. Proxies are a small pool of plain
+ * GameObjects that are repositioned every tick; agents out of view have no GameObject at all.
+ */
+public class AgentRenderer {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    private static final Color AGENT_COLOR = new Color(120, 80, 160);
+    private static final float VIEW_MARGIN = AgentSimulator.AGENT_SIZE * 2; // Extra space around view
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final AgentPopulation population;
+    private final GameObjectSink gameObjects; // Where proxies are added and removed
+    private final int layer; // Layer the proxies are rendered in
+    private final int maxProxies; // Upper bound on agents drawn at once
+    private final Renderable renderable = new RectangleRenderable(AGENT_COLOR);
+    private final Vector2 proxySize = Vector2.ONES.mult(AgentSimulator.AGENT_SIZE);
+    private final List<GameObject> proxies = new ArrayList<>(); // Created on demand, reused
+    private int shownProxies; // Proxies currently added to the sink
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a renderer for a population.
+     *
+     * @param population  The agents to draw.
+     * @param gameObjects The sink proxies are added to and removed from.
+     * @param layer       The layer proxies are rendered in. Proxies take no part in collisions,
+     *                    so the layer should not collide with anything.
+     * @param maxProxies  The maximum number of agents drawn at once.
+     */
+    public AgentRenderer(AgentPopulation population, GameObjectSink gameObjects, int layer,
+                         int maxProxies) {
+        this.population = population;
+        this.gameObjects = gameObjects;
+        this.layer = layer;
+        this.maxProxies = maxProxies;
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Moves proxies onto the agents currently in view, adding or removing proxies through the
+     * sink as the number of visible agents changes.
+     *
+     * @param camera The camera whose view decides which agents are visible.
+     */
+    public void update(Camera camera) {
+        Vector2 viewTopLeft = camera.getTopLeftCorner();
+        Vector2 viewSize = camera.getDimensions();
+        float minX = viewTopLeft.x() - VIEW_MARGIN;
+        float maxX = viewTopLeft.x() + viewSize.x() + VIEW_MARGIN;
+        float minY = viewTopLeft.y() - VIEW_MARGIN;
+        float maxY = viewTopLeft.y() + viewSize.y() + VIEW_MARGIN;
+
+        int used = 0;
+        for (int i = 0; i < population.size() && used < maxProxies; i++) {
+            float x = population.getX(i);
+            float y = population.getY(i);
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                // Moved in place: a new Vector2 per agent per tick adds up in a hot path
+                Transform transform = proxy(used++).transform();
+                transform.setTopLeftCornerX(x);
+                transform.setTopLeftCornerY(y);
+            }
+        }
+        for (int i = shownProxies; i < used; i++) {
+            gameObjects.addGameObject(proxies.get(i), layer);
+        }
+        for (int i = used; i < shownProxies; i++) {
+            gameObjects.removeGameObject(proxies.get(i), layer);
+        }
+        shownProxies = used;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private GameObject proxy(int index) {
+        if (index == proxies.size()) {
+            proxies.add(new GameObject(Vector2.ZERO, proxySize, renderable));
+        }
+        return proxies.get(index);
+    }
+}
@@ -0,0 +1,285 @@
+package pepse.world.agents;
+
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Tree;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Advances a herd of foraging agents by one tick. Agents walk the terrain, jump up steps they
+ * cannot climb, spend energy like the avatar does, and eat fruit from the trees they pass when
+ * hungry. Trees stand where the biome puts them, like the ones the flora grows. The per-agent
+ * work runs in parallel over slices of the population on a fork-join pool; the only shared
+ * state, each tree's fruit stock, is resolved afterwards in index order, so the result does not
+ * depend on the parallelism.
+ * <p>
+ * The habitat is far wider than the streamed world, so most of the trees agents visit are not
+ * loaded. While a tree is loaded, agents eat its real fruit, which disappears and regrows as if
+ * the avatar had collected it, so the avatar and the agents compete for the same fruit. Every
+ * other tree has a simulated stock of {@value #FRUITS_PER_TREE} fruit, all regrown every
+ * {@value #FRUIT_REGROW_INTERVAL} seconds.
+ */
+public class AgentSimulator {
+
+    // =======================
+    //   CONSTANTS
+    // =======================
+    /**
+     * Width and height of an agent.
+     */
+    public static final float AGENT_SIZE = 24f;
+    private static final float GRAVITY = 600; // Same acceleration as the avatar
+    private static final float WALK_SPEED = 90; // Horizontal velocity while walking
+    private static final float JUMP_VELOCITY = -400; // Enough to clear a two-block step
+    private static final float MAX_STEP_WITHOUT_JUMP = Block.SIZE; // Steps agents walk up
+    private static final float ENERGY_RECOVERY_RATE = 10; // Energy recovered per second at rest
+    private static final float ENERGY_CONSUMPTION_WALK_RATE = 5; // Energy consumed per second walking
+    private static final float ENERGY_CONSUMPTION_JUMP = 10;
+    private static final float HUNGER_THRESHOLD = 40; // Below this, agents eat when under a tree
+    private static final float FRUIT_ENERGY_REWARD = 10;
+    private static final int FRUITS_PER_TREE = 4;
+    private static final float FRUIT_REGROW_INTERVAL = 30f; // Same interval as the trees' fruit
+    private static final float FORAGE_REACH = 30f; // Horizontal distance from a trunk to eat at
+    private static final int DECISION_INTERVAL_TICKS = 90; // Ticks between heading changes
+    private static final int SLICE_SIZE = 4096; // Agents per fork-join leaf task
+    private static final int HEADING_CHOICES = 3; // Left, stay, right
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final AgentPopulation population;
+    private final HeightField heights;
+    private final ForkJoinPool pool;
+    private final Flora flora; // Loaded trees, whose real fruit is eaten; may be null
+    private final int seed;
+    private final int firstTree; // Tree slot of fruitStock[0]
+    private final int[] fruitCapacity; // Fruit each tree slot of the habitat grows, 0 if empty
+    private final int[] fruitStock; // Fruit left on each tree of the habitat that is not loaded
+    private long tickCount;
+    private float timeSinceRegrow;
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Constructs a simulator for a population living on the given stretch of terrain.
+     *
+     * @param population The agents to simulate.
+     * @param heights    The ground heights of the agents' habitat; agents stay within it.
+     * @param terrain    The terrain whose biomes decide which tree slots hold a tree.
+     * @param flora      The flora whose loaded trees agents eat from, or null to simulate the
+     *                   fruit of every tree.
+     * @param seed       The world seed, for the trees and the agents' decisions.
+     * @param pool       The pool the per-agent work runs on.
+     */
+    public AgentSimulator(AgentPopulation population, HeightField heights, Terrain terrain,
+                          Flora flora, int seed, ForkJoinPool pool) {
+        this.population = population;
+        this.heights = heights;
+        this.flora = flora;
+        this.seed = seed;
+        this.pool = pool;
+        this.firstTree = treeSlot(heights.getMinX());
+        this.fruitCapacity = new int[treeSlot(heights.getMaxX()) - firstTree + 1];
+        for (int slot = 0; slot < fruitCapacity.length; slot++) {
+            int treeX = (firstTree + slot) * Flora.TREE_SPACING;
+            if (terrain.biomeAt(treeX).hasTreeAt(treeX, seed)) {
+                fruitCapacity[slot] = FRUITS_PER_TREE;
+            }
+        }
+        this.fruitStock = fruitCapacity.clone();
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Advances every agent by one tick.
+     *
+     * @param deltaTime The tick duration (in seconds).
+     */
+    public void tick(float deltaTime) {
+        int count = population.size();
+        if (count > SLICE_SIZE) {
+            pool.invoke(new SliceTask(0, count, deltaTime));
+        } else {
+            updateSlice(0, count, deltaTime);
+        }
+        feedHungryAgents();
+        timeSinceRegrow += deltaTime;
+        if (timeSinceRegrow >= FRUIT_REGROW_INTERVAL) {
+            timeSinceRegrow -= FRUIT_REGROW_INTERVAL;
+            System.arraycopy(fruitCapacity, 0, fruitStock, 0, fruitStock.length);
+        }
+        tickCount++;
+    }
+
+    /**
+     * Returns the number of ticks simulated so far.
+     *
+     * @return The tick count.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    /**
+     * Updates agents [from, to). Touches only the slice's own array entries.
+     */
+    private void updateSlice(int from, int to, float deltaTime) {
+        float[] x = population.x;
+        float[] y = population.y;
+        float[] velocityX = population.velocityX;
+        float[] velocityY = population.velocityY;
+        float[] energy = population.energy;
+        boolean[] grounded = population.grounded;
+        boolean[] hungry = population.hungry;
+        float minX = heights.getMinX();
+        float maxX = heights.getMaxX() - AGENT_SIZE;
+
+        for (int i = from; i < to; i++) {
+            hungry[i] = false;
+            if (grounded[i]) {
+                float centerX = x[i] + AGENT_SIZE / 2;
+                if ((tickCount + i) % DECISION_INTERVAL_TICKS == 0) {
+                    velocityX[i] = chooseHeading(i) * WALK_SPEED;
+                }
+                float walkCost = ENERGY_CONSUMPTION_WALK_RATE * deltaTime;
+                if (energy[i] < HUNGER_THRESHOLD && isUnderTree(centerX)) {
+                    velocityX[i] = 0;
+                    hungry[i] = true;
+                } else if (energy[i] < walkCost) {
+                    velocityX[i] = 0;
+                }
+                if (velocityX[i] != 0) {
+                    energy[i] -= walkCost;
+                    float ground = heights.groundHeightAt(centerX);
+                    float ahead = heights.groundHeightAt(
+                            centerX + Math.signum(velocityX[i]) * Block.SIZE);
+                    if (ground - ahead > MAX_STEP_WITHOUT_JUMP) {
+                        if (energy[i] >= ENERGY_CONSUMPTION_JUMP) {
+                            velocityY[i] = JUMP_VELOCITY;
+                            energy[i] -= ENERGY_CONSUMPTION_JUMP;
+                            grounded[i] = false;
+                        } else {
+                            velocityX[i] = -velocityX[i]; // Too tired to climb, turn around
+                        }
+                    }
+                } else {
+                    energy[i] = Math.min(energy[i] + ENERGY_RECOVERY_RATE * deltaTime,
+                            AgentPopulation.MAX_ENERGY);
+                }
+            }
+
+            velocityY[i] += GRAVITY * deltaTime;
+            x[i] += velocityX[i] * deltaTime;
+            if (x[i] < minX || x[i] > maxX) {
+                x[i] = Math.max(minX, Math.min(x[i], maxX));
+                velocityX[i] = -velocityX[i];
+            }
+            y[i] += velocityY[i] * deltaTime;
+
+            float ground = heights.groundHeightAt(x[i] + AGENT_SIZE / 2);
+            if (y[i] + AGENT_SIZE >= ground) {
+                y[i] = ground - AGENT_SIZE;
+                velocityY[i] = 0;
+                grounded[i] = true;
+            } else {
+                grounded[i] = false;
+            }
+        }
+    }
+
+    /**
+     * Lets hungry agents eat, in index order, while their tree has fruit left: the tree's real
+     * fruit if it is loaded, its simulated stock otherwise.
+     */
+    private void feedHungryAgents() {
+        boolean[] hungry = population.hungry;
+        for (int i = 0; i < population.size(); i++) {
+            if (hungry[i]) {
+                float centerX = population.x[i] + AGENT_SIZE / 2;
+                int slot = treeSlot(centerX) - firstTree;
+                if (slot < 0 || slot >= fruitStock.length) {
+                    continue;
+                }
+                Tree tree = flora != null ? flora.getTreeAt(centerX) : null;
+                boolean ate;
+                if (tree != null) {
+                    ate = tree.eatFruit();
+                } else {
+                    ate = fruitStock[slot] > 0;
+                    if (ate) {
+                        fruitStock[slot]--;
+                    }
+                }
+                if (ate) {
+                    population.addEnergy(i, FRUIT_ENERGY_REWARD);
+                }
+            }
+        }
+    }
+
+    private boolean isUnderTree(float centerX) {
+        int tree = treeSlot(centerX);
+        int slot = tree - firstTree;
+        if (slot < 0 || slot >= fruitCapacity.length || fruitCapacity[slot] == 0) {
+            return false; // No tree stands in the slot
+        }
+        return centerX - tree * (float) Flora.TREE_SPACING <= FORAGE_REACH;
+    }
+
+    private static int treeSlot(float x) {
+        return (int) Math.floor(x / Flora.TREE_SPACING);
+    }
+
+    /**
+     * Picks -1, 0 or 1 from a hash of the seed, the agent and the current decision period.
+     */
+    private int chooseHeading(int agent) {
+        long period = (tickCount + agent) / DECISION_INTERVAL_TICKS;
+        long hash = mix(seed * 0x9E3779B97F4A7C15L + agent * 0xC2B2AE3D27D4EB4FL + period);
+        return (int) Math.floorMod(hash, (long) HEADING_CHOICES) - 1;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    /**
+     * Splits the population in halves until slices are small enough to update directly.
+     */
+    private class SliceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final float deltaTime;
+
+        SliceTask(int from, int to, float deltaTime) {
+            this.from = from;
+            this.to = to;
+            this.deltaTime = deltaTime;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SLICE_SIZE) {
+                updateSlice(from, to, deltaTime);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SliceTask(from, middle, deltaTime), new SliceTask(middle, to, deltaTime));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package pepse.world.agents;
+
+import pepse.world.Block;
+import pepse.world.Terrain;
+
+/**
+ * Ground heights of a bounded stretch of terrain, sampled once per block column. Agents look
+ * heights up here instead of evaluating the terrain noise, which keeps the per-agent tick cheap
+ * and free of shared mutable state.
+ */
+public class HeightField {
+
+    // =======================
+    //   FIELDS
+    // =======================
+    private final int firstColumn; // Column index of heights[0]
+    private final float[] heights; // Ground height of each column
+
+    // =======================
+    //   CONSTRUCTOR
+    // =======================
+    /**
+     * Samples the terrain between two x-coordinates.
+     *
+     * @param terrain The terrain to sample.
+     * @param minX    The minimum x-coordinate.
+     * @param maxX    The maximum x-coordinate.
+     */
+    public HeightField(Terrain terrain, float minX, float maxX) {
+        this.firstColumn = columnOf(minX);
+        int lastColumn = columnOf(maxX);
+        this.heights = new float[lastColumn - firstColumn + 1];
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = terrain.groundHeightAt((firstColumn + i) * (float) Block.SIZE);
+        }
+    }
+
+    // =======================
+    //   PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the ground height of the column containing an x-coordinate. Coordinates outside
+     * the sampled range are clamped to its edges.
+     *
+     * @param x The x-coordinate.
+     * @return The ground height.
+     */
+    public float groundHeightAt(float x) {
+        int index = columnOf(x) - firstColumn;
+        return heights[Math.max(0, Math.min(index, heights.length - 1))];
+    }
+
+    /**
+     * Returns the smallest x-coordinate covered by the field.
+     *
+     * @return The minimum x-coordinate.
+     */
+    public float getMinX() {
+        return firstColumn * (float) Block.SIZE;
+    }
+
+    /**
+     * Returns the largest x-coordinate covered by the field.
+     *
+     * @return The maximum x-coordinate.
+     */
+    public float getMaxX() {
+        return (firstColumn + heights.length) * (float) Block.SIZE;
+    }
+
+    // =======================
+    //   PRIVATE METHODS
+    // =======================
+    private static int columnOf(float x) {
+        return (int) Math.floor(x / Block.SIZE);
+    }
+}
@@ -5,8 +5,11 @@ import danogl.components.CoordinateSpace;
 import danogl.components.Transition;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
+import pepse.event.WorldEventBus;
+import pepse.event.WorldEventType;
 
 import java.awt.*;
+import java.util.function.Consumer;
 
 /**
  * A utility class for creating the night effect in the game world.
@@ -22,6 +25,7 @@ public class Night {
     private static final float INITIAL_OPACITY = 0f;        // Initial opacity at daytime
     private static final Color NIGHT_COLOR = Color.BLACK;   // Color of the night overlay
     private static final String NIGHT_TAG = "night";        // Tag for the night GameObject
+    private static final float DUSK_OPACITY = MIDNIGHT_OPACITY / 2; // Opacity at which night begins
 
     // =======================
     //    PUBLIC METHODS
@@ -32,9 +36,11 @@ public class Night {
      *
      * @param windowDimensions The dimensions of the game window (used for the night overlay).
      * @param cycleLength      Length of the day-night cycle in seconds.
+     * @param eventBus         The bus day and night transitions are published to.
      * @return A GameObject representing the night effect.
      */
-    public static GameObject create(Vector2 windowDimensions, float cycleLength) {
+    public static GameObject create(Vector2 windowDimensions, float cycleLength,
+                                    WorldEventBus eventBus) {
         // Create the night overlay
         GameObject night = new GameObject(
                 new Vector2(Vector2.ZERO),
@@ -44,10 +50,22 @@ public class Night {
         night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         night.setTag(NIGHT_TAG);
 
+        // Publish a transition whenever the opacity crosses dusk, in either direction
+        float[] lastOpacity = {INITIAL_OPACITY};
+        Consumer<Float> setOpacity = opacity -> {
+            if (lastOpacity[0] < DUSK_OPACITY && opacity >= DUSK_OPACITY) {
+                eventBus.publish(WorldEventType.NIGHT_STARTED, 0f, 0f, opacity);
+            } else if (lastOpacity[0] >= DUSK_OPACITY && opacity < DUSK_OPACITY) {
+                eventBus.publish(WorldEventType.DAY_STARTED, 0f, 0f, opacity);
+            }
+            lastOpacity[0] = opacity;
+            night.renderer().setOpaqueness(opacity);
+        };
+
         // Add a transition to change the opacity of the night effect
         new Transition<>(
                 night,
-                night.renderer()::setOpaqueness,
+                setOpacity,
                 INITIAL_OPACITY,
                 MIDNIGHT_OPACITY,
                 Transition.CUBIC_INTERPOLATOR_FLOAT,
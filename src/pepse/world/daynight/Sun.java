@@ -55,14 +55,11 @@ public class Sun {
         // Calculate the cycle center (middle of the ground surface)
         Vector2 cycleCenter = new Vector2(windowDimensions.x() / 2, Terrain.groundHeightAtX0);
 
-        // Create a transition for the sun's circular movement
+        // Create a transition for the sun's circular movement around the cycle center
+        Vector2 radius = initialSunCenter.subtract(cycleCenter);
         new Transition<>(
                 sun,
-                (Float angle) -> sun.setCenter(
-                        initialSunCenter.subtract(cycleCenter)
-                                .rotated(angle)
-                                .add(cycleCenter)
-                ),
+                (Float angle) -> sun.setCenter(radius.rotated(angle).add(cycleCenter)),
                 0f,
                 MAX_CIRCLE_ANGLE,
                 Transition.LINEAR_INTERPOLATOR_FLOAT,
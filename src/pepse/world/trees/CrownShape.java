@@ -0,0 +1,182 @@
+package pepse.world.trees;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static pepse.world.trees.TreeDescriptor.LEAF_SIZE;
+import static pepse.world.trees.TreeDescriptor.TRUNK_WIDTH;
+
+/**
+ * The shapes a tree crown can take. Each shape's leaf layout is computed once into a packed
+ * template of leaf offsets from the top-left of the trunk, so a tree's leaf positions are made
+ * by stamping the template at its trunk in one pass. Declared in the order of the shape indices
+ * picked by {@link pepse.world.Biome#pickShape(float)}.
+ */
+public enum CrownShape {
+    /**
+     * An upside-down triangle with a smaller triangle above it.
+     */
+    DIAMOND("diamond", Layout::diamond),
+    /**
+     * An upside-down triangle.
+     */
+    TRIANGLE("triangle", Layout::triangle),
+    /**
+     * A square grid.
+     */
+    SQUARE("square", Layout::square);
+
+    // =======================
+    //       CONSTANTS
+    // =======================
+    private static final float SPACE_BETWEEN_LEAVES = 3f;
+    private static final float TRIANGLE_SPACE_BETWEEN_LEAVES = 18f;
+    private static final int TRIANGLE_BASE_WIDTH = 4; // The base width of the triangle
+    private static final float TRIANGLE_START_OFFSET_Y = 8f;  // Vertical shift before drawing triangle
+    private static final float LEAF_ROW_SPACING = 3f;
+
+    // -- Square leaves --
+    private static final int SQUARE_NUM_LEAVES_PER_ROW = 4;
+    private static final int SQUARE_NUM_ROWS = 4;
+    private static final float SQUARE_OFFSET_X_FACTOR = 2f;   // For shifting leaves in X
+    private static final float SQUARE_OFFSET_Y_FACTOR = 2.5f; // For shifting leaves in Y
+
+    // -- Diamond leaves --
+    private static final int DIAMOND_UPPER_TRIANGLE_ROWS = 2;
+    private static final int DIAMOND_LOWER_TRIANGLE_ROWS = 3;
+
+    private static final int MAX_LEAVES = SQUARE_NUM_ROWS * SQUARE_NUM_LEAVES_PER_ROW;
+    private static final CrownShape[] BY_INDEX = values();
+
+    // =======================
+    //        FIELDS
+    // =======================
+    private final String name;
+    private final float[] template; // Leaf x,y offsets from the trunk's top-left, in creation order
+
+    // =======================
+    //     CONSTRUCTOR
+    // =======================
+    CrownShape(String name, Consumer<Layout> layOut) {
+        this.name = name;
+        Layout layout = new Layout();
+        layOut.accept(layout); // Once per shape
+        this.template = Arrays.copyOf(layout.offsets, layout.count * 2);
+    }
+
+    // =======================
+    //    PUBLIC METHODS
+    // =======================
+    /**
+     * Returns the shape with an index picked by {@link pepse.world.Biome#pickShape(float)}.
+     *
+     * @param index The shape index.
+     * @return The shape.
+     */
+    public static CrownShape byIndex(int index) {
+        return BY_INDEX[index];
+    }
+
+    /**
+     * Returns the shape's name, e.g. for profiling events.
+     *
+     * @return The lowercase name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of leaves in the shape.
+     *
+     * @return The leaf count.
+     */
+    public int getLeafCount() {
+        return template.length / 2;
+    }
+
+    /**
+     * Stamps the shape's leaves onto a trunk.
+     *
+     * @param trunkX The x-coordinate of the trunk's left edge.
+     * @param trunkY The y-coordinate of the trunk's top.
+     * @return The leaves' top-left x,y pairs, in creation order.
+     */
+    public float[] stamp(float trunkX, float trunkY) {
+        float[] positions = new float[template.length];
+        for (int i = 0; i < template.length; i += 2) {
+            positions[i] = trunkX + template[i];
+            positions[i + 1] = trunkY + template[i + 1];
+        }
+        return positions;
+    }
+
+    // =======================
+    //   PRIVATE CLASSES
+    // =======================
+    /**
+     * Computes leaf offsets for the crown shapes, on a trunk whose top-left is the origin.
+     */
+    private static class Layout {
+        private final float[] offsets = new float[MAX_LEAVES * 2];
+        private int count;
+
+        void square() {
+            float startX = TRUNK_WIDTH / 2 - SQUARE_OFFSET_X_FACTOR *
+                    (LEAF_SIZE + SPACE_BETWEEN_LEAVES);
+            float startY = -SQUARE_OFFSET_Y_FACTOR * (LEAF_SIZE + SPACE_BETWEEN_LEAVES);
+
+            float leafSpacingX = LEAF_SIZE + SPACE_BETWEEN_LEAVES;
+            float leafSpacingY = LEAF_SIZE + SPACE_BETWEEN_LEAVES;
+
+            for (int row = 0; row < SQUARE_NUM_ROWS; row++) {
+                for (int col = 0; col < SQUARE_NUM_LEAVES_PER_ROW; col++) {
+                    add(startX + col * leafSpacingX, startY + row * leafSpacingY);
+                }
+            }
+        }
+
+        void triangle() {
+            triangle(0, TRIANGLE_BASE_WIDTH, true);
+        }
+
+        void diamond() {
+            triangle(0, DIAMOND_LOWER_TRIANGLE_ROWS, true);
+            triangle(DIAMOND_LOWER_TRIANGLE_ROWS * (LEAF_SIZE + DIAMOND_LOWER_TRIANGLE_ROWS),
+                    DIAMOND_UPPER_TRIANGLE_ROWS, false);
+        }
+
+        /**
+         * Lays out a triangle whose base row sits a given height above the trunk's top.
+         */
+        private void triangle(float raise, int numOfRows, boolean isUpsideDown) {
+            float startX = TRUNK_WIDTH / 2;
+            float startY = -raise - TRIANGLE_START_OFFSET_Y;
+            float leafSpacing = LEAF_SIZE + TRIANGLE_SPACE_BETWEEN_LEAVES;
+
+            for (int row = 0; row < numOfRows; row++) {
+                int numLeavesInRow = isUpsideDown ? (row + 1) : (numOfRows - row);
+                float rowWidth = triangleRowWidth(row, numOfRows, isUpsideDown);
+                float rowStartX = startX - rowWidth / 2;
+
+                for (int col = 0; col < numLeavesInRow; col++) {
+                    add(rowStartX + col * leafSpacing, startY - row * (LEAF_SIZE + LEAF_ROW_SPACING));
+                }
+            }
+        }
+
+        private float triangleRowWidth(int row, int numOfRows, boolean isUpsideDown) {
+            if (isUpsideDown) {
+                return (row + 1) * LEAF_SIZE + row * TRIANGLE_SPACE_BETWEEN_LEAVES;
+            }
+            int amountOfLeavesInRow = numOfRows - row;
+            return amountOfLeavesInRow * LEAF_SIZE + (amountOfLeavesInRow - 1) * TRIANGLE_SPACE_BETWEEN_LEAVES;
+        }
+
+        private void add(float leafX, float leafY) {
+            offsets[2 * count] = leafX;
+            offsets[2 * count + 1] = leafY;
+            count++;
+        }
+    }
+}
@@ -1,33 +1,44 @@
 package pepse.world.trees;
 
-import danogl.collisions.GameObjectCollection;
-import danogl.util.Vector2;
+import pepse.event.WorldEventBus;
+import pepse.profiling.TreeBuiltEvent;
+import pepse.util.collections.LongObjectMap;
+import pepse.world.Biome;
+import pepse.world.ChunkCache;
+import pepse.world.GameObjectSink;
 import pepse.world.Terrain;
 
-import java.util.*;
+import java.util.function.Consumer;
 
-import static pepse.PepseGameManager.SEED;
+import static pepse.PepseGameManager.getSeed;
 
 /**
- * Manages the creation and removal of trees in the game world. Handles tree placement,
- * ensuring alignment to a grid, and maintains active trees within a specified range.
+ * Manages the creation and removal of trees in the game world. Trees stand on a grid of
+ * slots {@link #TREE_SPACING} apart and are streamed in and out one slot at a time; removed
+ * trees are kept in a cache so walking back shows them again instead of rebuilding them.
  */
 public class Flora {
 
     // =======================
     //   CONSTANTS
     // =======================
-    private static final int TREE_SPACING = 210; // Distance between trees
-    private static final int ALIGNMENT_FACTOR = 210; // Alignment factor for tree positioning
-    private static final String ERROR_MINX_GREATER_THAN_MAXX = "minX must be smaller than maxX.";
+    /**
+     * Distance between trees. Trees stand at every multiple of this x-coordinate.
+     */
+    public static final int TREE_SPACING = 210;
+    /**
+     * The name tree caches are reported under.
+     */
+    public static final String CACHE_NAME = "tree";
 
     // =======================
     //   FIELDS
     // =======================
     private final Terrain terrain;
-    private final GameObjectCollection gameObjects;
-    private final Runnable fruitCallback;
-    private final HashMap<Vector2, Tree> activeTrees = new HashMap<>();
+    private final GameObjectSink gameObjects;
+    private final WorldEventBus eventBus;
+    private final LongObjectMap<Tree> activeTrees = new LongObjectMap<>(); // Keyed by tree slot
+    private final ChunkCache<Tree> cachedTrees; // Removed trees kept hidden, by tree slot
 
     // =======================
     //   CONSTRUCTOR
@@ -37,92 +48,168 @@ public class Flora {
      *
      * @param terrain      The terrain object, used to determine ground height.
      * @param gameObjects  The collection of game objects.
-     * @param fruitCallback A callback function for handling tree fruit-related actions.
+     * @param eventBus     The bus trees publish fruit collection to.
+     */
+    public Flora(Terrain terrain, GameObjectSink gameObjects, WorldEventBus eventBus) {
+        this(terrain, gameObjects, eventBus, new ChunkCache<>(CACHE_NAME, 0));
+    }
+
+    /**
+     * Constructs a Flora instance that keeps removed trees in a cache, and grows them back from
+     * it rather than building them again.
+     *
+     * @param terrain      The terrain object, used to determine ground height.
+     * @param gameObjects  The collection of game objects.
+     * @param eventBus     The bus trees publish fruit collection to.
+     * @param cachedTrees  The cache removed trees are kept in.
      */
-    public Flora(Terrain terrain, GameObjectCollection gameObjects, Runnable fruitCallback) {
+    public Flora(Terrain terrain, GameObjectSink gameObjects, WorldEventBus eventBus,
+                 ChunkCache<Tree> cachedTrees) {
         this.terrain = terrain;
         this.gameObjects = gameObjects;
-        this.fruitCallback = fruitCallback;
+        this.eventBus = eventBus;
+        this.cachedTrees = cachedTrees;
     }
 
     // =======================
     //   PUBLIC METHODS
     // =======================
     /**
-     * Creates trees in a specified range of x-coordinates.
+     * Creates the tree standing at an x-coordinate, unless it already exists or the biome
+     * leaves the slot empty. A tree removed recently is shown again from the cache.
      *
-     * @param minX The minimum x-coordinate of the range.
-     * @param maxX The maximum x-coordinate of the range.
-     * @return A list of created Tree objects.
+     * @param x The x-coordinate of the tree, a multiple of {@link #TREE_SPACING}.
      */
-    public List<Tree> createInRange(int minX, int maxX) {
-        if (minX >= maxX) {
-            throw new IllegalArgumentException(ERROR_MINX_GREATER_THAN_MAXX);
+    public void createTreeAt(int x) {
+        long key = treeKey(x);
+        Biome biome = terrain.biomeAt(x);
+        if (biome.hasTreeAt(x, getSeed()) && !activeTrees.containsKey(key) &&
+                !showCached(key)) {
+            plant(TreeDescriptor.generate(x, terrain.groundHeightAt(x), getSeed(), biome));
         }
+    }
 
-        int startX = alignToFactor(minX, true);
-        int endX = alignToFactor(maxX, false);
-        List<Tree> trees = new ArrayList<>();
-
-        for (int x = startX; x <= endX; x += TREE_SPACING) {
-            float groundHeight = terrain.groundHeightAt(x);
-            Vector2 treePosition = new Vector2(x, groundHeight);
-
-            if (!activeTrees.containsKey(treePosition)) {
-                Tree tree = new Tree(
-                        gameObjects,
-                        treePosition,
-                        fruitCallback,
-                        new Random(Objects.hash(treePosition.x(), SEED))
-                );
-                tree.buildTree();
-                trees.add(tree);
-                activeTrees.put(treePosition, tree);
-            }
+    /**
+     * Removes the tree standing at an x-coordinate, if it exists, keeping it in the cache.
+     *
+     * @param x The x-coordinate of the tree, a multiple of {@link #TREE_SPACING}.
+     */
+    public void removeTreeAt(int x) {
+        long key = treeKey(x);
+        Tree tree = activeTrees.remove(key);
+        if (tree != null) {
+            tree.hide(); // Removes all parts of the tree, to be shown again if cached
+            cachedTrees.put(key, tree, tree.getObjectCount());
         }
+    }
 
-        return trees;
+    /**
+     * Recreates a tree saved in a snapshot, with its eaten fruit removed. The ground height is
+     * taken from the snapshot rather than the terrain noise.
+     *
+     * @param x          The x-coordinate of the tree.
+     * @param groundY    The ground height the tree stands on.
+     * @param eatenFruit The tree's eaten fruit, see {@link Tree#getEatenFruit()}.
+     */
+    public void restoreTree(int x, float groundY, long eatenFruit) {
+        long key = treeKey(x);
+        if (!activeTrees.containsKey(key) && !showCached(key)) {
+            Tree tree = plant(TreeDescriptor.generate(x, groundY, getSeed(),
+                    terrain.biomeAt(x)));
+            tree.setEatenFruit(eatenFruit);
+        }
     }
 
     /**
-     * Removes trees outside the specified range of x-coordinates.
+     * Passes every standing tree to an action, in no particular order.
      *
-     * @param minX The minimum x-coordinate of the range.
-     * @param maxX The maximum x-coordinate of the range.
+     * @param action The action to apply.
      */
-    public void removeTreesOutsideRange(int minX, int maxX) {
-        List<Vector2> treesToRemove = new ArrayList<>();
+    public void forEachTree(Consumer<Tree> action) {
+        activeTrees.forEachValue(action);
+    }
 
-        for (Vector2 treePosition : activeTrees.keySet()) {
-            if (treePosition.x() > minX && treePosition.x() < maxX) {
-                treesToRemove.add(treePosition);
-            }
+    /**
+     * Creates a tree from a descriptor generated ahead of time, e.g. by a
+     * {@link pepse.world.WorldGenerator}, unless it already exists. A tree removed recently is
+     * shown again from the cache instead of being built.
+     *
+     * @param descriptor The descriptor of the tree to create.
+     */
+    public void createTree(TreeDescriptor descriptor) {
+        long key = treeKey(descriptor.getX());
+        if (!activeTrees.containsKey(key) && !showCached(key)) {
+            plant(descriptor);
         }
+    }
 
-        for (Vector2 treePosition : treesToRemove) {
-            Tree tree = activeTrees.remove(treePosition);
-            tree.removeTree(); // Removes all parts of the tree
+    /**
+     * Returns the x-coordinates of the tree slots within a range, in increasing order. Whether a
+     * slot holds a tree is up to its biome, see {@link Biome#hasTreeAt(int, int)}.
+     *
+     * @param minX The minimum x-coordinate of the range, inclusive.
+     * @param maxX The maximum x-coordinate of the range, exclusive.
+     * @return The tree x-coordinates.
+     */
+    public static int[] treePositionsInRange(int minX, int maxX) {
+        int first = Math.floorDiv(minX + TREE_SPACING - 1, TREE_SPACING);
+        int last = Math.floorDiv(maxX - 1, TREE_SPACING);
+        int[] positions = new int[Math.max(0, last - first + 1)];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (first + i) * TREE_SPACING;
         }
+        return positions;
+    }
+
+    /**
+     * Returns the tree standing in the world at an x-coordinate's slot.
+     *
+     * @param x An x-coordinate within the tree's slot.
+     * @return The tree, or null if the slot's tree is not loaded or the slot is empty.
+     */
+    public Tree getTreeAt(float x) {
+        return activeTrees.get(treeKey(x));
     }
 
     // =======================
     //   PRIVATE METHODS
     // =======================
     /**
-     * Aligns a value to the nearest multiple of the alignment factor.
+     * Shows the tree of a slot again if it is cached; a cached tree is newer than any saved one.
      *
-     * @param value   The value to align.
-     * @param roundUp True to round up, false to round down.
-     * @return The aligned value.
+     * @return True if the tree was cached.
      */
-    private int alignToFactor(int value, boolean roundUp) {
-        int remainder = value % ALIGNMENT_FACTOR;
-        if (remainder == 0) {
-            return value;
+    private boolean showCached(long key) {
+        Tree tree = cachedTrees.take(key);
+        if (tree == null) {
+            return false;
         }
-        if (value < 0) {
-            remainder = ALIGNMENT_FACTOR + remainder;
+        tree.show();
+        activeTrees.put(key, tree);
+        return true;
+    }
+
+    private Tree plant(TreeDescriptor descriptor) {
+        TreeBuiltEvent event = new TreeBuiltEvent();
+        event.begin();
+        Tree tree = new Tree(gameObjects, descriptor, eventBus);
+        tree.buildTree();
+        activeTrees.put(treeKey(descriptor.getX()), tree);
+        if (event.shouldCommit()) {
+            event.x = descriptor.getX();
+            event.shape = descriptor.getShape().getName();
+            event.leafCount = descriptor.getLeafCount();
+            event.fruitCount = descriptor.getFruitCount();
+            event.commit();
         }
-        return roundUp ? value + (ALIGNMENT_FACTOR - remainder) : value - remainder;
+        return tree;
+    }
+
+    /**
+     * Returns the key of the tree slot an x-coordinate falls in. The ground height is a function
+     * of x, so the slot alone identifies a tree.
+     */
+    private static long treeKey(float x) {
+        return Math.floorDiv(Math.round(x), TREE_SPACING);
     }
 }
\ No newline at end of file
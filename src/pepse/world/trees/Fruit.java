@@ -1,24 +1,25 @@
 package pepse.world.trees;
 
 import danogl.GameObject;
-import danogl.collisions.Collision;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.util.Vector2;
-import pepse.world.Avatar;
+import pepse.world.EntityTypes;
+import pepse.world.InteractionGrid;
+import pepse.world.TypedEntity;
 
 import java.awt.*;
 import java.util.Random;
 
 /**
  * Represents a fruit in the game world.
- * A fruit has a random color and can be collected by the avatar.
+ * A fruit has a random color and can be collected by the avatar. It takes no part in the
+ * engine's collision pass; touching the avatar is detected by an {@link InteractionGrid}.
  */
-public class Fruit extends GameObject {
+public class Fruit extends GameObject implements TypedEntity {
 
     // =======================
     //       CONSTANTS
     // =======================
-    private static final String AVATAR_TAG = "avatar";      // Tag for the avatar
     private static final float MIN_RED_VALUE = 0.5f;        // Minimum red value for the fruit color
     private static final float RED_RANGE = 0.5f;           // Range of red value
     private static final float MAX_GREEN_BLUE_VALUE = 0.5f; // Maximum green and blue value
@@ -50,18 +51,11 @@ public class Fruit extends GameObject {
     // =======================
 
     /**
-     * Handles collision with other game objects.
-     *
-     * @param other     The other game object involved in the collision.
-     * @param collision The collision data.
+     * Collects the fruit, running the callback set by {@link #setRunnable(Runnable)}.
      */
-    @Override
-    public void onCollisionEnter(GameObject other, Collision collision) {
-        super.onCollisionEnter(other, collision);
-        if (other.getTag().equals(AVATAR_TAG)) {
-            if (onCollect != null) {
-                onCollect.run();
-            }
+    public void collect() {
+        if (onCollect != null) {
+            onCollect.run();
         }
     }
 
@@ -77,6 +71,16 @@ public class Fruit extends GameObject {
         this.onCollect = onCollect;
     }
 
+    /**
+     * Returns the object's kind.
+     *
+     * @return {@link EntityTypes#FRUIT}.
+     */
+    @Override
+    public int getEntityType() {
+        return EntityTypes.FRUIT;
+    }
+
     // =======================
     //    PRIVATE METHODS
     // =======================
@@ -6,14 +6,18 @@ import danogl.components.Transition;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.world.EntityTypes;
+import pepse.world.TypedEntity;
 
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Represents a leaf in the game world.
  * A leaf can move and change its size and angle dynamically over time.
  */
-public class Leaf extends GameObject {
+public class Leaf extends GameObject implements TypedEntity {
 
     // =======================
     //       CONSTANTS
@@ -23,10 +27,12 @@ public class Leaf extends GameObject {
     private static final float MIN_RENDERABLE_ANGLE = -5f;
     private static final float MAX_RENDERABLE_ANGLE = 5f;
     private static final float MIN_SIZE_FACTOR = 0.95f;
+    private static final int SIZE_STEPS = 16; // Distinct sizes a leaf passes through, finer than a pixel
     private static final int BASE_GREEN_VALUE = 150;
     private static final int GREEN_SHADE_MULTIPLIER = 55;
     private static final int RED_VALUE = 50;
     private static final int BLUE_VALUE = 30;
+    private static final Map<Float, Vector2[]> SIZE_TABLES = new HashMap<>(); // Keyed by full size
 
     // =======================
     //     CONSTRUCTOR
@@ -61,6 +67,16 @@ public class Leaf extends GameObject {
         );
     }
 
+    /**
+     * Returns the object's kind.
+     *
+     * @return {@link EntityTypes#LEAF}.
+     */
+    @Override
+    public int getEntityType() {
+        return EntityTypes.LEAF;
+    }
+
     // =======================
     //    PRIVATE METHODS
     // =======================
@@ -82,12 +98,16 @@ public class Leaf extends GameObject {
                 null
         );
 
-        // Transition for size movement
+        // Transition for size movement, through shared precomputed sizes so it does not allocate
+        float maxSize = getDimensions().x();
+        float minSize = maxSize * MIN_SIZE_FACTOR;
+        Vector2[] sizes = SIZE_TABLES.computeIfAbsent(maxSize, Leaf::createSizeTable);
         new Transition<>(
                 this,
-                size -> setDimensions(new Vector2(size, size)),
-                getDimensions().x() * MIN_SIZE_FACTOR, // 95% of original size
-                getDimensions().x(),                  // 100% of original size
+                size -> setDimensions(sizes[Math.max(0, Math.min(SIZE_STEPS,
+                        Math.round((size - minSize) / (maxSize - minSize) * SIZE_STEPS)))]),
+                minSize, // 95% of original size
+                maxSize, // 100% of original size
                 Transition.CUBIC_INTERPOLATOR_FLOAT,
                 TRANSITION_DURATION,
                 Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
@@ -95,6 +115,19 @@ public class Leaf extends GameObject {
         );
     }
 
+    /**
+     * Creates the square sizes a leaf of the given full size passes through, smallest first.
+     */
+    private static Vector2[] createSizeTable(float maxSize) {
+        Vector2[] sizes = new Vector2[SIZE_STEPS + 1];
+        float minSize = maxSize * MIN_SIZE_FACTOR;
+        for (int i = 0; i <= SIZE_STEPS; i++) {
+            float size = minSize + (maxSize - minSize) * i / SIZE_STEPS;
+            sizes[i] = new Vector2(size, size);
+        }
+        return sizes;
+    }
+
     /**
      * Creates a renderable object for the leaf with a green shade based on the given factor.
      *
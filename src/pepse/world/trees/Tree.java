@@ -1,17 +1,18 @@
 package pepse.world.trees;
 
-import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
-import danogl.components.GameObjectPhysics;
 import danogl.components.ScheduledTask;
 import danogl.util.Vector2;
+import pepse.event.WorldEventBus;
+import pepse.event.WorldEventType;
+import pepse.util.collections.LongObjectMap;
+import pepse.util.collections.PackedKey;
+import pepse.world.GameObjectSink;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 
-import static pepse.PepseGameManager.SEED;
+import static pepse.PepseGameManager.getSeed;
 import static pepse.constants.TagConstants.FRUIT_TAG;
 import static pepse.constants.TagConstants.TRUNK_TAG;
 
@@ -23,42 +24,12 @@ public class Tree {
     // =======================
     //       CONSTANTS
     // =======================
-    private static final float SPACE_BETWEEN_LEAVES = 3f;
-    private static final float TRIANGLE_SPACE_BETWEEN_LEAVES = 18f;
     private static final int FRUIT_LAYER = Layer.STATIC_OBJECTS+2;
-
-    private static final float TRUNK_WIDTH = 30f;      // Width of the trunk
-    private static final float MIN_TRUNK_HEIGHT = 95f; // Height of each trunk segment
-    private static final float MAX_TREE_HEIGHT = 150f; // Maximum height of the tree
-
-    private static final float LEAF_SIZE = 30f;
-    private static final int TRIANGLE_BASE_WIDTH = 4; // The base width of the triangle
-
-    private static final float TRIANGLE_START_OFFSET_Y = 8f;  // Vertical shift before drawing triangle
-
-    // -- Square leaves --
-    private static final int SQUARE_NUM_LEAVES_PER_ROW = 4;
-    private static final int SQUARE_NUM_ROWS = 4;
-    private static final float SQUARE_OFFSET_X_FACTOR = 2f;   // For shifting leaves in X
-    private static final float SQUARE_OFFSET_Y_FACTOR = 2.5f; // For shifting leaves in Y
-
-    // -- Diamond leaves --
-    private static final int DIAMOND_UPPER_TRIANGLE_ROWS = 2;
-    private static final int DIAMOND_LOWER_TRIANGLE_ROWS = 3;
-
-
-    private static final float FRUIT_SIZE = 20f;
+    private static final Vector2 LEAF_DIMENSIONS =
+            new Vector2(TreeDescriptor.LEAF_SIZE, TreeDescriptor.LEAF_SIZE);
+    private static final Vector2 FRUIT_DIMENSIONS = new Vector2(20f, 20f);
     private static final float FRUIT_SPAWN_INTERVAL = 30f;
-    private static final float FRUIT_CREATION_PROBABILITY = 0.2f;
     private static final Vector2 FRUIT_OFFSET = new Vector2(4, 4);
-    private static final long MY_SEED = 20;
-    private static final float LEAF_ROW_SPACING = 3f;
-
-    private final Random random;
-    private static final String SHAPE_SQUARE = "square";
-    private static final String SHAPE_TRIANGLE = "triangle";
-    private static final String SHAPE_DIAMOND = "diamond";
-    private static final String[] SHAPES = {SHAPE_DIAMOND, SHAPE_TRIANGLE, SHAPE_SQUARE};
 
 
 
@@ -66,10 +37,10 @@ public class Tree {
     //        FIELDS
     // =======================
     private Trunk trunk;
-    private final Map<Vector2, LeafAndFruit> leavesMap = new HashMap<>();
-    private Runnable fruitCallback;
-    private final GameObjectCollection gameObjects; // Collection to manage game objects
-    private final Vector2 position;                // Starting position of the tree
+    private final LongObjectMap<LeafAndFruit> leavesMap = new LongObjectMap<>(); // Keyed by packed leaf position
+    private final WorldEventBus eventBus; // Bus fruit collection is published to
+    private final GameObjectSink gameObjects; // Collection to manage game objects
+    private final TreeDescriptor descriptor;       // Shape, colours and fruit of the tree
 
     // =======================
     //     CONSTRUCTOR
@@ -78,14 +49,14 @@ public class Tree {
      * Creates a new Tree object.
      *
      * @param gameObjects   The collection of game objects to which this tree's parts will be added.
-     * @param position      The starting position (x,y) of the tree.
-     * @param fruitCallback A callback to invoke when fruit is collected.
+     * @param descriptor    The generated description of the tree.
+     * @param eventBus      The bus a {@link WorldEventType#FRUIT_COLLECTED} event is published to
+     *                      when fruit is collected.
      */
-    public Tree(GameObjectCollection gameObjects, Vector2 position, Runnable fruitCallback, Random random) {
+    public Tree(GameObjectSink gameObjects, TreeDescriptor descriptor, WorldEventBus eventBus) {
         this.gameObjects = gameObjects;
-        this.position = position;
-        this.fruitCallback = fruitCallback;
-        this.random = random;
+        this.descriptor = descriptor;
+        this.eventBus = eventBus;
     }
 
     // =======================
@@ -95,15 +66,9 @@ public class Tree {
     /**
      * Builds the trunk, leaves, and fruits for this tree instance.
      */
-
-
-
     public void buildTree() {
-        // Randomize the height of the tree
-        float treeHeight =(float) Math.ceil( MIN_TRUNK_HEIGHT + random.nextFloat() *
-                (MAX_TREE_HEIGHT - MIN_TRUNK_HEIGHT) );
-        createTrunk(treeHeight);
-        createLeaves(treeHeight);
+        createTrunk(descriptor.getTrunkHeight());
+        createLeaves();
         addFruits();
         scheduleNewFruits();
     }
@@ -118,7 +83,7 @@ public class Tree {
         }
 
         // Remove all leaves and fruits
-        for (LeafAndFruit leafAndFruit : leavesMap.values()) {
+        leavesMap.forEachValue(leafAndFruit -> {
             // Remove the leaf
             if (leafAndFruit.getLeaf() != null) {
                 gameObjects.removeGameObject(leafAndFruit.getLeaf(), Layer.STATIC_OBJECTS + 1);
@@ -127,12 +92,116 @@ public class Tree {
             if (leafAndFruit.getFruit() != null) {
                 gameObjects.removeGameObject(leafAndFruit.getFruit(), FRUIT_LAYER);
             }
-        }
+        });
 
         // Clear the map of leaves and fruits
         leavesMap.clear();
     }
 
+    /**
+     * Takes the tree's parts out of the game but keeps them, with the eaten fruit, so
+     * {@link #show()} can put the same tree back without building it again. Eaten fruit does
+     * not regrow while the tree is hidden.
+     */
+    public void hide() {
+        gameObjects.removeGameObject(trunk, Layer.STATIC_OBJECTS);
+        leavesMap.forEachValue(leafAndFruit -> {
+            gameObjects.removeGameObject(leafAndFruit.getLeaf(), Layer.STATIC_OBJECTS + 1);
+            if (leafAndFruit.getFruit() != null && !leafAndFruit.isFruitGotEaten()) {
+                gameObjects.removeGameObject(leafAndFruit.getFruit(), FRUIT_LAYER);
+            }
+        });
+    }
+
+    /**
+     * Puts the parts of a tree taken out by {@link #hide()} back into the game.
+     */
+    public void show() {
+        gameObjects.addGameObject(trunk, Layer.STATIC_OBJECTS);
+        leavesMap.forEachValue(leafAndFruit -> {
+            gameObjects.addGameObject(leafAndFruit.getLeaf(), Layer.STATIC_OBJECTS + 1);
+            if (leafAndFruit.getFruit() != null && !leafAndFruit.isFruitGotEaten()) {
+                gameObjects.addGameObject(leafAndFruit.getFruit(), FRUIT_LAYER);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of game objects the tree is made of: its trunk, leaves and fruit.
+     *
+     * @return The object count.
+     */
+    public int getObjectCount() {
+        return 1 + descriptor.getLeafCount() + descriptor.getFruitCount();
+    }
+
+    /**
+     * Returns the descriptor the tree was built from.
+     *
+     * @return The tree's descriptor.
+     */
+    public TreeDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Returns which fruit have been eaten and not yet regrown.
+     *
+     * @return A mask with bit i set if the fruit of leaf i is eaten.
+     */
+    public long getEatenFruit() {
+        long eaten = 0;
+        for (int i = 0; i < descriptor.getLeafCount(); i++) {
+            LeafAndFruit leafAndFruit =
+                    leavesMap.get(leafKey(descriptor.getLeafX(i), descriptor.getLeafY(i)));
+            if (leafAndFruit != null && leafAndFruit.isFruitGotEaten()) {
+                eaten |= 1L << i;
+            }
+        }
+        return eaten;
+    }
+
+    /**
+     * Removes the given fruit as if they had been eaten; they regrow like any eaten fruit.
+     *
+     * @param eaten A mask with bit i set if the fruit of leaf i is eaten.
+     */
+    public void setEatenFruit(long eaten) {
+        for (int i = 0; i < descriptor.getLeafCount(); i++) {
+            if ((eaten & (1L << i)) == 0) {
+                continue;
+            }
+            LeafAndFruit leafAndFruit =
+                    leavesMap.get(leafKey(descriptor.getLeafX(i), descriptor.getLeafY(i)));
+            if (leafAndFruit != null && leafAndFruit.getFruit() != null &&
+                    !leafAndFruit.isFruitGotEaten()) {
+                gameObjects.removeGameObject(leafAndFruit.getFruit(), FRUIT_LAYER);
+                leafAndFruit.setFruitGotEaten(true);
+            }
+        }
+    }
+
+    /**
+     * Takes one ripe fruit off the tree, as a forager eating it would; like fruit the avatar
+     * collects, it regrows. No {@link WorldEventType#FRUIT_COLLECTED} event is published, since
+     * the avatar did not collect it.
+     *
+     * @return True if a fruit was eaten, false if the tree has none left.
+     */
+    public boolean eatFruit() {
+        for (int i = 0; i < descriptor.getLeafCount(); i++) {
+            LeafAndFruit leafAndFruit =
+                    leavesMap.get(leafKey(descriptor.getLeafX(i), descriptor.getLeafY(i)));
+            if (leafAndFruit != null && leafAndFruit.getFruit() != null &&
+                    !leafAndFruit.isFruitGotEaten()) {
+                gameObjects.removeGameObject(leafAndFruit.getFruit(), FRUIT_LAYER);
+                leafAndFruit.setFruitGotEaten(true);
+                return true;
+            }
+        }
+        return false;
+    }
+
     // =======================
     //   PRIVATE METHODS
     // =======================
@@ -147,126 +216,55 @@ public class Tree {
     }
 
     private void addNewFruits() {
-        for (LeafAndFruit leafAndFruit : leavesMap.values()) {
+        leavesMap.forEachValue(leafAndFruit -> {
             if (leafAndFruit.isFruitGotEaten() && leafAndFruit.getFruit() != null) {
                 // Re-add the fruit to the game if it was eaten
                 gameObjects.addGameObject(leafAndFruit.getFruit(), FRUIT_LAYER);
                 leafAndFruit.setFruitGotEaten(false);
             }
-        }
+        });
     }
 
     private void createTrunk(float height) {
 
         // Calculate the position for each trunk segment
-        Vector2 segmentPosition = new Vector2(position.x(), position.y() - height);
+        Vector2 segmentPosition = new Vector2(descriptor.getX(), descriptor.getGroundY() - height);
 
-        // Random shade factor for each segment
-        float shadeFactor = random.nextFloat();
         // Create a trunk segment and add it to the game
-        Trunk trunk = new Trunk(segmentPosition, new Vector2(TRUNK_WIDTH, height), shadeFactor);
-        trunk.setTag(TRUNK_TAG); // Tag the trunk for collision handling
-        trunk.physics().preventIntersectionsFromDirection(Vector2.ZERO);
-        trunk.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+        Trunk trunk = new Trunk(segmentPosition, new Vector2(TreeDescriptor.TRUNK_WIDTH, height),
+                descriptor.getTrunkShade());
+        trunk.setTag(TRUNK_TAG);
         gameObjects.addGameObject(trunk, Layer.STATIC_OBJECTS);
         this.trunk = trunk;
 
     }
 
-    private void createLeaves(float trunkHeight) {
-        String shape = getRandomShape();
-
-        switch (shape) {
-            case SHAPE_SQUARE:
-                createSquareLeaves(trunkHeight);
-                break;
-            case SHAPE_TRIANGLE:
-                createTriangleLeaves(trunkHeight, TRIANGLE_BASE_WIDTH, true);
-                break;
-            default: // SHAPE_DIAMOND
-                createDiamondLeaves(trunkHeight);
-                break;
+    private void createLeaves() {
+        for (int i = 0; i < descriptor.getLeafCount(); i++) {
+            addLeaf(new Vector2(descriptor.getLeafX(i), descriptor.getLeafY(i)),
+                    descriptor.getLeafShade(i));
         }
     }
 
-    private String getRandomShape() {
-        int randomIndex = (int) (random.nextFloat() * SHAPES.length);
-        return SHAPES[randomIndex];
-    }
-
-    private void createSquareLeaves(float trunkHeight) {
-        float startX = position.x() + TRUNK_WIDTH/2 - SQUARE_OFFSET_X_FACTOR*
-                (LEAF_SIZE + SPACE_BETWEEN_LEAVES) ;
-        float startY = position.y() - trunkHeight - SQUARE_OFFSET_Y_FACTOR*
-                (LEAF_SIZE + SPACE_BETWEEN_LEAVES) ;
-
-        float leafSpacingX = LEAF_SIZE + SPACE_BETWEEN_LEAVES;
-        float leafSpacingY = LEAF_SIZE + SPACE_BETWEEN_LEAVES;
-
-        for (int row = 0; row < SQUARE_NUM_ROWS; row++) {
-            for (int col = 0; col < SQUARE_NUM_LEAVES_PER_ROW; col++) {
-                float x = startX + col * leafSpacingX;
-                float y = startY + row * leafSpacingY;
-
-                addLeaf(new Vector2(x, y));
-            }
-        }
-    }
-
-    private void  createTriangleLeaves(float trunkHeight, int numOfRows, boolean isUpsideDown) {
-        float startX = position.x() + (TRUNK_WIDTH / 2);
-        float startY = position.y() - trunkHeight - TRIANGLE_START_OFFSET_Y;
-        float leafSpacing = LEAF_SIZE + TRIANGLE_SPACE_BETWEEN_LEAVES;
-
-        for (int row = 0; row < numOfRows; row++) {
-            int numLeavesInRow = isUpsideDown ? (row + 1) : (numOfRows - row);
-            float rowWidth = getTriangleRowWidth(row, numOfRows, isUpsideDown);
-            float rowStartX = startX - rowWidth/2;
-
-            for (int col = 0; col < numLeavesInRow; col++) {
-                float x = rowStartX + col * (leafSpacing);
-                float y = startY - row * (LEAF_SIZE+LEAF_ROW_SPACING);
-
-                addLeaf(new Vector2(x, y));
-            }
-        }
-    }
-
-
-    private void addLeaf(Vector2 leafPosition) {
-        Leaf leaf = new Leaf(leafPosition, new Vector2(LEAF_SIZE, LEAF_SIZE), random.nextFloat());
+    private void addLeaf(Vector2 leafPosition, float shadeFactor) {
+        Leaf leaf = new Leaf(leafPosition, LEAF_DIMENSIONS, shadeFactor);
         leaf.addMovement();
         gameObjects.addGameObject(leaf, Layer.STATIC_OBJECTS + 1);
-        leavesMap.put(leafPosition, new LeafAndFruit(leaf));
-    }
-
-    private float getTriangleRowWidth(int row, int numOfRows, boolean isUpsideDown) {
-        if (isUpsideDown) {
-            return (row+1)*LEAF_SIZE + row*TRIANGLE_SPACE_BETWEEN_LEAVES;
-        }
-        int amountOfLeavesInRow = numOfRows - row;
-        return amountOfLeavesInRow * LEAF_SIZE + (amountOfLeavesInRow-1)*TRIANGLE_SPACE_BETWEEN_LEAVES ;
-    }
-
-    private void createDiamondLeaves(float trunkHeight) {
-
-        createTriangleLeaves(trunkHeight, DIAMOND_LOWER_TRIANGLE_ROWS, true);
-
-        createTriangleLeaves(trunkHeight +
-                DIAMOND_LOWER_TRIANGLE_ROWS * (LEAF_SIZE+DIAMOND_LOWER_TRIANGLE_ROWS) ,
-                DIAMOND_UPPER_TRIANGLE_ROWS, false);
+        leavesMap.put(leafKey(leafPosition.x(), leafPosition.y()), new LeafAndFruit(leaf));
     }
 
     private void addFruits() {
-        for (Map.Entry<Vector2, LeafAndFruit> entry : leavesMap.entrySet()) {
-            if (random.nextFloat() < FRUIT_CREATION_PROBABILITY) {
-                Vector2 leafPosition = entry.getKey().add(FRUIT_OFFSET);
-                LeafAndFruit leafAndFruit = entry.getValue();
+        for (int i = 0; i < descriptor.getLeafCount(); i++) {
+            if (descriptor.hasFruit(i)) {
+                Vector2 leafPosition = new Vector2(descriptor.getLeafX(i), descriptor.getLeafY(i))
+                        .add(FRUIT_OFFSET);
+                LeafAndFruit leafAndFruit =
+                        leavesMap.get(leafKey(descriptor.getLeafX(i), descriptor.getLeafY(i)));
 
                 Fruit fruit = new Fruit(
                         leafPosition,
-                        new Vector2(FRUIT_SIZE, FRUIT_SIZE),
-                        new Random(Objects.hash(leafPosition.x(), SEED))
+                        FRUIT_DIMENSIONS,
+                        new Random(Objects.hash(leafPosition.x(), getSeed()))
                 );
 
                 fruit.setTag(FRUIT_TAG);
@@ -274,9 +272,8 @@ public class Tree {
                 fruit.setRunnable(() -> {
                     gameObjects.removeGameObject(fruit, FRUIT_LAYER); // Remove fruit from the game
                     leafAndFruit.setFruitGotEaten(true);
-                    if (fruitCallback != null) {
-                        fruitCallback.run();
-                    }
+                    eventBus.publish(WorldEventType.FRUIT_COLLECTED, leafPosition.x(),
+                            leafPosition.y(), 0f);
                 });
 
                 gameObjects.addGameObject(fruit, FRUIT_LAYER);
@@ -286,6 +283,10 @@ public class Tree {
         }
     }
 
+    private static long leafKey(float x, float y) {
+        return PackedKey.of(Math.round(x), Math.round(y));
+    }
+
     // =======================
     //   PRIVATE CLASSES
     // =======================
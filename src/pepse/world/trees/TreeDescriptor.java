@@ -0,0 +1,215 @@
+package pepse.world.trees;
+
+import pepse.world.Biome;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Everything that determines how a tree looks: trunk height and shade, leaf layout and shades,
+ * and which leaves carry fruit. A descriptor is a pure function of the tree's position and the
+ * world seed, so descriptors can be generated on any thread, in any order, and always match the
+ * tree that {@link Flora} would build at that position.
+ */
+public final class TreeDescriptor {
+
+    // =======================
+    //       CONSTANTS
+    // =======================
+    /**
+     * Width of a tree trunk.
+     */
+    public static final float TRUNK_WIDTH = 30f;
+    /**
+     * Width and height of a leaf.
+     */
+    public static final float LEAF_SIZE = 30f;
+
+    private static final float MIN_TRUNK_HEIGHT = 95f; // Height of each trunk segment
+    private static final float MAX_TREE_HEIGHT = 150f; // Maximum height of the tree
+
+    // =======================
+    //        FIELDS
+    // =======================
+    private final float x; // Left edge of the trunk
+    private final float groundY; // Ground height the trunk stands on
+    private final float trunkHeight;
+    private final float trunkShade;
+    private final CrownShape shape;
+    private final float[] leafPositions; // Top-left x,y pairs, in creation order
+    private final float[] leafShades;
+    private final boolean[] fruit; // Whether each leaf carries a fruit
+
+    // =======================
+    //     CONSTRUCTOR
+    // =======================
+    private TreeDescriptor(float x, float groundY, float trunkHeight, float trunkShade,
+                           CrownShape shape, float[] leafPositions, float[] leafShades,
+                           boolean[] fruit) {
+        this.x = x;
+        this.groundY = groundY;
+        this.trunkHeight = trunkHeight;
+        this.trunkShade = trunkShade;
+        this.shape = shape;
+        this.leafPositions = leafPositions;
+        this.leafShades = leafShades;
+        this.fruit = fruit;
+    }
+
+    // =======================
+    //    PUBLIC METHODS
+    // =======================
+    /**
+     * Generates the descriptor of the tree standing at the given position.
+     *
+     * @param x       The x-coordinate of the tree.
+     * @param groundY The ground height at x.
+     * @param seed    The world seed.
+     * @param biome   The biome the tree grows in, setting its shape mix and fruit probability.
+     * @return The tree's descriptor.
+     */
+    public static TreeDescriptor generate(float x, float groundY, int seed, Biome biome) {
+        Random random = new Random(Objects.hash(x, seed));
+        // Randomize the height of the tree
+        float trunkHeight = (float) Math.ceil(MIN_TRUNK_HEIGHT + random.nextFloat() *
+                (MAX_TREE_HEIGHT - MIN_TRUNK_HEIGHT));
+        float trunkShade = random.nextFloat();
+        CrownShape shape = CrownShape.byIndex(biome.pickShape(random.nextFloat()));
+        float[] leafPositions = shape.stamp(x, groundY - trunkHeight);
+
+        int leafCount = shape.getLeafCount();
+        float[] leafShades = new float[leafCount];
+        for (int i = 0; i < leafCount; i++) {
+            leafShades[i] = random.nextFloat();
+        }
+        boolean[] fruit = new boolean[leafCount];
+        for (int i = 0; i < leafCount; i++) {
+            fruit[i] = random.nextFloat() < biome.getFruitProbability();
+        }
+        return new TreeDescriptor(x, groundY, trunkHeight, trunkShade, shape, leafPositions,
+                leafShades, fruit);
+    }
+
+    /**
+     * Returns the x-coordinate of the tree.
+     *
+     * @return The left edge of the trunk.
+     */
+    public float getX() {
+        return x;
+    }
+
+    /**
+     * Returns the ground height the tree stands on.
+     *
+     * @return The ground height.
+     */
+    public float getGroundY() {
+        return groundY;
+    }
+
+    /**
+     * Returns the height of the trunk.
+     *
+     * @return The trunk height.
+     */
+    public float getTrunkHeight() {
+        return trunkHeight;
+    }
+
+    /**
+     * Returns the shade factor of the trunk.
+     *
+     * @return A shade factor in [0, 1).
+     */
+    public float getTrunkShade() {
+        return trunkShade;
+    }
+
+    /**
+     * Returns the crown shape.
+     *
+     * @return The shape.
+     */
+    public CrownShape getShape() {
+        return shape;
+    }
+
+    /**
+     * Returns the number of leaves.
+     *
+     * @return The leaf count.
+     */
+    public int getLeafCount() {
+        return leafShades.length;
+    }
+
+    /**
+     * Returns the top-left x of a leaf.
+     *
+     * @param leaf The leaf index.
+     * @return The x-coordinate.
+     */
+    public float getLeafX(int leaf) {
+        return leafPositions[2 * leaf];
+    }
+
+    /**
+     * Returns the top-left y of a leaf.
+     *
+     * @param leaf The leaf index.
+     * @return The y-coordinate.
+     */
+    public float getLeafY(int leaf) {
+        return leafPositions[2 * leaf + 1];
+    }
+
+    /**
+     * Returns the shade factor of a leaf.
+     *
+     * @param leaf The leaf index.
+     * @return A shade factor in [0, 1).
+     */
+    public float getLeafShade(int leaf) {
+        return leafShades[leaf];
+    }
+
+    /**
+     * Checks whether a leaf carries a fruit.
+     *
+     * @param leaf The leaf index.
+     * @return True if the leaf has a fruit.
+     */
+    public boolean hasFruit(int leaf) {
+        return fruit[leaf];
+    }
+
+    /**
+     * Returns the number of leaves carrying fruit.
+     *
+     * @return The fruit count.
+     */
+    public int getFruitCount() {
+        int count = 0;
+        for (boolean hasFruit : fruit) {
+            if (hasFruit) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether two descriptors describe identical trees.
+     *
+     * @param other The descriptor to compare with.
+     * @return True if every generated property is identical.
+     */
+    public boolean contentEquals(TreeDescriptor other) {
+        return x == other.x && groundY == other.groundY && trunkHeight == other.trunkHeight &&
+                trunkShade == other.trunkShade && shape == other.shape &&
+                Arrays.equals(leafPositions, other.leafPositions) &&
+                Arrays.equals(leafShades, other.leafShades) && Arrays.equals(fruit, other.fruit);
+    }
+}
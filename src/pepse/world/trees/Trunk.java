@@ -4,6 +4,9 @@ import danogl.GameObject;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.world.EntityTypes;
+import pepse.world.InteractionGrid;
+import pepse.world.TypedEntity;
 
 import java.awt.*;
 
@@ -11,8 +14,9 @@ import java.awt.*;
  * Represents a trunk in the game world.
  * A trunk is a rectangular object with a brownish color,
  * the shade of which can vary based on the given shade factor.
+ * Trunks block the avatar through an {@link InteractionGrid}, not the engine's collision pass.
  */
-public class Trunk extends GameObject {
+public class Trunk extends GameObject implements TypedEntity {
 
     // =======================
     //       CONSTANTS
@@ -39,6 +43,31 @@ public class Trunk extends GameObject {
         super(topLeftCorner, dimensions, createRenderable(shadeFactor));
     }
 
+    // =======================
+    //    PUBLIC METHODS
+    // =======================
+
+    /**
+     * Returns the object's kind.
+     *
+     * @return {@link EntityTypes#TRUNK}.
+     */
+    @Override
+    public int getEntityType() {
+        return EntityTypes.TRUNK;
+    }
+
+    /**
+     * Filters collisions by kind. Trunks collide with nothing in the engine's pass.
+     *
+     * @param other The other game object.
+     * @return Whether the engine should report the collision.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return EntityTypes.canCollide(EntityTypes.TRUNK, EntityTypes.typeOf(other));
+    }
+
     // =======================
     //    PRIVATE METHODS
     // =======================